@@ -0,0 +1,30 @@
+package com.hotel.bench;
+
+/**
+ * Branche l'application sur une base H2 en mémoire (mode MySQL) dans le JVM du benchmark.
+ * <p>
+ * Doit être appelé avant le premier accès à {@code DatabaseUtil}, qui lit sa configuration
+ * au chargement. Les propriétés déjà passées en {@code -D} sont conservées, ce qui permet
+ * de viser une autre base : {@code -jvmArgsAppend -Dhotel.db.url=jdbc:mysql://...}.
+ */
+final class BenchDatabase {
+
+    private BenchDatabase() {
+    }
+
+    static void configure() {
+        setIfAbsent("hotel.db.url",
+                "jdbc:h2:mem:bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1");
+        setIfAbsent("hotel.db.driver", "org.h2.Driver");
+        setIfAbsent("hotel.db.user", "sa");
+        setIfAbsent("hotel.db.password", "");
+        setIfAbsent("hotel.db.pool.minSize", "0");
+        setIfAbsent("java.rmi.server.hostname", "127.0.0.1");
+    }
+
+    private static void setIfAbsent(String key, String value) {
+        if (System.getProperty(key) == null) {
+            System.setProperty(key, value);
+        }
+    }
+}
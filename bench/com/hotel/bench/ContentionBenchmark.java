@@ -0,0 +1,172 @@
+package com.hotel.bench;
+
+import com.hotel.db.DatabaseUtil;
+import com.hotel.db.RoomDaoImpl;
+import com.hotel.model.Client;
+import com.hotel.model.Room;
+import com.hotel.service.OptimisticRetry;
+import com.hotel.service.rmi.HotelServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.rmi.NoSuchObjectException;
+import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Réservations concurrentes sur quelques chambres : {@code bookers} threads tentent des
+ * séjours de 1 à 3 nuits tirés dans une fenêtre de {@value #WINDOW_DAYS} jours sur
+ * {@value #ROOMS} chambres. Le score est en tentatives par seconde.
+ * <p>
+ * {@code separateServers=false} : tous les threads passent par le même service, dont le
+ * verrou par chambre sérialise les réservations d'une chambre (pas de conflit de version).
+ * {@code separateServers=true} : un service par thread, comme autant de serveurs sur la
+ * même base ; les réservations d'une chambre se heurtent alors à sa version et
+ * {@link OptimisticRetry} rejoue. À la fin de chaque itération, le taux de conflit
+ * (conflits / essais), les réservations acceptées et les échecs après rejeux sont affichés.
+ * <p>
+ * Les réservations sont supprimées après chaque appel (hors mesure) : la fenêtre reste
+ * libre et le taux de refus pour chevauchement ne dérive pas au fil de l'itération.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class ContentionBenchmark {
+
+    private static final int ROOMS = 4;
+    private static final int WINDOW_DAYS = 30;
+    private static final int ATTEMPTS = 256;
+
+    @Param({"1", "2", "4", "8", "16", "32", "64"})
+    public int bookers;
+
+    @Param({"false", "true"})
+    public boolean separateServers;
+
+    private final List<HotelServiceImpl> services = new ArrayList<>();
+    private List<Room> rooms;
+    private Client client;
+    private LocalDate firstNight;
+    private int lastSeededReservation;
+    private ExecutorService pool;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private long attemptsBefore;
+    private long conflictsBefore;
+
+    @Setup
+    public void start(HotelDataset data) throws RemoteException {
+        int count = separateServers ? bookers : 1;
+        for (int i = 0; i < count; i++) {
+            services.add(new HotelServiceImpl());
+        }
+        List<Room> fresh = new ArrayList<>();
+        for (int i = 0; i < ROOMS; i++) {
+            fresh.add(new Room(0, "C" + i, "Single", 50.0, true));
+        }
+        rooms = new RoomDaoImpl().saveAll(fresh);
+        client = data.clients.get(0);
+        firstNight = LocalDate.now().plusDays(1);
+        lastSeededReservation = data.booked.get(data.booked.size() - 1).getId();
+        pool = Executors.newFixedThreadPool(bookers);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetCounters() {
+        accepted.reset();
+        failed.reset();
+        attemptsBefore = OptimisticRetry.getAttemptCount();
+        conflictsBefore = OptimisticRetry.getConflictCount();
+    }
+
+    @TearDown(Level.Invocation)
+    public void removeBookings() throws SQLException {
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement("DELETE FROM reservation WHERE id > ?")) {
+            ps.setInt(1, lastSeededReservation);
+            ps.executeUpdate();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        long attempts = OptimisticRetry.getAttemptCount() - attemptsBefore;
+        long conflicts = OptimisticRetry.getConflictCount() - conflictsBefore;
+        System.out.printf("%n[contention] bookers=%d separateServers=%b : conflits %d / %d essais (%.1f %%), "
+                        + "%d acceptées, %d échecs%n",
+                bookers, separateServers, conflicts, attempts,
+                attempts == 0 ? 0.0 : 100.0 * conflicts / attempts, accepted.sum(), failed.sum());
+    }
+
+    @TearDown
+    public void stop() throws NoSuchObjectException {
+        pool.shutdownNow();
+        for (HotelServiceImpl service : services) {
+            UnicastRemoteObject.unexportObject(service, true);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ATTEMPTS)
+    public long book() throws Exception {
+        List<Callable<Long>> tasks = new ArrayList<>(bookers);
+        for (int b = 0; b < bookers; b++) {
+            HotelServiceImpl service = services.get(separateServers ? b : 0);
+            int share = ATTEMPTS / bookers + (b < ATTEMPTS % bookers ? 1 : 0);
+            tasks.add(() -> attempt(service, share));
+        }
+        long booked = 0;
+        for (Future<Long> f : pool.invokeAll(tasks)) {
+            booked += f.get();
+        }
+        return booked;
+    }
+
+    private long attempt(HotelServiceImpl service, int count) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long booked = 0;
+        for (int i = 0; i < count; i++) {
+            Room room = rooms.get(random.nextInt(ROOMS));
+            LocalDate checkIn = firstNight.plusDays(random.nextInt(WINDOW_DAYS));
+            try {
+                if (service.makeReservation(client, room, checkIn, checkIn.plusDays(1 + random.nextInt(3))) != null) {
+                    booked++;
+                }
+            } catch (RuntimeException e) {
+                // conflit persistant après tous les rejeux
+                failed.increment();
+            }
+        }
+        accepted.add(booked);
+        return booked;
+    }
+}
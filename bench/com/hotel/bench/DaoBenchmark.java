@@ -0,0 +1,48 @@
+package com.hotel.bench;
+
+import com.hotel.db.PaymentDao;
+import com.hotel.db.PaymentDaoImpl;
+import com.hotel.db.ReservationDao;
+import com.hotel.db.ReservationDaoImpl;
+import com.hotel.model.Payment;
+import com.hotel.model.Reservation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Lectures des DAO de réservation et de paiement. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class DaoBenchmark {
+
+    private final ReservationDao reservationDao = new ReservationDaoImpl();
+    private final PaymentDao paymentDao = new PaymentDaoImpl();
+
+    @Benchmark
+    public List<Reservation> reservationFindAll(HotelDataset data) {
+        return reservationDao.findAll();
+    }
+
+    @Benchmark
+    public Reservation reservationFindById(HotelDataset data) {
+        return reservationDao.findById(data.randomReservation().getId());
+    }
+
+    @Benchmark
+    public List<Payment> paymentFindAll(HotelDataset data) {
+        return paymentDao.findAll();
+    }
+}
@@ -0,0 +1,49 @@
+package com.hotel.bench;
+
+import com.hotel.db.EmbeddedDatabase;
+import com.hotel.db.Fixtures;
+import com.hotel.model.Client;
+import com.hotel.model.Reservation;
+import com.hotel.model.Room;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Base embarquée remplie une fois par essai : {@code reservations} réservations, un paiement
+ * par réservation, une chambre pour mille réservations et un client pour dix.
+ * <p>
+ * Volume par défaut : 1k, 100k et 1M ; {@code -p reservations=1000} pour un seul.
+ */
+@State(Scope.Benchmark)
+public class HotelDataset {
+
+    @Param({"1000", "100000", "1000000"})
+    public int reservations;
+
+    public List<Room> rooms;
+    public List<Client> clients;
+    public List<Reservation> booked;
+
+    @Setup
+    public void seed() {
+        BenchDatabase.configure();
+        EmbeddedDatabase.reset();
+        rooms = Fixtures.rooms(Math.max(10, reservations / 1000));
+        clients = Fixtures.clients(Math.max(10, reservations / 10));
+        booked = Fixtures.reservations(clients, rooms, reservations);
+        Fixtures.payments(booked);
+    }
+
+    public Reservation randomReservation() {
+        return booked.get(ThreadLocalRandom.current().nextInt(booked.size()));
+    }
+
+    public Client randomClient() {
+        return clients.get(ThreadLocalRandom.current().nextInt(clients.size()));
+    }
+}
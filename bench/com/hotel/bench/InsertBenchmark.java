@@ -0,0 +1,125 @@
+package com.hotel.bench;
+
+import com.hotel.db.ClientDao;
+import com.hotel.db.ClientDaoImpl;
+import com.hotel.db.DatabaseUtil;
+import com.hotel.db.ReservationDao;
+import com.hotel.db.ReservationDaoImpl;
+import com.hotel.model.Client;
+import com.hotel.model.Reservation;
+import com.hotel.model.Room;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insertions ligne à ligne ({@code add} / {@code save}, une requête et un commit par ligne)
+ * contre insertions par lots ({@code saveAll}). Le score est en lignes par seconde.
+ * <p>
+ * Les lignes ajoutées sont supprimées à la fin de chaque itération, la base garde donc le
+ * volume du jeu de données. Sur MySQL, {@code rewriteBatchedStatements} regroupe en plus
+ * chaque lot en une seule requête : l'écart y est plus grand que sur H2.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class InsertBenchmark {
+
+    private static final int ROWS = 1000;
+
+    private final ClientDao clientDao = new ClientDaoImpl();
+    private final ReservationDao reservationDao = new ReservationDaoImpl();
+    private int lastSeededClient;
+    private int lastSeededReservation;
+    private int next;
+
+    @Setup
+    public void start(HotelDataset data) {
+        lastSeededClient = data.clients.get(data.clients.size() - 1).getId();
+        lastSeededReservation = data.booked.get(data.booked.size() - 1).getId();
+    }
+
+    @TearDown(Level.Iteration)
+    public void removeInserted() throws SQLException {
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            delete(conn, "DELETE FROM reservation WHERE id > ?", lastSeededReservation);
+            delete(conn, "DELETE FROM client WHERE id > ?", lastSeededClient);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void clientsOneByOne() {
+        for (Client client : newClients()) {
+            clientDao.add(client);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<Client> clientsBatched() {
+        return clientDao.saveAll(newClients());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void reservationsOneByOne(HotelDataset data) {
+        for (Reservation reservation : newReservations(data)) {
+            reservationDao.save(reservation);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<Reservation> reservationsBatched(HotelDataset data) {
+        return reservationDao.saveAll(newReservations(data));
+    }
+
+    private List<Client> newClients() {
+        List<Client> clients = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            int k = next++;
+            clients.add(new Client(0, "Bench " + k, "Adresse " + k, "bench" + k + "@example.com"));
+        }
+        return clients;
+    }
+
+    // réservations insérées directement par le DAO : aucun contrôle de disponibilité
+    private List<Reservation> newReservations(HotelDataset data) {
+        List<Reservation> reservations = new ArrayList<>(ROWS);
+        LocalDate checkIn = LocalDate.now().plusYears(1);
+        for (int i = 0; i < ROWS; i++) {
+            Room room = data.rooms.get(i % data.rooms.size());
+            reservations.add(new Reservation(0, data.randomClient(), room, checkIn, checkIn.plusDays(2)));
+        }
+        return reservations;
+    }
+
+    private static void delete(Connection conn, String sql, int afterId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, afterId);
+            ps.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.hotel.bench;
+
+import com.hotel.db.EmbeddedDatabase;
+import com.hotel.db.Fixtures;
+import com.hotel.db.UserDao;
+import com.hotel.db.UserDaoImpl;
+import com.hotel.model.Client;
+import com.hotel.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connexion d'un utilisateur CLIENT selon la taille de la table client : la latence doit
+ * rester plate de 1k à 1M clients (une requête avec LEFT JOIN, sans parcours de la table).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class LoginBenchmark {
+
+    private static final int CLIENT_USERS = 100;
+
+    @Param({"1000", "100000", "1000000"})
+    public int clients;
+
+    private final UserDao userDao = new UserDaoImpl();
+
+    @Setup
+    public void seed() {
+        BenchDatabase.configure();
+        EmbeddedDatabase.reset();
+        List<Client> all = Fixtures.clients(clients);
+        userDao.save(new User(0, "admin", "admin", User.Role.EMPLOYEE));
+        // comptes répartis sur toute la table, dernier client compris
+        for (int i = 0; i < CLIENT_USERS; i++) {
+            Client client = all.get((int) ((long) (all.size() - 1) * i / (CLIENT_USERS - 1)));
+            userDao.save(new User(0, "guest" + i, "pwd" + i, User.Role.CLIENT, client));
+        }
+    }
+
+    @Benchmark
+    public User loginClient() {
+        int i = ThreadLocalRandom.current().nextInt(CLIENT_USERS);
+        return userDao.findByUsernameAndPassword("guest" + i, "pwd" + i);
+    }
+
+    @Benchmark
+    public User loginEmployee() {
+        return userDao.findByUsernameAndPassword("admin", "admin");
+    }
+
+    @Benchmark
+    public List<User> findAllUsers() {
+        return userDao.findAll();
+    }
+}
@@ -0,0 +1,58 @@
+package com.hotel.bench;
+
+import com.hotel.db.Fixtures;
+import com.hotel.service.Granularity;
+import com.hotel.service.ReportService;
+import com.hotel.service.ReportReconciler;
+import com.hotel.service.ReportServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/** Rapports : occupation, chiffre d'affaires, série temporelle sur un an, historique client. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class ReportBenchmark {
+
+    private ReportService reportService;
+
+    @Setup
+    public void start(HotelDataset data) {
+        ReportReconciler.reload();
+        reportService = new ReportServiceImpl();
+    }
+
+    @Benchmark
+    public String occupancyReport() {
+        return reportService.generateOccupancyReport();
+    }
+
+    @Benchmark
+    public String revenueReport() {
+        return reportService.generateRevenueReport();
+    }
+
+    @Benchmark
+    public String occupancyTimeSeries() {
+        return reportService.generateOccupancyTimeSeries(Fixtures.START,
+                Fixtures.START.plusYears(1), Granularity.MONTH, null);
+    }
+
+    @Benchmark
+    public String clientHistoryReport(HotelDataset data) {
+        return reportService.generateClientHistoryReport(data.randomClient());
+    }
+}
@@ -0,0 +1,103 @@
+package com.hotel.bench;
+
+import com.hotel.model.Reservation;
+import com.hotel.model.ReservationFilter;
+import com.hotel.model.ReservationSort;
+import com.hotel.model.Room;
+import com.hotel.service.rmi.HotelServer;
+import com.hotel.service.rmi.HotelService;
+import com.hotel.service.rmi.HotelServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.rmi.NoSuchObjectException;
+import java.rmi.RemoteException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appels RMI sur la boucle locale : débit et distribution des latences (percentiles en mode
+ * échantillonné) des principaux appels distants, face au même appel fait en local.
+ * <p>
+ * Le serveur est démarré comme en mode {@code --server} (registre, sockets à délai), le
+ * stub obtenu comme en mode {@code --client}. Ajouter {@code -t 8} pour plusieurs postes.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class RmiBenchmark {
+
+    private static final int PAGE = 100;
+
+    private HotelServiceImpl local;
+    private HotelService remote;
+    private int roomId;
+    private final ReservationFilter unconfirmed = new ReservationFilter();
+
+    @Setup
+    public void start(HotelDataset data) throws IOException {
+        int port;
+        try (ServerSocket probe = new ServerSocket(0)) {
+            port = probe.getLocalPort();
+        }
+        local = HotelServer.start(port, 0);
+        remote = HotelServer.lookup("127.0.0.1", port);
+        unconfirmed.setConfirmed(false);
+        roomId = data.rooms.get(0).getId();
+    }
+
+    @TearDown
+    public void stop() throws NoSuchObjectException {
+        HotelServer.stop();
+    }
+
+    @Benchmark
+    public List<Room> remoteGetAllRooms() throws RemoteException {
+        return remote.getAllRooms();
+    }
+
+    @Benchmark
+    public List<Room> localGetAllRooms() {
+        return local.getAllRooms();
+    }
+
+    @Benchmark
+    public List<Reservation> remoteReservationsPage() throws RemoteException {
+        return remote.getReservationsPage(ReservationSort.CHECK_IN, true, 0, PAGE);
+    }
+
+    @Benchmark
+    public List<Reservation> localReservationsPage() {
+        return local.getReservationsPage(ReservationSort.CHECK_IN, true, 0, PAGE);
+    }
+
+    @Benchmark
+    public List<Reservation> remoteFindReservations() throws RemoteException {
+        return remote.findReservations(unconfirmed, 0, PAGE);
+    }
+
+    @Benchmark
+    public int remoteCountReservations() throws RemoteException {
+        return remote.countReservations();
+    }
+
+    // lecture servie par le cache du serveur : coût du transport seul
+    @Benchmark
+    public Room remoteGetRoom() throws RemoteException {
+        return remote.getRoom(roomId);
+    }
+}
@@ -0,0 +1,98 @@
+package com.hotel.bench;
+
+import com.hotel.model.Client;
+import com.hotel.model.Invoice;
+import com.hotel.model.Reservation;
+import com.hotel.model.Room;
+import com.hotel.service.ejb.PaymentService;
+import com.hotel.service.ejb.PaymentServiceImpl;
+import com.hotel.service.rmi.HotelServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.rmi.NoSuchObjectException;
+import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Écritures des services : réservation d'une chambre libre et facturation d'une réservation.
+ * <p>
+ * Les réservations se font sur des chambres ajoutées pour l'occasion, à des dates toujours
+ * libres ; elles sont annulées à la fin de chaque itération.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class ServiceBenchmark {
+
+    private static final int BOOKING_ROOMS = 50;
+
+    private HotelServiceImpl hotelService;
+    private PaymentService paymentService;
+    private Client client;
+    private final List<Room> bookingRooms = new ArrayList<>();
+    private final List<Integer> bookedIds = new ArrayList<>();
+    private LocalDate firstNight;
+    private int next;
+
+    @Setup
+    public void start(HotelDataset data) throws RemoteException {
+        hotelService = new HotelServiceImpl();
+        paymentService = new PaymentServiceImpl();
+        client = data.clients.get(0);
+        for (int i = 0; i < BOOKING_ROOMS; i++) {
+            Room room = new Room(0, "B" + i, "Single", 50.0, true);
+            hotelService.addRoom(room);
+            bookingRooms.add(room);
+        }
+        firstNight = LocalDate.now().plusDays(1);
+    }
+
+    @TearDown(Level.Iteration)
+    public void cancelBookings() {
+        for (int id : bookedIds) {
+            hotelService.cancelReservation(id);
+        }
+        bookedIds.clear();
+        next = 0;
+    }
+
+    @TearDown
+    public void stop() throws NoSuchObjectException {
+        UnicastRemoteObject.unexportObject(hotelService, true);
+    }
+
+    // une nuit par réservation, chambres en tourniquet : jamais de chevauchement
+    @Benchmark
+    public Reservation makeReservation() {
+        int k = next++;
+        LocalDate checkIn = firstNight.plusDays(k / BOOKING_ROOMS);
+        Reservation r = hotelService.makeReservation(client, bookingRooms.get(k % BOOKING_ROOMS), checkIn, checkIn.plusDays(1));
+        if (r != null) {
+            bookedIds.add(r.getId());
+        }
+        return r;
+    }
+
+    @Benchmark
+    public Invoice generateInvoice(HotelDataset data) {
+        return paymentService.generateInvoice(data.randomReservation());
+    }
+}
@@ -0,0 +1,103 @@
+package com.hotel.bench;
+
+import com.hotel.db.DatabaseUtil;
+import com.hotel.db.ReservationDao;
+import com.hotel.db.ReservationDaoImpl;
+import com.hotel.db.RoomDaoImpl;
+import com.hotel.db.TransactionManager;
+import com.hotel.model.Client;
+import com.hotel.model.Reservation;
+import com.hotel.model.Room;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Réservations par seconde avec et sans {@link TransactionManager} : contrôle de
+ * chevauchement puis insertion, soit en deux emprunts de connexion auto-validés, soit
+ * dans une seule transaction (une connexion, un commit).
+ * <p>
+ * Les séjours vont sur des chambres ajoutées pour l'occasion, une nuit toujours libre par
+ * appel ; ils sont supprimés à la fin de chaque itération.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class TransactionBenchmark {
+
+    private static final int BOOKING_ROOMS = 50;
+
+    private final ReservationDao reservationDao = new ReservationDaoImpl();
+    private List<Room> bookingRooms;
+    private Client client;
+    private LocalDate firstNight;
+    private int lastSeededReservation;
+    private int next;
+
+    @Setup
+    public void start(HotelDataset data) {
+        List<Room> rooms = new ArrayList<>();
+        for (int i = 0; i < BOOKING_ROOMS; i++) {
+            rooms.add(new Room(0, "T" + i, "Single", 50.0, true));
+        }
+        bookingRooms = new RoomDaoImpl().saveAll(rooms);
+        client = data.clients.get(0);
+        firstNight = LocalDate.now().plusDays(1);
+        lastSeededReservation = data.booked.get(data.booked.size() - 1).getId();
+    }
+
+    @TearDown(Level.Iteration)
+    public void removeBookings() throws SQLException {
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement("DELETE FROM reservation WHERE id > ?")) {
+            ps.setInt(1, lastSeededReservation);
+            ps.executeUpdate();
+        }
+        next = 0;
+    }
+
+    @Benchmark
+    public Reservation autoCommit() {
+        return book(nextStay());
+    }
+
+    @Benchmark
+    public Reservation inTransaction() {
+        Reservation stay = nextStay();
+        return TransactionManager.inTransaction(() -> book(stay));
+    }
+
+    private Reservation book(Reservation stay) {
+        if (reservationDao.hasOverlap(stay.getRoom().getId(), stay.getCheckInDate(), stay.getCheckOutDate())) {
+            return null;
+        }
+        return reservationDao.save(stay);
+    }
+
+    // une nuit par réservation, chambres en tourniquet : jamais de chevauchement
+    private Reservation nextStay() {
+        int k = next++;
+        LocalDate checkIn = firstNight.plusDays(k / BOOKING_ROOMS);
+        return new Reservation(0, client, bookingRooms.get(k % BOOKING_ROOMS), checkIn, checkIn.plusDays(1));
+    }
+}
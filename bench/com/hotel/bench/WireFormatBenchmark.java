@@ -0,0 +1,167 @@
+package com.hotel.bench;
+
+import com.hotel.model.Client;
+import com.hotel.model.Reservation;
+import com.hotel.model.Room;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodage d'une page de réservations telle que renvoyée par RMI : format compact
+ * ({@code Externalizable}) contre la sérialisation Java par défaut des anciens modèles,
+ * reproduits ici à l'identique ({@link LegacyReservation}...).
+ * <p>
+ * Les octets par réservation de chaque format sont affichés au démarrage de l'essai.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+
+    // taille d'une page (HotelService.MAX_PAGE_SIZE vaut 500)
+    @Param({"100", "500"})
+    public int pageSize;
+
+    private final ArrayList<Reservation> compact = new ArrayList<>();
+    private final ArrayList<LegacyReservation> legacy = new ArrayList<>();
+    private byte[] compactBytes;
+    private byte[] legacyBytes;
+
+    @Setup
+    public void build() throws IOException {
+        // 20 clients et 10 chambres partagés par la page, comme dans une liste réelle
+        List<Client> clients = new ArrayList<>();
+        List<LegacyClient> legacyClients = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            clients.add(new Client(i, "Client " + i, "Adresse " + i, "client" + i + "@example.com"));
+            legacyClients.add(new LegacyClient(i, "Client " + i, "Adresse " + i, "client" + i + "@example.com"));
+        }
+        String[] types = {"Single", "Double", "Suite"};
+        List<Room> rooms = new ArrayList<>();
+        List<LegacyRoom> legacyRooms = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            rooms.add(new Room(i, String.valueOf(100 + i), types[i % 3], 50.0 + i, true));
+            legacyRooms.add(new LegacyRoom(i, String.valueOf(100 + i), types[i % 3], 50.0 + i, true));
+        }
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        for (int k = 0; k < pageSize; k++) {
+            LocalDate in = start.plusDays(k);
+            compact.add(new Reservation(k, clients.get(k % 20), rooms.get(k % 10), in, in.plusDays(2)));
+            legacy.add(new LegacyReservation(k, legacyClients.get(k % 20), legacyRooms.get(k % 10), in, in.plusDays(2)));
+        }
+        compactBytes = encode(compact);
+        legacyBytes = encode(legacy);
+        System.out.printf("%nOctets par réservation (page de %d) : compact %.1f, sérialisation par défaut %.1f%n",
+                pageSize, (double) compactBytes.length / pageSize, (double) legacyBytes.length / pageSize);
+    }
+
+    @Benchmark
+    public byte[] encodeCompact() throws IOException {
+        return encode(compact);
+    }
+
+    @Benchmark
+    public byte[] encodeLegacy() throws IOException {
+        return encode(legacy);
+    }
+
+    @Benchmark
+    public Object decodeCompact() throws IOException, ClassNotFoundException {
+        return decode(compactBytes);
+    }
+
+    @Benchmark
+    public Object decodeLegacy() throws IOException, ClassNotFoundException {
+        return decode(legacyBytes);
+    }
+
+    // un flux par page, comme un retour d'appel RMI
+    private static byte[] encode(Object page) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(page);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object decode(byte[] data) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            return in.readObject();
+        }
+    }
+
+    // ---------- modèles d'origine, sérialisation Java par défaut ----------
+
+    static class LegacyClient implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final int id;
+        private final String name;
+        private final String contact;
+        private final String email;
+
+        LegacyClient(int id, String name, String contact, String email) {
+            this.id = id;
+            this.name = name;
+            this.contact = contact;
+            this.email = email;
+        }
+    }
+
+    static class LegacyRoom implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final int id;
+        private final String number;
+        private final String type;
+        private final double price;
+        private final boolean available;
+
+        LegacyRoom(int id, String number, String type, double price, boolean available) {
+            this.id = id;
+            this.number = number;
+            this.type = type;
+            this.price = price;
+            this.available = available;
+        }
+    }
+
+    static class LegacyReservation implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final int id;
+        private final LegacyClient client;
+        private final LegacyRoom room;
+        private final LocalDate checkInDate;
+        private final LocalDate checkOutDate;
+        private boolean confirmed;
+
+        LegacyReservation(int id, LegacyClient client, LegacyRoom room, LocalDate checkInDate, LocalDate checkOutDate) {
+            this.id = id;
+            this.client = client;
+            this.room = room;
+            this.checkInDate = checkInDate;
+            this.checkOutDate = checkOutDate;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.hotel.db;
+
+import com.hotel.bench.HotelDataset;
+import com.hotel.model.Client;
+import com.hotel.model.Reservation;
+import com.hotel.model.Room;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping d'une page de lignes "reservation + client + room" : lecture par libellé de
+ * colonne (mapping d'origine, recopié ici) contre lecture par index résolu une fois par
+ * résultat ({@link ReservationRowMapper}). Même requête, même carte d'identité des clients
+ * et des chambres : l'écart mesuré est celui du mapping.
+ * <p>
+ * Dans le paquet {@code com.hotel.db} pour accéder au mapper, qui n'est pas public.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class RowMappingBenchmark {
+
+    private static final int PAGE = 10_000;
+
+    private static final String SQL = "SELECT " + ReservationRowMapper.COLUMNS +
+            "FROM reservation r " +
+            ReservationRowMapper.JOINS +
+            "ORDER BY r.id LIMIT " + PAGE;
+
+    @Benchmark
+    public List<Reservation> byLabel(HotelDataset data) throws SQLException {
+        Map<Integer, Client> clients = new HashMap<>();
+        Map<Integer, Room> rooms = new HashMap<>();
+        List<Reservation> result = new ArrayList<>(PAGE);
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SQL);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                result.add(mapByLabel(rs, clients, rooms));
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<Reservation> byIndex(HotelDataset data) throws SQLException {
+        Map<Integer, Client> clients = new HashMap<>();
+        Map<Integer, Room> rooms = new HashMap<>();
+        List<Reservation> result = new ArrayList<>(PAGE);
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SQL);
+             ResultSet rs = ps.executeQuery()) {
+            ReservationRowMapper mapper = ReservationRowMapper.bind(rs, clients, rooms);
+            while (rs.next()) {
+                result.add(mapper.mapRow(rs));
+            }
+        }
+        return result;
+    }
+
+    // ---------- mapping d'origine : un libellé résolu par le pilote à chaque lecture ----------
+
+    private static Reservation mapByLabel(ResultSet rs, Map<Integer, Client> clients, Map<Integer, Room> rooms)
+            throws SQLException {
+        Client client = clients.get(rs.getInt("c_id"));
+        if (client == null) {
+            client = new Client();
+            client.setId(rs.getInt("c_id"));
+            client.setName(rs.getString("c_name"));
+            client.setContact(rs.getString("c_contact"));
+            client.setEmail(rs.getString("c_email"));
+            clients.put(client.getId(), client);
+        }
+        Room room = rooms.get(rs.getInt("room_id"));
+        if (room == null) {
+            room = new Room();
+            room.setId(rs.getInt("room_id"));
+            room.setNumber(rs.getString("room_number"));
+            room.setType(rs.getString("room_type"));
+            room.setPrice(rs.getDouble("room_price"));
+            room.setAvailable(rs.getBoolean("room_available"));
+            room.setVersion(rs.getInt("room_version"));
+            rooms.put(room.getId(), room);
+        }
+
+        Reservation reservation = new Reservation();
+        reservation.setId(rs.getInt("r_id"));
+        reservation.setClient(client);
+        reservation.setRoom(room);
+        reservation.setCheckInDate(rs.getDate("r_check_in").toLocalDate());
+        reservation.setCheckOutDate(rs.getDate("r_check_out").toLocalDate());
+        reservation.setConfirmed(rs.getBoolean("r_confirmed"));
+        reservation.setVersion(rs.getInt("r_version"));
+        return reservation;
+    }
+}
@@ -1,33 +1,98 @@
 package com.hotel;
 
+import com.hotel.db.SchemaUpdater;
 import com.hotel.db.UserDao;
 import com.hotel.db.UserDaoImpl;
 import com.hotel.model.User;
+import com.hotel.service.ChangeLog;
+import com.hotel.service.ExportService;
+import com.hotel.service.ExportServiceImpl;
+import com.hotel.service.ReportReconciler;
 import com.hotel.service.ReportService;
 import com.hotel.service.ReportServiceImpl;
+import com.hotel.service.ejb.NightlyInvoicing;
 import com.hotel.service.ejb.PaymentService;
 import com.hotel.service.ejb.PaymentServiceImpl;
+import com.hotel.service.rmi.HotelServer;
 import com.hotel.service.rmi.HotelService;
 import com.hotel.service.rmi.HotelServiceImpl;
+import com.hotel.service.rmi.RemotePaymentService;
+import com.hotel.service.rmi.RemoteReportService;
+import com.hotel.ui.EdtStallDetector;
 import com.hotel.ui.LoginFrame;
 
 import javax.swing.*;
+import java.awt.GraphicsEnvironment;
 import java.rmi.RemoteException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
+/**
+ * Point d'entrée.
+ * <ul>
+ *   <li>sans argument : service et interface dans le même processus ;</li>
+ *   <li>{@code --server [registryPort [servicePort]]} : publie HotelService dans un
+ *       registre RMI local, sans interface, et lance les tâches de fond (facturation de
+ *       nuit, purge du journal des modifications, réconciliation des rapports) ;</li>
+ *   <li>{@code --client host[:registryPort]} : interface branchée sur un serveur distant,
+ *       qui enregistre aussi les paiements et calcule les rapports.</li>
+ * </ul>
+ * Tout autre argument, ou {@code --client} sans hôte, est refusé avec l'usage.
+ * Le schéma n'est mis à jour ({@link SchemaUpdater}) qu'en mode serveur et autonome.
+ * Les délais réseau se règlent avec {@code hotel.rmi.connectTimeoutMs} et
+ * {@code hotel.rmi.readTimeoutMs} ; l'adresse annoncée par le serveur avec
+ * {@code java.rmi.server.hostname}.
+ */
 public class HotelManagementApp {
 
+    private static final Logger LOG = Logger.getLogger(HotelManagementApp.class.getName());
+
+    private static final String USAGE =
+            "Usage : HotelManagementApp [--server [registryPort [servicePort]] | --client host[:registryPort]]";
+
     public static void main(String[] args) {
+        boolean server = args.length > 0 && "--server".equals(args[0]);
+        boolean client = args.length > 0 && "--client".equals(args[0]);
+        if ((args.length > 0 && !server && !client) || (client && args.length != 2)) {
+            abort(USAGE, null);
+            return;
+        }
+
+        // seuls le serveur et le mode autonome migrent le schéma : un poste client n'a
+        // pas besoin des droits ALTER, et les postes ne se disputent pas la migration
+        if (!client) {
+            try {
+                SchemaUpdater.update();
+            } catch (RuntimeException e) {
+                // sans les colonnes version / idempotency_key, réservations et paiements échoueraient :
+                // on s'arrête ici plutôt qu'à la première écriture
+                abort("Mise à jour du schéma impossible, démarrage interrompu : " + rootMessage(e), e);
+                return;
+            }
+        }
+
+        if (server) {
+            runServer(args);
+            return;
+        }
 
         // Look & Feel
         try {
             UIManager.setLookAndFeel("javax.swing.plaf.nimbus.NimbusLookAndFeel");
         } catch (Exception ignored) { }
+        EdtStallDetector.installIfEnabled();
 
         try {
             // Services
-            HotelService hotelService = new HotelServiceImpl();
-            PaymentService paymentService = new PaymentServiceImpl();
-            ReportService reportService = new ReportServiceImpl(hotelService, paymentService);
+            HotelService hotelService = client ? lookupRemote(args[1]) : new HotelServiceImpl();
+            if (!client) {
+                ChangeLog.startPruning();
+                ReportReconciler.start();
+            }
+            // en mode client, les paiements passent par le serveur, qui les signale aux autres postes
+            PaymentService paymentService = client ? new RemotePaymentService(hotelService) : new PaymentServiceImpl();
+            ReportService reportService = client ? new RemoteReportService(hotelService) : new ReportServiceImpl();
+            ExportService exportService = new ExportServiceImpl();
 
             // DAO Users
             UserDao userDao = new UserDaoImpl();
@@ -39,16 +104,62 @@ public class HotelManagementApp {
 
             // UI
             SwingUtilities.invokeLater(() -> {
-                LoginFrame loginFrame = new LoginFrame(hotelService, paymentService, reportService, userDao);
+                LoginFrame loginFrame = new LoginFrame(hotelService, paymentService, reportService, exportService, userDao);
                 loginFrame.setVisible(true);
             });
 
         } catch (RemoteException e) {
-            e.printStackTrace();
+            LOG.log(Level.SEVERE, "Erreur au démarrage (RMI/Service)", e);
             JOptionPane.showMessageDialog(null,
                     "Erreur au démarrage (RMI/Service): " + e.getMessage(),
                     "Erreur",
                     JOptionPane.ERROR_MESSAGE);
         }
     }
+
+    private static void runServer(String[] args) {
+        int registryPort = args.length > 1 ? Integer.parseInt(args[1]) : HotelServer.DEFAULT_REGISTRY_PORT;
+        int servicePort = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+        try {
+            HotelServer.start(registryPort, servicePort);
+            // l'objet exporté garde la JVM en vie
+            LOG.info("HotelService publié sur le registre RMI, port " + registryPort);
+        } catch (RemoteException e) {
+            abort("Publication de HotelService impossible : " + rootMessage(e), e);
+            return;
+        }
+        // seul le serveur facture la nuit, purge le journal des modifications et tient les
+        // agrégats des rapports, pas chaque poste client
+        new NightlyInvoicing(new PaymentServiceImpl()).start();
+        ChangeLog.startPruning();
+        ReportReconciler.start();
+    }
+
+    private static void abort(String message, Throwable cause) {
+        LOG.log(Level.SEVERE, message, cause);
+        if (!GraphicsEnvironment.isHeadless()) {
+            JOptionPane.showMessageDialog(null, message, "Erreur", JOptionPane.ERROR_MESSAGE);
+        }
+        System.exit(1);
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return e.getMessage() + (root != e ? " (" + root.getMessage() + ")" : "");
+    }
+
+    // "host" ou "host:port"
+    private static HotelService lookupRemote(String address) throws RemoteException {
+        String host = address;
+        int port = HotelServer.DEFAULT_REGISTRY_PORT;
+        int colon = address.lastIndexOf(':');
+        if (colon > 0) {
+            host = address.substring(0, colon);
+            port = Integer.parseInt(address.substring(colon + 1));
+        }
+        return HotelServer.lookup(host, port);
+    }
 }
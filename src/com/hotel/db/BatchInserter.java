@@ -0,0 +1,100 @@
+package com.hotel.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Insertion par lots JDBC ({@code addBatch / executeBatch}) pour les {@code saveAll} des DAO.
+ * <p>
+ * Les lignes sont envoyées par tranches de {@code hotel.db.batchSize} (500 par défaut),
+ * chacune dans sa propre transaction, sur une seule connexion. Avec MySQL, l'option
+ * {@code rewriteBatchedStatements=true} de l'URL fait d'une tranche un seul
+ * {@code INSERT ... VALUES (...), (...)}. Les clés générées sont relues dans l'ordre
+ * d'envoi et affectées aux objets correspondants.
+ * <p>
+ * En cas d'erreur, la tranche en cours est annulée ; les tranches précédentes restent
+ * enregistrées et leurs objets ont déjà leur id.
+ */
+final class BatchInserter {
+
+    static final int DEFAULT_BATCH_SIZE = Integer.getInteger("hotel.db.batchSize", 500);
+
+    /** Renseigne les paramètres de l'INSERT pour un objet. */
+    @FunctionalInterface
+    interface Binder<T> {
+        void bind(PreparedStatement ps, T item) throws SQLException;
+    }
+
+    /** Affecte à l'objet la clé générée par la base. */
+    @FunctionalInterface
+    interface KeySetter<T> {
+        void setKey(T item, int key);
+    }
+
+    private BatchInserter() {
+    }
+
+    static <T> List<T> insertAll(String sql, Collection<T> items, Binder<T> binder, KeySetter<T> keySetter) {
+        return insertAll(sql, items, binder, keySetter, DEFAULT_BATCH_SIZE);
+    }
+
+    static <T> List<T> insertAll(String sql, Collection<T> items, Binder<T> binder, KeySetter<T> keySetter,
+                                 int batchSize) {
+        List<T> all = new ArrayList<>(items);
+        if (all.isEmpty()) {
+            return all;
+        }
+        int chunkSize = Math.max(1, batchSize);
+        int saved = 0;
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            conn.setAutoCommit(false);
+            for (int from = 0; from < all.size(); from += chunkSize) {
+                List<T> chunk = all.subList(from, Math.min(from + chunkSize, all.size()));
+                try {
+                    for (T item : chunk) {
+                        binder.bind(ps, item);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    int[] keys = readKeys(ps, chunk.size());
+                    conn.commit();
+                    for (int i = 0; i < keys.length; i++) {
+                        keySetter.setKey(chunk.get(i), keys[i]);
+                    }
+                    saved += chunk.size();
+                } catch (SQLException e) {
+                    ps.clearBatch();
+                    conn.rollback();
+                    throw e;
+                }
+            }
+            return all;
+        } catch (SQLException e) {
+            throw new RuntimeException("Erreur lors de l'insertion par lots (" + saved + "/" + all.size()
+                    + " lignes enregistrées)", e);
+        }
+    }
+
+    private static int[] readKeys(PreparedStatement ps, int expected) throws SQLException {
+        int[] keys = new int[expected];
+        int count = 0;
+        try (ResultSet rs = ps.getGeneratedKeys()) {
+            while (rs.next() && count < expected) {
+                keys[count++] = rs.getInt(1);
+            }
+        }
+        if (count != expected) {
+            throw new SQLException("Clés générées incomplètes : " + count + " reçues pour " + expected + " lignes");
+        }
+        return keys;
+    }
+}
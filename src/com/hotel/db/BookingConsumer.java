@@ -0,0 +1,10 @@
+package com.hotel.db;
+
+/**
+ * Reçoit les réservations lues en flux par {@link ReservationDao#forEachBooking}, sans
+ * matérialiser de {@code Reservation}. Les dates sont des jours epoch.
+ */
+@FunctionalInterface
+public interface BookingConsumer {
+    void accept(int reservationId, int roomId, long checkInDay, long checkOutDay);
+}
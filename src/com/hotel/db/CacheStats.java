@@ -0,0 +1,76 @@
+package com.hotel.db;
+
+import java.io.Serializable;
+
+/**
+ * Statistiques instantanées d'un cache de DAO.
+ */
+public class CacheStats implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String name;
+    private final int size;
+    private final int maxSize;
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long expiredCount;
+
+    public CacheStats(String name, int size, int maxSize,
+                      long hitCount, long missCount, long evictionCount, long expiredCount) {
+        this.name = name;
+        this.size = size;
+        this.maxSize = maxSize;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.expiredCount = expiredCount;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /** Entrées retirées parce que le cache était plein. */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /** Entrées retirées parce que leur durée de vie était dépassée. */
+    public long getExpiredCount() {
+        return expiredCount;
+    }
+
+    public double getHitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 0.0 : (double) hitCount / requests;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{" + name
+                + ", size=" + size + "/" + maxSize
+                + ", hits=" + hitCount
+                + ", misses=" + missCount
+                + ", evictions=" + evictionCount
+                + ", expired=" + expiredCount
+                + String.format(", hitRate=%.1f%%", getHitRate() * 100)
+                + "}";
+    }
+}
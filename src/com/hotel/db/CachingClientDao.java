@@ -0,0 +1,122 @@
+package com.hotel.db;
+
+import com.hotel.model.Client;
+import com.hotel.model.ModelCopies;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * {@link ClientDao} avec cache des clients par id et par nom (insensible à la casse).
+ * <p>
+ * Mêmes règles que {@link CachingRoomDao} : cache partagé, invalidation à l'écriture,
+ * copies renvoyées aux appelants. Les absences ne sont pas mises en cache, de sorte qu'un
+ * client ajouté ailleurs est trouvé dès la recherche suivante.
+ */
+public class CachingClientDao implements ClientDao {
+
+    private static final LruCache<Integer, Client> BY_ID = LruCache.fromSystemProperties("clients");
+    private static final LruCache<String, Client> BY_NAME = LruCache.fromSystemProperties("clientsByName");
+
+    private final ClientDao delegate;
+
+    public CachingClientDao(ClientDao delegate) {
+        this.delegate = delegate;
+    }
+
+    public static CacheStats getStats() {
+        return BY_ID.getStats();
+    }
+
+    public static CacheStats getNameStats() {
+        return BY_NAME.getStats();
+    }
+
+    public static void invalidateAll() {
+        BY_ID.invalidateAll();
+        BY_NAME.invalidateAll();
+    }
+
+    @Override
+    public Client add(Client client) {
+        Client saved = delegate.add(client);
+        invalidate(saved.getId());
+        if (saved.getName() != null) {
+            // un homonyme déjà en cache pourrait ne plus être celui renvoyé par la base
+            BY_NAME.invalidate(nameKey(saved.getName()));
+        }
+        return saved;
+    }
+
+    @Override
+    public List<Client> saveAll(Collection<Client> clients) {
+        List<Client> saved = delegate.saveAll(clients);
+        for (Client client : saved) {
+            invalidate(client.getId());
+        }
+        // noms potentiellement nombreux : plus simple de vider le cache par nom
+        BY_NAME.invalidateAll();
+        return saved;
+    }
+
+    @Override
+    public Client findById(int id) {
+        Client cached = BY_ID.get(id);
+        if (cached != null) {
+            return ModelCopies.copy(cached);
+        }
+        long stamp = BY_ID.stamp();
+        Client client = delegate.findById(id);
+        if (client != null) {
+            BY_ID.putIfUnchanged(id, ModelCopies.copy(client), stamp);
+        }
+        return client;
+    }
+
+    @Override
+    public Client findByName(String name) {
+        if (name == null) {
+            return delegate.findByName(null);
+        }
+        String key = nameKey(name);
+        Client cached = BY_NAME.get(key);
+        if (cached != null) {
+            return ModelCopies.copy(cached);
+        }
+        long stamp = BY_NAME.stamp();
+        Client client = delegate.findByName(name);
+        if (client != null) {
+            BY_NAME.putIfUnchanged(key, ModelCopies.copy(client), stamp);
+        }
+        return client;
+    }
+
+    @Override
+    public List<Client> findAll() {
+        return warm(BY_ID.stamp(), delegate.findAll());
+    }
+
+    @Override
+    public List<Client> findPage(int afterId, int limit) {
+        return warm(BY_ID.stamp(), delegate.findPage(afterId, limit));
+    }
+
+    private static List<Client> warm(long stamp, List<Client> clients) {
+        for (Client client : clients) {
+            BY_ID.putIfUnchanged(client.getId(), ModelCopies.copy(client), stamp);
+        }
+        return clients;
+    }
+
+    // même règle que la requête : LOWER(name) = LOWER(?)
+    private static String nameKey(String name) {
+        return name.toLowerCase();
+    }
+
+    // une transaction en cours peut encore être annulée ou faire lire l'ancienne ligne à un
+    // autre thread : l'entrée est invalidée maintenant et de nouveau à la fin de la transaction
+    private static void invalidate(int id) {
+        BY_ID.invalidate(id);
+        TransactionManager.afterCompletion(() -> BY_ID.invalidate(id));
+    }
+}
@@ -0,0 +1,90 @@
+package com.hotel.db;
+
+import com.hotel.model.Invoice;
+import com.hotel.model.ModelCopies;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * {@link InvoiceDao} avec cache des factures par id de réservation.
+ * <p>
+ * Une réservation n'a qu'une facture : {@link #findByReservationId} est servi depuis le
+ * cache une fois la facture lue ou créée. L'absence de facture n'est pas mise en cache,
+ * si bien qu'une facture insérée par {@link #insertMissing} est vue dès l'appel suivant.
+ * Les factures renvoyées sont des copies profondes (réservation, client et chambre compris).
+ */
+public class CachingInvoiceDao implements InvoiceDao {
+
+    private static final LruCache<Integer, Invoice> BY_RESERVATION = LruCache.fromSystemProperties("invoices");
+
+    private final InvoiceDao delegate;
+
+    public CachingInvoiceDao(InvoiceDao delegate) {
+        this.delegate = delegate;
+    }
+
+    public static CacheStats getStats() {
+        return BY_RESERVATION.getStats();
+    }
+
+    public static void invalidateAll() {
+        BY_RESERVATION.invalidateAll();
+    }
+
+    @Override
+    public Invoice save(Invoice invoice) {
+        Invoice saved = delegate.save(invoice);
+        if (saved.getReservation() != null) {
+            invalidate(saved.getReservation().getId());
+        }
+        return saved;
+    }
+
+    @Override
+    public int insertMissing(LocalDate checkOutFrom, LocalDate checkOutTo, LocalDate invoiceDate) {
+        return delegate.insertMissing(checkOutFrom, checkOutTo, invoiceDate);
+    }
+
+    @Override
+    public Invoice findById(int id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public Invoice findByReservationId(int reservationId) {
+        Invoice cached = BY_RESERVATION.get(reservationId);
+        if (cached != null) {
+            return ModelCopies.copy(cached);
+        }
+        long stamp = BY_RESERVATION.stamp();
+        Invoice invoice = delegate.findByReservationId(reservationId);
+        if (invoice != null) {
+            BY_RESERVATION.putIfUnchanged(reservationId, ModelCopies.copy(invoice), stamp);
+        }
+        return invoice;
+    }
+
+    @Override
+    public List<Invoice> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public void delete(int id) {
+        try {
+            delegate.delete(id);
+        } finally {
+            Predicate<Invoice> sameId = invoice -> invoice.getId() == id;
+            BY_RESERVATION.invalidateIf(sameId);
+            TransactionManager.afterCompletion(() -> BY_RESERVATION.invalidateIf(sameId));
+        }
+    }
+
+    // même règle que les autres DAO en cache : maintenant et à la fin de la transaction
+    private static void invalidate(int reservationId) {
+        BY_RESERVATION.invalidate(reservationId);
+        TransactionManager.afterCompletion(() -> BY_RESERVATION.invalidate(reservationId));
+    }
+}
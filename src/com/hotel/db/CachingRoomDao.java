@@ -0,0 +1,137 @@
+package com.hotel.db;
+
+import com.hotel.model.ModelCopies;
+import com.hotel.model.Room;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * {@link RoomDao} avec cache des chambres par id.
+ * <p>
+ * Le cache est partagé par toutes les instances (services de réservation et de rapports)
+ * pour qu'une écriture faite par l'une soit vue par les autres. Les écritures passent par
+ * la base puis invalident l'entrée ; les listes vont toujours en base et réchauffent le
+ * cache au passage. Les chambres renvoyées sont des copies : un appelant qui modifie sa
+ * copie ne modifie pas le cache.
+ */
+public class CachingRoomDao implements RoomDao {
+
+    private static final LruCache<Integer, Room> BY_ID = LruCache.fromSystemProperties("rooms");
+
+    private final RoomDao delegate;
+
+    public CachingRoomDao(RoomDao delegate) {
+        this.delegate = delegate;
+    }
+
+    public static CacheStats getStats() {
+        return BY_ID.getStats();
+    }
+
+    public static void invalidateAll() {
+        BY_ID.invalidateAll();
+    }
+
+    @Override
+    public Room addRoom(Room room) {
+        Room saved = delegate.addRoom(room);
+        invalidate(saved.getId());
+        return saved;
+    }
+
+    @Override
+    public List<Room> saveAll(Collection<Room> rooms) {
+        List<Room> saved = delegate.saveAll(rooms);
+        for (Room room : saved) {
+            invalidate(room.getId());
+        }
+        return saved;
+    }
+
+    @Override
+    public void updateRoom(Room room) {
+        try {
+            delegate.updateRoom(room);
+        } finally {
+            invalidate(room.getId());
+        }
+    }
+
+    @Override
+    public void incrementVersion(Room room) {
+        try {
+            delegate.incrementVersion(room);
+        } finally {
+            invalidate(room.getId());
+        }
+    }
+
+    @Override
+    public void deleteRoom(int roomId) {
+        try {
+            delegate.deleteRoom(roomId);
+        } finally {
+            invalidate(roomId);
+        }
+    }
+
+    @Override
+    public Room getRoomById(int id) {
+        Room cached = BY_ID.get(id);
+        if (cached != null) {
+            return ModelCopies.copy(cached);
+        }
+        long stamp = BY_ID.stamp();
+        Room room = delegate.getRoomById(id);
+        if (room != null) {
+            BY_ID.putIfUnchanged(id, ModelCopies.copy(room), stamp);
+        }
+        return room;
+    }
+
+    @Override
+    public List<Room> getAllRooms() {
+        return warm(BY_ID.stamp(), delegate.getAllRooms());
+    }
+
+    @Override
+    public List<Room> getAvailableRooms() {
+        return warm(BY_ID.stamp(), delegate.getAvailableRooms());
+    }
+
+    @Override
+    public List<Room> findAvailable(LocalDate checkIn, LocalDate checkOut, String type, Collection<Integer> excluded) {
+        return warm(BY_ID.stamp(), delegate.findAvailable(checkIn, checkOut, type, excluded));
+    }
+
+    @Override
+    public int countRooms(String type) {
+        return delegate.countRooms(type);
+    }
+
+    @Override
+    public int countAllRooms() {
+        return delegate.countAllRooms();
+    }
+
+    @Override
+    public List<Room> findPage(String type, int afterId, int limit) {
+        return warm(BY_ID.stamp(), delegate.findPage(type, afterId, limit));
+    }
+
+    private static List<Room> warm(long stamp, List<Room> rooms) {
+        for (Room room : rooms) {
+            BY_ID.putIfUnchanged(room.getId(), ModelCopies.copy(room), stamp);
+        }
+        return rooms;
+    }
+
+    // une transaction en cours peut encore être annulée ou faire lire l'ancienne ligne à un
+    // autre thread : l'entrée est invalidée maintenant et de nouveau à la fin de la transaction
+    private static void invalidate(int id) {
+        BY_ID.invalidate(id);
+        TransactionManager.afterCompletion(() -> BY_ID.invalidate(id));
+    }
+}
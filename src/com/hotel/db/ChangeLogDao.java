@@ -0,0 +1,21 @@
+package com.hotel.db;
+
+import com.hotel.model.ChangeTopic;
+
+import java.util.List;
+
+/** Journal des écritures en base, partagé par tous les serveurs et postes. */
+public interface ChangeLogDao {
+
+    // ajoute une entrée (validée aussitôt) et renvoie sa séquence
+    long append(ChangeTopic topic, int entityId, boolean deleted);
+
+    /** Entrées de séquence supérieure ou égale à {@code fromSequence}, par séquence croissante. */
+    List<ChangeLogEntry> findFrom(long fromSequence, int limit);
+
+    // plus grande séquence du journal, 0 s'il est vide
+    long lastSequence();
+
+    // supprime les entrées de plus de maxAgeHours heures, sauf la dernière ; renvoie leur nombre
+    int prune(int maxAgeHours);
+}
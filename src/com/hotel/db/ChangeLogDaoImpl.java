@@ -0,0 +1,92 @@
+package com.hotel.db;
+
+import com.hotel.model.ChangeTopic;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ChangeLogDaoImpl implements ChangeLogDao {
+
+    // délai au-delà duquel un trou dans la séquence est tenu pour une insertion annulée
+    private static final int SETTLE_SECONDS = Math.max(1, Integer.getInteger("hotel.changes.settleSeconds", 2));
+
+    @Override
+    public long append(ChangeTopic topic, int entityId, boolean deleted) {
+        String sql = "INSERT INTO change_log (topic, entity_id, deleted) VALUES (?, ?, ?)";
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            ps.setString(1, topic.name());
+            ps.setInt(2, entityId);
+            ps.setBoolean(3, deleted);
+            ps.executeUpdate();
+
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                if (!rs.next()) {
+                    throw new SQLException("Aucune séquence générée");
+                }
+                return rs.getLong(1);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Erreur lors de l'écriture du journal des modifications", e);
+        }
+    }
+
+    @Override
+    public List<ChangeLogEntry> findFrom(long fromSequence, int limit) {
+        String sql = "SELECT seq, topic, entity_id, deleted, " +
+                "changed_at < TIMESTAMPADD(SECOND, ?, CURRENT_TIMESTAMP) AS settled " +
+                "FROM change_log WHERE seq >= ? ORDER BY seq LIMIT ?";
+        List<ChangeLogEntry> entries = new ArrayList<>();
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, -SETTLE_SECONDS);
+            ps.setLong(2, fromSequence);
+            ps.setInt(3, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    entries.add(new ChangeLogEntry(rs.getLong(1), ChangeTopic.valueOf(rs.getString(2)),
+                            rs.getInt(3), rs.getBoolean(4), rs.getBoolean(5)));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Erreur lors de la lecture du journal des modifications", e);
+        }
+        return entries;
+    }
+
+    @Override
+    public long lastSequence() {
+        String sql = "SELECT COALESCE(MAX(seq), 0) FROM change_log";
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            return rs.next() ? rs.getLong(1) : 0;
+        } catch (SQLException e) {
+            throw new RuntimeException("Erreur lors de la lecture du journal des modifications", e);
+        }
+    }
+
+    @Override
+    public int prune(int maxAgeHours) {
+        // la dernière entrée est gardée : lastSequence ne recule jamais
+        long last = lastSequence();
+        String sql = "DELETE FROM change_log WHERE seq < ? AND changed_at < TIMESTAMPADD(HOUR, ?, CURRENT_TIMESTAMP)";
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setLong(1, last);
+            ps.setInt(2, -maxAgeHours);
+            return ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new RuntimeException("Erreur lors de la purge du journal des modifications", e);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.hotel.db;
+
+import com.hotel.model.ChangeTopic;
+
+/**
+ * Ligne de la table {@code change_log} : une écriture sur une entité, numérotée par une
+ * séquence commune à toutes les tables.
+ */
+public final class ChangeLogEntry {
+
+    private final long sequence;
+    private final ChangeTopic topic;
+    private final int entityId;
+    private final boolean deleted;
+    private final boolean settled;
+
+    public ChangeLogEntry(long sequence, ChangeTopic topic, int entityId, boolean deleted, boolean settled) {
+        this.sequence = sequence;
+        this.topic = topic;
+        this.entityId = entityId;
+        this.deleted = deleted;
+        this.settled = settled;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public ChangeTopic getTopic() {
+        return topic;
+    }
+
+    public int getEntityId() {
+        return entityId;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    /**
+     * Vrai si l'entrée est assez ancienne pour que toute séquence inférieure encore absente
+     * soit définitivement perdue (insertion annulée) plutôt qu'en cours de validation.
+     */
+    public boolean isSettled() {
+        return settled;
+    }
+}
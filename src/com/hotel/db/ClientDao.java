@@ -2,12 +2,17 @@ package com.hotel.db;
 
 import com.hotel.model.Client;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ClientDao {
     Client add(Client client);
+    // insertion par lots ; renvoie les clients dans l'ordre reçu, ids renseignés
+    List<Client> saveAll(Collection<Client> clients);
     List<Client> findAll();
     Client findByName(String name);
     Client findById(int id);
+    // pagination par clé : clients d'id > afterId
+    List<Client> findPage(int afterId, int limit);
 
 }
@@ -3,20 +3,25 @@ package com.hotel.db;
 import com.hotel.model.Client;
 
 import java.sql.*;
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 public class ClientDaoImpl implements ClientDao {
 
+    private static final String INSERT_SQL = "INSERT INTO client(name, contact, email) VALUES (?, ?, ?)";
+
+    private static final BatchInserter.Binder<Client> INSERT_BINDER = (ps, client) -> {
+        ps.setString(1, client.getName());
+        ps.setString(2, client.getContact());
+        ps.setString(3, client.getEmail());
+    };
+
     @Override
     public Client add(Client client) {
-        String sql = "INSERT INTO client(name, contact, email) VALUES (?, ?, ?)";
         try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement ps = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
 
-            ps.setString(1, client.getName());
-            ps.setString(2, client.getContact());
-            ps.setString(3, client.getEmail());
+            INSERT_BINDER.bind(ps, client);
             ps.executeUpdate();
 
             try (ResultSet rs = ps.getGeneratedKeys()) {
@@ -29,24 +34,22 @@ public class ClientDaoImpl implements ClientDao {
             throw new RuntimeException("Erreur lors de l'ajout du client", e);
         }
     }
+
+    @Override
+    public List<Client> saveAll(Collection<Client> clients) {
+        return BatchInserter.insertAll(INSERT_SQL, clients, INSERT_BINDER, Client::setId);
+    }
+
     @Override
     public Client findById(int id) {
-        String sql = "SELECT * FROM client WHERE id = ?";
+        String sql = "SELECT id, name, contact, email FROM client WHERE id = ?";
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
             ps.setInt(1, id);
             try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    return new Client(
-                            rs.getInt("id"),
-                            rs.getString("name"),
-                            rs.getString("contact"),
-                            rs.getString("email")
-                    );
-                }
+                return RowMappers.first(rs, RowMappers.CLIENT);
             }
-            return null;
 
         } catch (SQLException e) {
             throw new RuntimeException("Erreur SQL findById client", e);
@@ -56,20 +59,13 @@ public class ClientDaoImpl implements ClientDao {
     @Override
     public List<Client> findAll() {
         String sql = "SELECT id, name, contact, email FROM client";
-        List<Client> result = new ArrayList<>();
+        List<Client> result;
 
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
-            while (rs.next()) {
-                Client c = new Client();
-                c.setId(rs.getInt("id"));
-                c.setName(rs.getString("name"));
-                c.setContact(rs.getString("contact"));
-                c.setEmail(rs.getString("email"));
-                result.add(c);
-            }
+            result = RowMappers.list(rs, RowMappers.CLIENT);
         } catch (SQLException e) {
             throw new RuntimeException("Erreur lors de la récupération des clients", e);
         }
@@ -77,6 +73,25 @@ public class ClientDaoImpl implements ClientDao {
         return result;
     }
 
+    @Override
+    public List<Client> findPage(int afterId, int limit) {
+        String sql = "SELECT id, name, contact, email FROM client WHERE id > ? ORDER BY id LIMIT ?";
+        List<Client> result;
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, afterId);
+            ps.setInt(2, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                result = RowMappers.list(rs, RowMappers.CLIENT);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Erreur lors de la recherche paginée des clients", e);
+        }
+        return result;
+    }
+
     @Override
     public Client findByName(String name) {
         String sql = "SELECT id, name, contact, email FROM client WHERE LOWER(name) = LOWER(?)";
@@ -86,18 +101,10 @@ public class ClientDaoImpl implements ClientDao {
 
             ps.setString(1, name);
             try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    Client c = new Client();
-                    c.setId(rs.getInt("id"));
-                    c.setName(rs.getString("name"));
-                    c.setContact(rs.getString("contact"));
-                    c.setEmail(rs.getString("email"));
-                    return c;
-                }
+                return RowMappers.first(rs, RowMappers.CLIENT);
             }
         } catch (SQLException e) {
             throw new RuntimeException("Erreur lors de la recherche du client", e);
         }
-        return null;
     }
 }
@@ -0,0 +1,16 @@
+package com.hotel.db;
+
+import com.hotel.model.Invoice;
+import com.hotel.model.Payment;
+import com.hotel.model.Reservation;
+
+import java.util.List;
+
+/**
+ * Reçoit l'historique d'un client lu en flux par {@link ReservationDao#forEachClientHistory},
+ * une réservation à la fois avec ses paiements et ses factures (listes éventuellement vides).
+ */
+@FunctionalInterface
+public interface ClientHistoryConsumer {
+    void accept(Reservation reservation, List<Payment> payments, List<Invoice> invoices);
+}
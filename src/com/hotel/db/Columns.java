@@ -0,0 +1,44 @@
+package com.hotel.db;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Index des colonnes d'un {@link ResultSet}, résolus une fois à partir des métadonnées.
+ * <p>
+ * Les mappers demandent ici l'index de chacun de leurs libellés au moment du
+ * {@link RowMapping#bind bind}, puis lisent chaque ligne par position : plus de
+ * recherche de libellé par ligne et par colonne dans le driver.
+ */
+final class Columns {
+
+    private final Map<String, Integer> indexByLabel;
+
+    private Columns(Map<String, Integer> indexByLabel) {
+        this.indexByLabel = indexByLabel;
+    }
+
+    static Columns of(ResultSet rs) throws SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        int count = meta.getColumnCount();
+        Map<String, Integer> indexByLabel = new HashMap<>(count * 2);
+        for (int i = 1; i <= count; i++) {
+            // comme ResultSet.findColumn : insensible à la casse, premier libellé gagnant ;
+            // Locale.ROOT : en turc, "ID".toLowerCase() donnerait "ıd"
+            indexByLabel.putIfAbsent(meta.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+        }
+        return new Columns(indexByLabel);
+    }
+
+    int indexOf(String label) throws SQLException {
+        Integer index = indexByLabel.get(label.toLowerCase(Locale.ROOT));
+        if (index == null) {
+            throw new SQLException("Colonne absente du résultat : " + label);
+        }
+        return index;
+    }
+}
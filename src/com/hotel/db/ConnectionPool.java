@@ -0,0 +1,414 @@
+package com.hotel.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Pool de connexions JDBC borné.
+ * <p>
+ * Les connexions rendues par {@link #borrow()} sont des proxys : {@code close()}
+ * les remet dans le pool au lieu de fermer la connexion physique, ce qui permet
+ * aux DAO de garder leur {@code try-with-resources} habituel.
+ */
+public class ConnectionPool {
+
+    private static final Logger LOG = Logger.getLogger(ConnectionPool.class.getName());
+
+    /** Bornes (ms) des classes de l'histogramme des temps d'attente ; la dernière classe est "au-delà". */
+    static final long[] WAIT_BUCKETS_MS = {1, 5, 10, 50, 100, 500, 1000};
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final PoolConfig config;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final Map<PooledConnection, Boolean> borrowed = new IdentityHashMap<>();
+    private int total;
+    private int waiters;
+    private boolean closed;
+
+    private final LongAdder[] waitHistogram = new LongAdder[WAIT_BUCKETS_MS.length + 1];
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder leakCount = new LongAdder();
+
+    private final ScheduledExecutorService housekeeper;
+
+    public ConnectionPool(String url, String user, String password, PoolConfig config) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.config = config;
+        for (int i = 0; i < waitHistogram.length; i++) {
+            waitHistogram[i] = new LongAdder();
+        }
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000L, config.getHousekeepingPeriodMs());
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Emprunte une connexion, en attendant au plus {@code borrowTimeoutMs}
+     * si le pool a atteint sa taille maximale.
+     */
+    public Connection borrow() throws SQLException {
+        return borrow(false);
+    }
+
+    /**
+     * Emprunte une connexion pour une lecture en flux (export, parcours de séjours) :
+     * gardée aussi longtemps que dure la lecture, elle n'est pas soumise à la détection de fuites.
+     */
+    public Connection borrowForStreaming() throws SQLException {
+        return borrow(true);
+    }
+
+    private Connection borrow(boolean streaming) throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(config.getBorrowTimeoutMs());
+
+        while (true) {
+            PooledConnection candidate = null;
+            boolean create = false;
+
+            lock.lock();
+            try {
+                while (true) {
+                    if (closed) {
+                        throw new SQLException("Le pool de connexions est fermé");
+                    }
+                    if (!idle.isEmpty()) {
+                        candidate = idle.pollFirst();
+                        break;
+                    }
+                    if (total < config.getMaxSize()) {
+                        total++;
+                        create = true;
+                        break;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        timeoutCount.increment();
+                        throw new SQLTimeoutException("Aucune connexion disponible après "
+                                + config.getBorrowTimeoutMs() + " ms (pool max = " + config.getMaxSize() + ")");
+                    }
+                    waiters++;
+                    try {
+                        available.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Attente d'une connexion interrompue", e);
+                    } finally {
+                        waiters--;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (create) {
+                try {
+                    candidate = new PooledConnection(openPhysical());
+                } catch (SQLException e) {
+                    releaseSlot();
+                    throw e;
+                }
+            } else if (!validate(candidate)) {
+                discard(candidate);
+                continue;
+            }
+
+            recordWait(System.nanoTime() - start);
+            return checkout(candidate, streaming);
+        }
+    }
+
+    /** Photographie instantanée des statistiques du pool. */
+    public PoolStats getStats() {
+        lock.lock();
+        try {
+            long[] histogram = new long[waitHistogram.length];
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] = waitHistogram[i].sum();
+            }
+            return new PoolStats(borrowed.size(), idle.size(), total, waiters,
+                    borrowCount.sum(), timeoutCount.sum(), leakCount.sum(), histogram);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Ferme toutes les connexions inactives ; les connexions empruntées seront fermées à leur retour. */
+    public void shutdown() {
+        housekeeper.shutdownNow();
+        List<PooledConnection> toClose;
+        lock.lock();
+        try {
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            total -= idle.size();
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        toClose.forEach(this::closeQuietly);
+    }
+
+    // ---------- cycle de vie d'une connexion ----------
+
+    private Connection openPhysical() throws SQLException {
+        return DriverManager.getConnection(url, user, password);
+    }
+
+    private boolean validate(PooledConnection pc) {
+        try {
+            return pc.physical.isValid(config.getValidationTimeoutSec());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private Connection checkout(PooledConnection pc, boolean streaming) {
+        boolean tracked = !streaming && config.getLeakThresholdMs() > 0;
+        pc.borrowedAt = System.currentTimeMillis();
+        pc.leakReported = !tracked;
+        // pile d'appel capturée seulement si la détection de fuites s'applique à cet emprunt
+        pc.borrowStack = tracked ? new Throwable("Connexion empruntée ici") : null;
+        lock.lock();
+        try {
+            borrowed.put(pc, Boolean.TRUE);
+        } finally {
+            lock.unlock();
+        }
+        borrowCount.increment();
+        return pc.newHandle();
+    }
+
+    private void giveBack(PooledConnection pc) {
+        boolean healthy = resetState(pc);
+        boolean closeIt = false;
+
+        lock.lock();
+        try {
+            borrowed.remove(pc);
+            if (!healthy || closed) {
+                total--;
+                closeIt = true;
+            } else {
+                pc.lastUsedAt = System.currentTimeMillis();
+                idle.addFirst(pc);
+            }
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (closeIt) {
+            closeQuietly(pc);
+        }
+    }
+
+    // remet la connexion dans un état neutre avant de la réutiliser
+    private boolean resetState(PooledConnection pc) {
+        try {
+            Connection c = pc.physical;
+            if (c.isClosed()) {
+                return false;
+            }
+            if (!c.getAutoCommit()) {
+                c.rollback();
+                c.setAutoCommit(true);
+            }
+            if (c.isReadOnly()) {
+                c.setReadOnly(false);
+            }
+            c.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void discard(PooledConnection pc) {
+        releaseSlot();
+        closeQuietly(pc);
+    }
+
+    private void releaseSlot() {
+        lock.lock();
+        try {
+            total--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void closeQuietly(PooledConnection pc) {
+        try {
+            pc.physical.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    private void recordWait(long nanos) {
+        long ms = TimeUnit.NANOSECONDS.toMillis(nanos);
+        int bucket = 0;
+        while (bucket < WAIT_BUCKETS_MS.length && ms >= WAIT_BUCKETS_MS[bucket]) {
+            bucket++;
+        }
+        waitHistogram[bucket].increment();
+    }
+
+    // ---------- tâche de fond : éviction des inactives, détection des fuites, taille min ----------
+
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+        List<PooledConnection> evicted = new ArrayList<>();
+        List<PooledConnection> leaked = new ArrayList<>();
+        int missing;
+
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            // les plus anciennes sont en queue de deque
+            while (idle.size() > 0 && total > config.getMinSize()) {
+                PooledConnection oldest = idle.peekLast();
+                if (now - oldest.lastUsedAt < config.getIdleTimeoutMs()) {
+                    break;
+                }
+                idle.pollLast();
+                total--;
+                evicted.add(oldest);
+            }
+            if (config.getLeakThresholdMs() > 0) {
+                for (PooledConnection pc : borrowed.keySet()) {
+                    if (!pc.leakReported && now - pc.borrowedAt > config.getLeakThresholdMs()) {
+                        pc.leakReported = true;
+                        leaked.add(pc);
+                    }
+                }
+            }
+            missing = config.getMinSize() - total;
+            if (missing > 0) {
+                total += missing;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        evicted.forEach(this::closeQuietly);
+
+        for (PooledConnection pc : leaked) {
+            leakCount.increment();
+            LOG.log(Level.WARNING, "Fuite probable : connexion empruntée depuis "
+                    + (now - pc.borrowedAt) + " ms sans être rendue", pc.borrowStack);
+        }
+
+        for (int i = 0; i < missing; i++) {
+            try {
+                PooledConnection pc = new PooledConnection(openPhysical());
+                pc.lastUsedAt = System.currentTimeMillis();
+                lock.lock();
+                try {
+                    idle.addLast(pc);
+                    available.signal();
+                } finally {
+                    lock.unlock();
+                }
+            } catch (SQLException e) {
+                releaseSlot();
+            }
+        }
+    }
+
+    // ---------- connexion physique + poignée logique ----------
+
+    private final class PooledConnection {
+        final Connection physical;
+        volatile long borrowedAt;
+        volatile long lastUsedAt;
+        volatile boolean leakReported;
+        volatile Throwable borrowStack;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Handle(this));
+        }
+    }
+
+    private final class Handle implements InvocationHandler {
+        private final PooledConnection owner;
+        // deux close() concurrents ne doivent rendre la connexion qu'une fois
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Handle(PooledConnection owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (released.compareAndSet(false, true)) {
+                        giveBack(owner);
+                    }
+                    return null;
+                case "isClosed":
+                    return released.get() || owner.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + owner.physical + "]";
+                default:
+                    if (released.get()) {
+                        throw new SQLException("Connexion déjà rendue au pool");
+                    }
+                    try {
+                        return method.invoke(owner.physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+}
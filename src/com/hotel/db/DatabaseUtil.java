@@ -1,24 +1,59 @@
 package com.hotel.db;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 
 public class DatabaseUtil {
 
-    private static final String URL = "jdbc:mysql://localhost:3306/gestion_hotel?useSSL=false&serverTimezone=UTC";
-    private static final String USER = "hotel_user";
-    private static final String PASSWORD = "hotel_pwd";
+    // surchargeables par -Dhotel.db.url / user / password / driver (ex. base embarquée) ;
+    // rewriteBatchedStatements : un lot d'INSERT part en une seule requête multi-lignes
+    private static final String URL = System.getProperty("hotel.db.url",
+            "jdbc:mysql://localhost:3306/gestion_hotel?useSSL=false&serverTimezone=UTC&rewriteBatchedStatements=true");
+    private static final String USER = System.getProperty("hotel.db.user", "hotel_user");
+    private static final String PASSWORD = System.getProperty("hotel.db.password", "hotel_pwd");
+    private static final String DRIVER = System.getProperty("hotel.db.driver", "com.mysql.cj.jdbc.Driver");
+
+    private static final ConnectionPool POOL;
 
     static {
         try {
-            Class.forName("com.mysql.cj.jdbc.Driver"); // charge le driver
+            Class.forName(DRIVER); // charge le driver
         } catch (ClassNotFoundException e) {
-            throw new RuntimeException("Impossible de charger le driver MySQL", e);
+            throw new RuntimeException("Impossible de charger le driver JDBC " + DRIVER, e);
         }
+        POOL = new ConnectionPool(URL, USER, PASSWORD, PoolConfig.fromSystemProperties());
+        Runtime.getRuntime().addShutdownHook(new Thread(POOL::shutdown, "db-pool-shutdown"));
     }
 
+    /**
+     * Emprunte une connexion au pool. Le {@code close()} de l'appelant la rend au pool.
+     * Dans une {@link TransactionManager#inTransaction transaction}, renvoie la connexion
+     * de la transaction ; son {@code close()} est alors sans effet.
+     */
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL, USER, PASSWORD);
+        Connection current = TransactionManager.currentConnection();
+        return current != null ? current : POOL.borrow();
+    }
+
+    /**
+     * Comme {@link #getConnection()}, pour une lecture en flux qui garde la connexion
+     * longtemps : l'emprunt n'est pas signalé par la détection de fuites du pool.
+     */
+    public static Connection getStreamingConnection() throws SQLException {
+        Connection current = TransactionManager.currentConnection();
+        return current != null ? current : POOL.borrowForStreaming();
+    }
+
+    /**
+     * Configure une requête pour lire le résultat en flux plutôt que de tout charger en
+     * mémoire : avec MySQL, seul {@code Integer.MIN_VALUE} active la lecture ligne à ligne.
+     */
+    public static void enableStreaming(PreparedStatement ps, int fetchSize) throws SQLException {
+        ps.setFetchSize(URL.startsWith("jdbc:mysql:") ? Integer.MIN_VALUE : fetchSize);
+    }
+
+    public static PoolStats getPoolStats() {
+        return POOL.getStats();
     }
 }
@@ -0,0 +1,23 @@
+package com.hotel.db;
+
+import java.sql.SQLException;
+
+/**
+ * Insertion refusée par un index unique : la ligne existe déjà.
+ */
+public class DuplicateKeyException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+    private static final int MYSQL_DUPLICATE_ENTRY = 1062;
+
+    public DuplicateKeyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    /**
+     * Doublon sur un index unique : erreur MySQL 1062, ou SQLSTATE 23505 (H2 et la norme).
+     * Les autres violations de contrainte (clé étrangère, NOT NULL...) n'en sont pas.
+     */
+    public static boolean isDuplicateKey(SQLException e) {
+        return e.getErrorCode() == MYSQL_DUPLICATE_ENTRY || "23505".equals(e.getSQLState());
+    }
+}
@@ -0,0 +1,14 @@
+package com.hotel.db;
+
+import java.io.IOException;
+
+public interface ExportDao {
+
+    /**
+     * Lit toutes les lignes du jeu de données avec un curseur en avant seulement et les
+     * transmet une à une au consommateur, sans les accumuler en mémoire.
+     *
+     * @return le nombre de lignes lues
+     */
+    long forEachRow(ExportDataset dataset, ExportRowConsumer consumer) throws IOException;
+}
@@ -0,0 +1,80 @@
+package com.hotel.db;
+
+import java.io.IOException;
+import java.sql.*;
+
+public class ExportDaoImpl implements ExportDao {
+
+    // lignes par aller-retour pour les pilotes qui savent lire par lots (hors MySQL)
+    private static final int FETCH_SIZE = 1000;
+
+    @Override
+    public long forEachRow(ExportDataset dataset, ExportRowConsumer consumer) throws IOException {
+        try (Connection conn = DatabaseUtil.getStreamingConnection()) {
+            // hors transaction auto-validée, PostgreSQL & co. lisent avec un curseur serveur ;
+            // le pool remet la connexion en autocommit à son retour
+            conn.setAutoCommit(false);
+            conn.setReadOnly(true);
+
+            try (PreparedStatement ps = conn.prepareStatement(dataset.getSql(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+                DatabaseUtil.enableStreaming(ps, FETCH_SIZE);
+                try (ResultSet rs = ps.executeQuery()) {
+                    ResultSetMetaData meta = rs.getMetaData();
+                    int[] types = new int[meta.getColumnCount()];
+                    for (int i = 0; i < types.length; i++) {
+                        types[i] = meta.getColumnType(i + 1);
+                    }
+
+                    Object[] values = new Object[types.length];
+                    long rows = 0;
+                    while (rs.next()) {
+                        for (int i = 0; i < types.length; i++) {
+                            values[i] = read(rs, i + 1, types[i]);
+                        }
+                        consumer.accept(values);
+                        rows++;
+                    }
+                    return rows;
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Erreur lors de l'export des données", e);
+        }
+    }
+
+    private static Object read(ResultSet rs, int column, int type) throws SQLException {
+        Object value;
+        switch (type) {
+            case Types.INTEGER:
+            case Types.SMALLINT:
+            case Types.TINYINT:
+                value = rs.getInt(column);
+                break;
+            case Types.BIGINT:
+                value = rs.getLong(column);
+                break;
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+                // montants : valeur exacte, sans passer par un double
+                return rs.getBigDecimal(column);
+            case Types.DOUBLE:
+            case Types.FLOAT:
+            case Types.REAL:
+                value = rs.getDouble(column);
+                break;
+            case Types.BIT:
+            case Types.BOOLEAN:
+                value = rs.getBoolean(column);
+                break;
+            case Types.DATE: {
+                Date date = rs.getDate(column);
+                return date == null ? null : date.toLocalDate();
+            }
+            default:
+                return rs.getString(column);
+        }
+        return rs.wasNull() ? null : value;
+    }
+}
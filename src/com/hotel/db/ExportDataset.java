@@ -0,0 +1,37 @@
+package com.hotel.db;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/** Tables exportables : requête de lecture et noms des colonnes produites, dans l'ordre. */
+public enum ExportDataset {
+
+    RESERVATIONS(
+            "SELECT id, client_id, room_id, check_in, check_out, confirmed FROM reservation ORDER BY id",
+            "id", "client_id", "room_id", "check_in", "check_out", "confirmed"),
+
+    PAYMENTS(
+            "SELECT id, reservation_id, amount, payment_date, paid FROM payment ORDER BY id",
+            "id", "reservation_id", "amount", "payment_date", "paid"),
+
+    INVOICES(
+            "SELECT id, reservation_id, invoice_date, total_amount FROM invoice ORDER BY id",
+            "id", "reservation_id", "invoice_date", "total_amount");
+
+    private final String sql;
+    private final List<String> columns;
+
+    ExportDataset(String sql, String... columns) {
+        this.sql = sql;
+        this.columns = Collections.unmodifiableList(Arrays.asList(columns));
+    }
+
+    String getSql() {
+        return sql;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+}
@@ -0,0 +1,14 @@
+package com.hotel.db;
+
+import java.io.IOException;
+
+/**
+ * Reçoit les lignes lues par {@link ExportDao#forEachRow}. Le tableau {@code values}
+ * est réutilisé d'une ligne à l'autre : il ne doit pas être conservé après l'appel.
+ * Les valeurs sont des {@code Integer}, {@code Double}, {@code Boolean},
+ * {@code LocalDate}, {@code String} ou {@code null}.
+ */
+@FunctionalInterface
+public interface ExportRowConsumer {
+    void accept(Object[] values) throws IOException;
+}
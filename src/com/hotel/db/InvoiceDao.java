@@ -2,12 +2,24 @@ package com.hotel.db;
 
 import com.hotel.model.Invoice;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface InvoiceDao {
 
+    // DuplicateKeyException si la réservation a déjà sa facture
     Invoice save(Invoice invoice);
 
+    /**
+     * Facture en une seule requête toutes les réservations sans facture dont le départ
+     * tombe dans {@code [checkOutFrom, checkOutTo]}, au même tarif que la facturation unitaire
+     * (nuits x prix de la chambre, au moins une nuit). Sans effet sur les réservations déjà
+     * facturées, y compris par un lancement concurrent.
+     *
+     * @return nombre de factures créées
+     */
+    int insertMissing(LocalDate checkOutFrom, LocalDate checkOutTo, LocalDate invoiceDate);
+
     Invoice findById(int id);
 
     Invoice findByReservationId(int reservationId);
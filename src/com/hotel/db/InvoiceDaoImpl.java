@@ -7,6 +7,7 @@ import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public class InvoiceDaoImpl implements InvoiceDao {
 
@@ -34,65 +35,98 @@ public class InvoiceDaoImpl implements InvoiceDao {
 
             return invoice;
         } catch (SQLException e) {
+            if (DuplicateKeyException.isDuplicateKey(e)) {
+                throw new DuplicateKeyException("Réservation déjà facturée : " + invoice.getReservation().getId(), e);
+            }
             throw new RuntimeException("Erreur lors de l'enregistrement de la facture", e);
         }
     }
 
+    @Override
+    public int insertMissing(LocalDate checkOutFrom, LocalDate checkOutTo, LocalDate invoiceDate) {
+        // INSERT ... SELECT : calcul et insertion côté base, sans rapatrier les réservations
+        String sql = "INSERT INTO invoice (reservation_id, invoice_date, total_amount) " +
+                "SELECT r.id, ?, GREATEST(TIMESTAMPDIFF(DAY, r.check_in, r.check_out), 1) * room.price " +
+                "FROM reservation r " +
+                "JOIN room ON room.id = r.room_id " +
+                "LEFT JOIN invoice i ON i.reservation_id = r.id " +
+                "WHERE r.check_out >= ? AND r.check_out <= ? AND i.id IS NULL";
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setDate(1, Date.valueOf(invoiceDate));
+            ps.setDate(2, Date.valueOf(checkOutFrom));
+            ps.setDate(3, Date.valueOf(checkOutTo));
+            try {
+                return ps.executeUpdate();
+            } catch (SQLException e) {
+                if (!DuplicateKeyException.isDuplicateKey(e)) {
+                    throw e;
+                }
+                // facture créée en même temps ailleurs : l'instruction est annulée en entier,
+                // on la rejoue une fois, la jointure écartant désormais la réservation facturée
+                return ps.executeUpdate();
+            }
+        } catch (SQLException e) {
+            if (DuplicateKeyException.isDuplicateKey(e)) {
+                throw new DuplicateKeyException("Facturation groupée en concurrence avec une autre, à relancer", e);
+            }
+            throw new RuntimeException("Erreur lors de la facturation groupée des réservations", e);
+        }
+    }
+
     @Override
     public Invoice findById(int id) {
         String sql = "SELECT id, reservation_id, invoice_date, total_amount FROM invoice WHERE id = ?";
 
+        List<Integer> reservationIds = new ArrayList<>();
+        List<Invoice> invoices;
+
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
             ps.setInt(1, id);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    return mapRowToInvoice(rs);
-                }
-            }
+            invoices = readInvoices(ps, reservationIds);
         } catch (SQLException e) {
             throw new RuntimeException("Erreur lors de la récupération de la facture", e);
         }
-        return null;
+        return first(hydrate(invoices, reservationIds));
     }
 
     @Override
     public Invoice findByReservationId(int reservationId) {
         String sql = "SELECT id, reservation_id, invoice_date, total_amount FROM invoice WHERE reservation_id = ?";
 
+        List<Integer> reservationIds = new ArrayList<>();
+        List<Invoice> invoices;
+
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
             ps.setInt(1, reservationId);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    return mapRowToInvoice(rs);
-                }
-            }
+            invoices = readInvoices(ps, reservationIds);
         } catch (SQLException e) {
             throw new RuntimeException("Erreur lors de la récupération de la facture par réservation", e);
         }
-        return null;
+        return first(hydrate(invoices, reservationIds));
     }
 
     @Override
     public List<Invoice> findAll() {
         String sql = "SELECT id, reservation_id, invoice_date, total_amount FROM invoice";
-        List<Invoice> result = new ArrayList<>();
+
+        List<Integer> reservationIds = new ArrayList<>();
+        List<Invoice> invoices;
 
         try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
+             PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            while (rs.next()) {
-                result.add(mapRowToInvoice(rs));
-            }
+            invoices = readInvoices(ps, reservationIds);
         } catch (SQLException e) {
             throw new RuntimeException("Erreur lors de la récupération des factures", e);
         }
-
-        return result;
+        return hydrate(invoices, reservationIds);
     }
 
     @Override
@@ -111,20 +145,44 @@ public class InvoiceDaoImpl implements InvoiceDao {
 
     // ---------- mapping utilitaire ----------
 
-    private Invoice mapRowToInvoice(ResultSet rs) throws SQLException {
-        int invoiceId = rs.getInt("id");
-        int reservationId = rs.getInt("reservation_id");
-        LocalDate date = rs.getDate("invoice_date").toLocalDate();
-        double total = rs.getDouble("total_amount");
-
-        Reservation reservation = reservationDao.findById(reservationId);
+    // lit les lignes de facture et collecte, dans le même ordre, l'id de réservation de chacune
+    private List<Invoice> readInvoices(PreparedStatement ps, List<Integer> reservationIds) throws SQLException {
+        List<Invoice> invoices = new ArrayList<>();
+        try (ResultSet rs = ps.executeQuery()) {
+            Columns columns = Columns.of(rs);
+            int idIdx = columns.indexOf("id");
+            int dateIdx = columns.indexOf("invoice_date");
+            int totalIdx = columns.indexOf("total_amount");
+            int reservationIdx = columns.indexOf("reservation_id");
+            while (rs.next()) {
+                Invoice invoice = new Invoice();
+                invoice.setId(rs.getInt(idIdx));
+                invoice.setDate(rs.getDate(dateIdx).toLocalDate());
+                invoice.setTotalAmount(rs.getDouble(totalIdx));
+                invoices.add(invoice);
+                reservationIds.add(rs.getInt(reservationIdx));
+            }
+        }
+        return invoices;
+    }
 
-        Invoice invoice = new Invoice();
-        invoice.setId(invoiceId);
-        invoice.setReservation(reservation);
-        invoice.setDate(date);
-        invoice.setTotalAmount(total);
+    /**
+     * Hydrate les réservations en une passe groupée, une fois la connexion de lecture rendue :
+     * les ids sont chargés via {@link ReservationDao#findByIds}, donc une réservation partagée
+     * par plusieurs factures n'est lue et construite qu'une fois.
+     */
+    private List<Invoice> hydrate(List<Invoice> invoices, List<Integer> reservationIds) {
+        if (invoices.isEmpty()) {
+            return invoices;
+        }
+        Map<Integer, Reservation> reservations = reservationDao.findByIds(reservationIds);
+        for (int i = 0; i < invoices.size(); i++) {
+            invoices.get(i).setReservation(reservations.get(reservationIds.get(i)));
+        }
+        return invoices;
+    }
 
-        return invoice;
+    private static Invoice first(List<Invoice> invoices) {
+        return invoices.isEmpty() ? null : invoices.get(0);
     }
 }
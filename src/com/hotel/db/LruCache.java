@@ -0,0 +1,112 @@
+package com.hotel.db;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Cache borné en taille (éviction LRU) et en durée de vie, utilisé par les DAO en cache.
+ * <p>
+ * Les opérations sont synchronisées : elles ne font que manipuler la table, les accès à
+ * la base restent hors du verrou. Les valeurs ne sont jamais {@code null} ; un
+ * {@code get} à {@code null} signifie absent ou expiré.
+ * <p>
+ * Une lecture en base concurrente d'une invalidation pourrait remettre en cache une valeur
+ * périmée : l'appelant prend donc un {@link #stamp()} avant de lire la base et le passe à
+ * {@link #putIfUnchanged}, qui ignore la valeur si une invalidation a eu lieu entre-temps.
+ */
+class LruCache<K, V> {
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> map = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expired;
+    private long invalidations;
+
+    LruCache(String name, int maxSize, long ttlMillis) {
+        this.name = name;
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    /** Taille lue dans {@code hotel.cache.maxSize} (10 000), durée de vie dans {@code hotel.cache.ttlMs} (5 min). */
+    static <K, V> LruCache<K, V> fromSystemProperties(String name) {
+        return new LruCache<>(name,
+                Integer.getInteger("hotel.cache.maxSize", 10_000),
+                Long.getLong("hotel.cache.ttlMs", 300_000));
+    }
+
+    synchronized V get(K key) {
+        Entry<V> entry = map.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (System.nanoTime() - entry.loadedAt > ttlNanos) {
+            map.remove(key);
+            expired++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    synchronized long stamp() {
+        return invalidations;
+    }
+
+    /** Met en cache sauf si une invalidation a eu lieu depuis {@code stamp}. */
+    synchronized void putIfUnchanged(K key, V value, long stamp) {
+        if (stamp == invalidations) {
+            put(key, value);
+        }
+    }
+
+    synchronized void put(K key, V value) {
+        map.put(key, new Entry<>(value, System.nanoTime()));
+        if (map.size() > maxSize) {
+            // ordre d'accès : la première entrée est la moins récemment utilisée
+            Iterator<K> eldest = map.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    synchronized void invalidate(K key) {
+        invalidations++;
+        map.remove(key);
+    }
+
+    /** Retire toutes les entrées dont la valeur vérifie {@code predicate}. */
+    synchronized void invalidateIf(Predicate<V> predicate) {
+        invalidations++;
+        map.values().removeIf(entry -> predicate.test(entry.value));
+    }
+
+    synchronized void invalidateAll() {
+        invalidations++;
+        map.clear();
+    }
+
+    synchronized CacheStats getStats() {
+        return new CacheStats(name, map.size(), maxSize, hits, misses, evictions, expired);
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long loadedAt;
+
+        Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
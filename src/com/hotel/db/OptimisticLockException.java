@@ -0,0 +1,13 @@
+package com.hotel.db;
+
+/**
+ * Mise à jour refusée : la ligne a été modifiée (ou supprimée) depuis sa lecture,
+ * son numéro de version ne correspond plus.
+ */
+public class OptimisticLockException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public OptimisticLockException(String message) {
+        super(message);
+    }
+}
@@ -1,14 +1,26 @@
 package com.hotel.db;
 
 import com.hotel.model.Payment;
+import com.hotel.model.PaymentSort;
 
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Map;
 
 public interface PaymentDao {
 
 
+    // DuplicateKeyException si la clé d'idempotence du paiement est déjà enregistrée
     Payment save(Payment payment);
+    Payment findById(int id);
+    Payment findByIdempotencyKey(String key);
     List<Payment> findByClientId(int clientId);
     List<Payment> findAll();
+    int count();
+    // page triée à partir de la ligne offset, égalités départagées par l'id ; coût en O(offset)
+    List<Payment> findSortedPage(PaymentSort sort, boolean ascending, int offset, int limit);
+    // page suivante, lue après la ligne after (sa clé de tri puis son id) : coût indépendant de la position
+    List<Payment> findSortedPageAfter(PaymentSort sort, boolean ascending, Payment after, int limit);
     double getTotalRevenue();
+    Map<YearMonth, Double> getRevenueByMonth();
 }
@@ -2,21 +2,35 @@ package com.hotel.db;
 
 import com.hotel.model.Client;
 import com.hotel.model.Payment;
+import com.hotel.model.PaymentSort;
 import com.hotel.model.Reservation;
 import com.hotel.model.Room;
 
 import java.sql.*;
-import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 
 public class PaymentDaoImpl implements PaymentDao {
 
+    private static final String SELECT_JOINED =
+            "SELECT p.id                AS p_id, " +
+                    "       p.amount           AS p_amount, " +
+                    "       p.payment_date     AS p_date, " +
+                    "       p.paid             AS p_paid, " +
+                    "       p.idempotency_key  AS p_key, " +
+                    ReservationRowMapper.COLUMNS +
+                    "FROM payment p " +
+                    "JOIN reservation r ON p.reservation_id = r.id " +
+                    ReservationRowMapper.JOINS;
+
     @Override
     public Payment save(Payment payment) {
-        String sql = "INSERT INTO payment (reservation_id, amount, payment_date, paid) " +
-                "VALUES (?, ?, ?, ?)";
+        String sql = "INSERT INTO payment (reservation_id, amount, payment_date, paid, idempotency_key) " +
+                "VALUES (?, ?, ?, ?, ?)";
 
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
@@ -25,6 +39,7 @@ public class PaymentDaoImpl implements PaymentDao {
             ps.setDouble(2, payment.getAmount());
             ps.setDate(3, Date.valueOf(payment.getDate()));
             ps.setBoolean(4, payment.isPaid());
+            ps.setString(5, payment.getIdempotencyKey());
 
             ps.executeUpdate();
 
@@ -36,37 +51,51 @@ public class PaymentDaoImpl implements PaymentDao {
 
             return payment;
         } catch (SQLException e) {
+            if (DuplicateKeyException.isDuplicateKey(e)) {
+                throw new DuplicateKeyException("Paiement déjà enregistré pour la clé " + payment.getIdempotencyKey(), e);
+            }
             throw new RuntimeException("Erreur lors de l'enregistrement du paiement", e);
         }
     }
 
+    @Override
+    public Payment findById(int id) {
+        String sql = SELECT_JOINED + "WHERE p.id = ?";
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? paymentMapper(rs, new HashMap<>(), new HashMap<>()).mapRow(rs) : null;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Erreur lors de la recherche du paiement", e);
+        }
+    }
+
+    @Override
+    public Payment findByIdempotencyKey(String key) {
+        String sql = SELECT_JOINED + "WHERE p.idempotency_key = ?";
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, key);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? paymentMapper(rs, new HashMap<>(), new HashMap<>()).mapRow(rs) : null;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Erreur lors de la recherche du paiement par clé", e);
+        }
+    }
+
     @Override
     public List<Payment> findByClientId(int clientId) {
         List<Payment> result = new ArrayList<>();
-
-        String sql =
-                "SELECT p.id                AS p_id, " +
-                        "       p.amount           AS p_amount, " +
-                        "       p.payment_date     AS p_date, " +
-                        "       p.paid             AS p_paid, " +
-                        "       r.id               AS r_id, " +
-                        "       r.check_in         AS r_check_in, " +
-                        "       r.check_out        AS r_check_out, " +
-                        "       r.confirmed        AS r_confirmed, " +
-                        "       c.id               AS c_id, " +
-                        "       c.name             AS c_name, " +
-                        "       c.contact          AS c_contact, " +
-                        "       c.email            AS c_email, " +
-                        "       room.id            AS room_id, " +
-                        "       room.room_number   AS room_number, " +
-                        "       room.type          AS room_type, " +
-                        "       room.price         AS room_price, " +
-                        "       room.available     AS room_available " +
-                        "FROM payment p " +
-                        "JOIN reservation r ON p.reservation_id = r.id " +
-                        "JOIN client c ON r.client_id = c.id " +
-                        "JOIN room ON r.room_id = room.id " +
-                        "WHERE c.id = ?";
+        String sql = SELECT_JOINED + "WHERE c.id = ?";
+        Map<Integer, Client> clients = new HashMap<>();
+        Map<Integer, Room> rooms = new HashMap<>();
 
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -74,41 +103,9 @@ public class PaymentDaoImpl implements PaymentDao {
             ps.setInt(1, clientId);
 
             try (ResultSet rs = ps.executeQuery()) {
+                RowMapper<Payment> mapper = paymentMapper(rs, clients, rooms);
                 while (rs.next()) {
-                    // Client
-                    Client client = new Client();
-                    client.setId(rs.getInt("c_id"));
-                    client.setName(rs.getString("c_name"));
-                    client.setContact(rs.getString("c_contact"));
-                    client.setEmail(rs.getString("c_email"));
-
-                    // Room
-                    Room room = new Room();
-                    room.setId(rs.getInt("room_id"));
-                    room.setNumber(rs.getString("room_number"));
-                    room.setType(rs.getString("room_type"));
-                    room.setPrice(rs.getDouble("room_price"));
-                    room.setAvailable(rs.getBoolean("room_available"));
-
-                    // Reservation
-                    Reservation reservation = new Reservation();
-                    reservation.setId(rs.getInt("r_id"));
-                    reservation.setClient(client);
-                    reservation.setRoom(room);
-                    reservation.setCheckInDate(rs.getDate("r_check_in").toLocalDate());
-                    reservation.setCheckOutDate(rs.getDate("r_check_out").toLocalDate());
-                    reservation.setConfirmed(rs.getBoolean("r_confirmed"));
-
-                    // Payment
-                    Payment payment = new Payment();
-                    payment.setId(rs.getInt("p_id"));
-                    payment.setClient(client);
-                    payment.setReservation(reservation);
-                    payment.setAmount(rs.getDouble("p_amount"));
-                    payment.setDate(rs.getDate("p_date").toLocalDate());
-                    payment.setPaid(rs.getBoolean("p_paid"));
-
-                    result.add(payment);
+                    result.add(mapper.mapRow(rs));
                 }
             }
         } catch (SQLException e) {
@@ -117,17 +114,20 @@ public class PaymentDaoImpl implements PaymentDao {
 
         return result;
     }
+
     @Override
     public List<Payment> findAll() {
         List<Payment> list = new ArrayList<>();
-        String sql = "SELECT * FROM payment";
+        Map<Integer, Client> clients = new HashMap<>();
+        Map<Integer, Room> rooms = new HashMap<>();
 
         try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
+             PreparedStatement ps = conn.prepareStatement(SELECT_JOINED);
              ResultSet rs = ps.executeQuery()) {
 
+            RowMapper<Payment> mapper = paymentMapper(rs, clients, rooms);
             while (rs.next()) {
-                list.add(mapRowToPayment(rs));
+                list.add(mapper.mapRow(rs));
             }
 
         } catch (SQLException e) {
@@ -135,6 +135,128 @@ public class PaymentDaoImpl implements PaymentDao {
         }
         return list;
     }
+
+    @Override
+    public int count() {
+        String sql = "SELECT COUNT(*) FROM payment";
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            throw new RuntimeException("Erreur lors du comptage des paiements", e);
+        }
+    }
+
+    @Override
+    public List<Payment> findSortedPage(PaymentSort sort, boolean ascending, int offset, int limit) {
+        String direction = ascending ? " ASC" : " DESC";
+        String sql = SELECT_JOINED +
+                "ORDER BY " + orderColumn(sort) + direction + ", p.id" + direction + " " +
+                "LIMIT ? OFFSET ?";
+
+        return findPage(sql, ps -> {
+            ps.setInt(1, limit);
+            ps.setInt(2, offset);
+        });
+    }
+
+    @Override
+    public List<Payment> findSortedPageAfter(PaymentSort sort, boolean ascending, Payment after, int limit) {
+        String column = orderColumn(sort);
+        String direction = ascending ? " ASC" : " DESC";
+        String cmp = ascending ? " > ?" : " < ?";
+        Object key = sortKey(sort, after);
+        // NULL est la plus petite valeur (en tête en ASC, en fin en DESC), comme dans ORDER BY
+        String seek;
+        if (key == null) {
+            seek = ascending
+                    ? "(" + column + " IS NOT NULL OR p.id" + cmp + ") "
+                    : "(" + column + " IS NULL AND p.id" + cmp + ") ";
+        } else {
+            seek = "(" + column + cmp + " OR (" + column + " = ? AND p.id" + cmp + ")"
+                    + (ascending ? "" : " OR " + column + " IS NULL") + ") ";
+        }
+        String sql = SELECT_JOINED +
+                "WHERE " + seek +
+                "ORDER BY " + column + direction + ", p.id" + direction + " " +
+                "LIMIT ?";
+
+        return findPage(sql, ps -> {
+            int i = 1;
+            if (key != null) {
+                ps.setObject(i++, key);
+                ps.setObject(i++, key);
+            }
+            ps.setInt(i++, after.getId());
+            ps.setInt(i, limit);
+        });
+    }
+
+    private List<Payment> findPage(String sql, StatementBinder binder) {
+        List<Payment> list = new ArrayList<>();
+        Map<Integer, Client> clients = new HashMap<>();
+        Map<Integer, Room> rooms = new HashMap<>();
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            binder.bind(ps);
+            try (ResultSet rs = ps.executeQuery()) {
+                RowMapper<Payment> mapper = paymentMapper(rs, clients, rooms);
+                while (rs.next()) {
+                    list.add(mapper.mapRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Erreur lors de la récupération des paiements", e);
+        }
+        return list;
+    }
+
+    @FunctionalInterface
+    private interface StatementBinder {
+        void bind(PreparedStatement ps) throws SQLException;
+    }
+
+    // valeur de la clé de tri de la ligne, au type de sa colonne (voir orderColumn)
+    private static Object sortKey(PaymentSort sort, Payment payment) {
+        switch (sort != null ? sort : PaymentSort.ID) {
+            case CLIENT:
+                return payment.getClient() != null ? payment.getClient().getName() : null;
+            case RESERVATION:
+                return payment.getReservation() != null ? payment.getReservation().getId() : null;
+            case AMOUNT:
+                return payment.getAmount();
+            case DATE:
+                return payment.getDate() != null ? Date.valueOf(payment.getDate()) : null;
+            case PAID:
+                return payment.isPaid();
+            default:
+                return payment.getId();
+        }
+    }
+
+    // colonne SQL de chaque clé de tri (jamais de texte fourni par l'appelant dans ORDER BY)
+    private static String orderColumn(PaymentSort sort) {
+        switch (sort != null ? sort : PaymentSort.ID) {
+            case CLIENT:
+                return "c.name";
+            case RESERVATION:
+                return "r.id";
+            case AMOUNT:
+                return "p.amount";
+            case DATE:
+                return "p.payment_date";
+            case PAID:
+                return "p.paid";
+            default:
+                return "p.id";
+        }
+    }
+
     @Override
     public double getTotalRevenue() {
         String sql = "SELECT COALESCE(SUM(amount), 0) AS total FROM payment";
@@ -151,27 +273,49 @@ public class PaymentDaoImpl implements PaymentDao {
             throw new RuntimeException("Erreur lors du calcul du chiffre d'affaires", e);
         }
     }
-    // Mapping SQL → Payment
-    private Payment mapRowToPayment(ResultSet rs) throws SQLException {
+    @Override
+    public Map<YearMonth, Double> getRevenueByMonth() {
+        String sql = "SELECT YEAR(payment_date) AS y, MONTH(payment_date) AS m, SUM(amount) AS total " +
+                "FROM payment " +
+                "GROUP BY YEAR(payment_date), MONTH(payment_date)";
+        Map<YearMonth, Double> result = new HashMap<>();
 
-        int id = rs.getInt("id");
-        int reservationId = rs.getInt("reservation_id");
-        double amount = rs.getDouble("amount");
-        LocalDate date = rs.getDate("payment_date").toLocalDate();
-        boolean paid = rs.getBoolean("paid");
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
 
+            while (rs.next()) {
+                result.put(YearMonth.of(rs.getInt("y"), rs.getInt("m")), rs.getDouble("total"));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Erreur lors du calcul du chiffre d'affaires mensuel", e);
+        }
+        return result;
+    }
 
-        ReservationDao reservationDao = new ReservationDaoImpl();
-        Reservation reservation = reservationDao.findById(reservationId);
+    // Mapping SQL → Payment (paiement + réservation + client + chambre, une seule requête)
+    private static RowMapper<Payment> paymentMapper(ResultSet rs, Map<Integer, Client> clients, Map<Integer, Room> rooms)
+            throws SQLException {
+        Columns columns = Columns.of(rs);
+        ReservationRowMapper reservations = ReservationRowMapper.bind(columns, clients, rooms);
+        int idIdx = columns.indexOf("p_id");
+        int amountIdx = columns.indexOf("p_amount");
+        int dateIdx = columns.indexOf("p_date");
+        int paidIdx = columns.indexOf("p_paid");
+        int keyIdx = columns.indexOf("p_key");
 
-        Payment p = new Payment();
-        p.setId(id);
-        p.setReservation(reservation);
-        p.setClient(reservation.getClient()); // pour affichage dans la table
-        p.setAmount(amount);
-        p.setDate(date);
-        p.setPaid(paid);
+        return row -> {
+            Reservation reservation = reservations.mapRow(row);
 
-        return p;
+            Payment payment = new Payment();
+            payment.setId(row.getInt(idIdx));
+            payment.setReservation(reservation);
+            payment.setClient(reservation.getClient()); // pour affichage dans la table
+            payment.setAmount(row.getDouble(amountIdx));
+            payment.setDate(row.getDate(dateIdx).toLocalDate());
+            payment.setPaid(row.getBoolean(paidIdx));
+            payment.setIdempotencyKey(row.getString(keyIdx));
+            return payment;
+        };
     }
 }
@@ -0,0 +1,100 @@
+package com.hotel.db;
+
+/**
+ * Paramètres du {@link ConnectionPool}. Chaque valeur peut être surchargée par une
+ * propriété système {@code hotel.db.pool.<nom>} (ex. {@code -Dhotel.db.pool.maxSize=20}).
+ */
+public class PoolConfig {
+
+    private int minSize = 2;
+    private int maxSize = 10;
+    private long borrowTimeoutMs = 5_000;
+    private long idleTimeoutMs = 5 * 60_000;
+    private long leakThresholdMs = 0;
+    private int validationTimeoutSec = 2;
+    private long housekeepingPeriodMs = 30_000;
+
+    public PoolConfig() {
+    }
+
+    public static PoolConfig fromSystemProperties() {
+        PoolConfig c = new PoolConfig();
+        c.setMinSize(Integer.getInteger("hotel.db.pool.minSize", c.minSize));
+        c.setMaxSize(Integer.getInteger("hotel.db.pool.maxSize", c.maxSize));
+        c.setBorrowTimeoutMs(Long.getLong("hotel.db.pool.borrowTimeoutMs", c.borrowTimeoutMs));
+        c.setIdleTimeoutMs(Long.getLong("hotel.db.pool.idleTimeoutMs", c.idleTimeoutMs));
+        c.setLeakThresholdMs(Long.getLong("hotel.db.pool.leakThresholdMs", c.leakThresholdMs));
+        c.setValidationTimeoutSec(Integer.getInteger("hotel.db.pool.validationTimeoutSec", c.validationTimeoutSec));
+        c.setHousekeepingPeriodMs(Long.getLong("hotel.db.pool.housekeepingPeriodMs", c.housekeepingPeriodMs));
+        if (c.minSize > c.maxSize) {
+            throw new IllegalArgumentException("hotel.db.pool.minSize doit être <= maxSize");
+        }
+        return c;
+    }
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    public void setMinSize(int minSize) {
+        if (minSize < 0) {
+            throw new IllegalArgumentException("minSize doit être >= 0");
+        }
+        this.minSize = minSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize doit être > 0");
+        }
+        this.maxSize = maxSize;
+    }
+
+    public long getBorrowTimeoutMs() {
+        return borrowTimeoutMs;
+    }
+
+    public void setBorrowTimeoutMs(long borrowTimeoutMs) {
+        this.borrowTimeoutMs = borrowTimeoutMs;
+    }
+
+    public long getIdleTimeoutMs() {
+        return idleTimeoutMs;
+    }
+
+    public void setIdleTimeoutMs(long idleTimeoutMs) {
+        this.idleTimeoutMs = idleTimeoutMs;
+    }
+
+    /**
+     * Durée d'emprunt au-delà de laquelle une connexion est signalée comme fuite, avec la pile
+     * d'appel de l'emprunt ; 0 (défaut) désactive la détection et la capture des piles.
+     */
+    public long getLeakThresholdMs() {
+        return leakThresholdMs;
+    }
+
+    public void setLeakThresholdMs(long leakThresholdMs) {
+        this.leakThresholdMs = leakThresholdMs;
+    }
+
+    public int getValidationTimeoutSec() {
+        return validationTimeoutSec;
+    }
+
+    public void setValidationTimeoutSec(int validationTimeoutSec) {
+        this.validationTimeoutSec = validationTimeoutSec;
+    }
+
+    public long getHousekeepingPeriodMs() {
+        return housekeepingPeriodMs;
+    }
+
+    public void setHousekeepingPeriodMs(long housekeepingPeriodMs) {
+        this.housekeepingPeriodMs = housekeepingPeriodMs;
+    }
+}
@@ -0,0 +1,94 @@
+package com.hotel.db;
+
+import java.io.Serializable;
+
+/**
+ * Statistiques instantanées du pool de connexions.
+ */
+public class PoolStats implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final int active;
+    private final int idle;
+    private final int total;
+    private final int waiters;
+    private final long borrowCount;
+    private final long timeoutCount;
+    private final long leakCount;
+    private final long[] waitHistogram;
+
+    public PoolStats(int active, int idle, int total, int waiters,
+                     long borrowCount, long timeoutCount, long leakCount, long[] waitHistogram) {
+        this.active = active;
+        this.idle = idle;
+        this.total = total;
+        this.waiters = waiters;
+        this.borrowCount = borrowCount;
+        this.timeoutCount = timeoutCount;
+        this.leakCount = leakCount;
+        this.waitHistogram = waitHistogram.clone();
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getWaiters() {
+        return waiters;
+    }
+
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount;
+    }
+
+    public long getLeakCount() {
+        return leakCount;
+    }
+
+    /**
+     * Nombre d'emprunts par classe de temps d'attente : la classe {@code i} compte les
+     * attentes inférieures à {@link #getWaitBucketBoundsMs()}{@code [i]} ms, la dernière
+     * classe compte tout le reste.
+     */
+    public long[] getWaitHistogram() {
+        return waitHistogram.clone();
+    }
+
+    public long[] getWaitBucketBoundsMs() {
+        return ConnectionPool.WAIT_BUCKETS_MS.clone();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("PoolStats{active=").append(active)
+                .append(", idle=").append(idle)
+                .append(", total=").append(total)
+                .append(", waiters=").append(waiters)
+                .append(", borrows=").append(borrowCount)
+                .append(", timeouts=").append(timeoutCount)
+                .append(", leaks=").append(leakCount)
+                .append(", wait={");
+        long[] bounds = ConnectionPool.WAIT_BUCKETS_MS;
+        for (int i = 0; i < waitHistogram.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(i < bounds.length ? "<" + bounds[i] + "ms" : ">=" + bounds[bounds.length - 1] + "ms")
+                    .append('=').append(waitHistogram[i]);
+        }
+        return sb.append("}}").toString();
+    }
+}
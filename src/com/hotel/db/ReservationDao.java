@@ -1,18 +1,85 @@
 package com.hotel.db;
 
 import com.hotel.model.Reservation;
+import com.hotel.model.ReservationFilter;
+import com.hotel.model.ReservationSort;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
 
 public interface ReservationDao {
 
     Reservation save(Reservation reservation);
 
+    /**
+     * Insertion par lots, une transaction par tranche. Aucun contrôle de disponibilité
+     * n'est fait ici : réservé aux imports et aux jeux de données.
+     * Renvoie les réservations dans l'ordre reçu, ids renseignés.
+     */
+    List<Reservation> saveAll(Collection<Reservation> reservations);
+
     List<Reservation> findAll();
 
     Reservation findById(int id);
 
-    void delete(int id);
+    /**
+     * Charge plusieurs réservations par lots de requêtes {@code IN (...)}.
+     * Dans un même appel, chaque client et chaque chambre n'est matérialisé qu'une fois.
+     */
+    Map<Integer, Reservation> findByIds(Collection<Integer> ids);
+
+    /** Réservations d'un client, par date d'arrivée (index sur {@code reservation.client_id}). */
+    List<Reservation> findByClientId(int clientId);
+
+    /**
+     * Historique complet d'un client (réservations, paiements, factures) en une seule
+     * requête, transmis en flux réservation par réservation dans l'ordre des arrivées.
+     */
+    void forEachClientHistory(int clientId, ClientHistoryConsumer consumer);
+
+    /**
+     * Page de réservations d'id strictement supérieur à {@code afterId}, triées par id
+     * (pagination par clé : passer l'id de la dernière ligne reçue pour la page suivante).
+     */
+    List<Reservation> findPage(ReservationFilter filter, int afterId, int limit);
+
+    int count();
+
+    /**
+     * Page de réservations triées, à partir de la ligne {@code offset} (pagination par
+     * position, pour l'accès direct à n'importe quelle ligne d'un tableau).
+     * L'id départage les égalités, l'ordre est donc stable d'une page à l'autre.
+     */
+    List<Reservation> findSortedPage(ReservationSort sort, boolean ascending, int offset, int limit);
 
+    /**
+     * Parcourt en flux les séjours qui chevauchent {@code [from, to)}, avec le prix par
+     * nuit de la chambre ; {@code roomType} null = tous les types.
+     */
+    void forEachStay(LocalDate from, LocalDate to, String roomType, StayConsumer consumer);
+
+    /** Parcourt en flux les réservations (id, chambre, dates) qui chevauchent {@code [from, to)}. */
+    void forEachBooking(LocalDate from, LocalDate to, BookingConsumer consumer);
+
+    /**
+     * Variation du nombre de chambres occupées à chaque date (arrivées moins départs),
+     * pour les séjours qui se terminent après {@code from}, par date croissante.
+     * Le cumul donne l'occupation de chaque nuit à partir de {@code from}.
+     */
+    SortedMap<LocalDate, Integer> getOccupancyChanges(LocalDate from);
+
+    /** Nuitées réservées par type de chambre, calculées en base. */
+    Map<String, Long> getNightsByRoomType();
+
+    /** DELETE conditionnel sur la version : {@link OptimisticLockException} si la ligne a changé ou n'existe plus. */
+    void delete(int id, int version);
+
+    /** UPDATE conditionnel sur la version : {@link OptimisticLockException} si la ligne a changé. */
     void update(Reservation reservation);
+
+    /** Vrai si une réservation de la chambre occupe au moins une nuit de {@code [checkIn, checkOut)}. */
+    boolean hasOverlap(int roomId, LocalDate checkIn, LocalDate checkOut);
 }
@@ -1,31 +1,48 @@
 package com.hotel.db;
 
 import com.hotel.model.Client;
+import com.hotel.model.Invoice;
+import com.hotel.model.Payment;
 import com.hotel.model.Reservation;
+import com.hotel.model.ReservationFilter;
+import com.hotel.model.ReservationSort;
 import com.hotel.model.Room;
 
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 
 public class ReservationDaoImpl implements ReservationDao {
 
+    // nombre maximal d'identifiants par requête IN (...)
+    private static final int IN_CHUNK_SIZE = 500;
+
+    private static final String INSERT_SQL = "INSERT INTO reservation (client_id, room_id, check_in, check_out, confirmed) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    private static final BatchInserter.Binder<Reservation> INSERT_BINDER = (ps, reservation) -> {
+        ps.setInt(1, reservation.getClient().getId());
+        ps.setInt(2, reservation.getRoom().getId());
+        ps.setDate(3, Date.valueOf(reservation.getCheckInDate()));
+        ps.setDate(4, Date.valueOf(reservation.getCheckOutDate()));
+        ps.setBoolean(5, reservation.isConfirmed());
+    };
+
     @Override
     public Reservation save(Reservation reservation) {
-        String sql = "INSERT INTO reservation (client_id, room_id, check_in, check_out, confirmed) " +
-                "VALUES (?, ?, ?, ?, ?)";
-
         try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            ps.setInt(1, reservation.getClient().getId());
-            ps.setInt(2, reservation.getRoom().getId());
-            ps.setDate(3, Date.valueOf(reservation.getCheckInDate()));
-            ps.setDate(4, Date.valueOf(reservation.getCheckOutDate()));
-            ps.setBoolean(5, reservation.isConfirmed());
+             PreparedStatement ps = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
 
+            INSERT_BINDER.bind(ps, reservation);
             ps.executeUpdate();
 
             try (ResultSet rs = ps.getGeneratedKeys()) {
@@ -39,34 +56,28 @@ public class ReservationDaoImpl implements ReservationDao {
         }
     }
 
+    @Override
+    public List<Reservation> saveAll(Collection<Reservation> reservations) {
+        return BatchInserter.insertAll(INSERT_SQL, reservations, INSERT_BINDER, Reservation::setId);
+    }
+
     @Override
     public List<Reservation> findAll() {
-        String sql =
-                "SELECT r.id               AS r_id, " +
-                        "       r.check_in         AS r_check_in, " +
-                        "       r.check_out        AS r_check_out, " +
-                        "       r.confirmed        AS r_confirmed, " +
-                        "       c.id               AS c_id, " +
-                        "       c.name             AS c_name, " +
-                        "       c.contact          AS c_contact, " +
-                        "       c.email            AS c_email, " +
-                        "       room.id            AS room_id, " +
-                        "       room.room_number   AS room_number, " +
-                        "       room.type          AS room_type, " +
-                        "       room.price         AS room_price, " +
-                        "       room.available     AS room_available " +
-                        "FROM reservation r " +
-                        "JOIN client c ON r.client_id = c.id " +
-                        "JOIN room   ON r.room_id   = room.id";
+        String sql = "SELECT " + ReservationRowMapper.COLUMNS +
+                "FROM reservation r " +
+                ReservationRowMapper.JOINS;
 
         List<Reservation> result = new ArrayList<>();
+        Map<Integer, Client> clients = new HashMap<>();
+        Map<Integer, Room> rooms = new HashMap<>();
 
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
+            ReservationRowMapper mapper = ReservationRowMapper.bind(rs, clients, rooms);
             while (rs.next()) {
-                result.add(mapRowToReservation(rs));
+                result.add(mapper.mapRow(rs));
             }
         } catch (SQLException e) {
             throw new RuntimeException("Erreur lors de la récupération des réservations", e);
@@ -76,24 +87,10 @@ public class ReservationDaoImpl implements ReservationDao {
 
     @Override
     public Reservation findById(int id) {
-        String sql =
-                "SELECT r.id               AS r_id, " +
-                        "       r.check_in         AS r_check_in, " +
-                        "       r.check_out        AS r_check_out, " +
-                        "       r.confirmed        AS r_confirmed, " +
-                        "       c.id               AS c_id, " +
-                        "       c.name             AS c_name, " +
-                        "       c.contact          AS c_contact, " +
-                        "       c.email            AS c_email, " +
-                        "       room.id            AS room_id, " +
-                        "       room.room_number   AS room_number, " +
-                        "       room.type          AS room_type, " +
-                        "       room.price         AS room_price, " +
-                        "       room.available     AS room_available " +
-                        "FROM reservation r " +
-                        "JOIN client c ON r.client_id = c.id " +
-                        "JOIN room   ON r.room_id   = room.id " +
-                        "WHERE r.id = ?";
+        String sql = "SELECT " + ReservationRowMapper.COLUMNS +
+                "FROM reservation r " +
+                ReservationRowMapper.JOINS +
+                "WHERE r.id = ?";
 
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -102,7 +99,7 @@ public class ReservationDaoImpl implements ReservationDao {
 
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    return mapRowToReservation(rs);
+                    return ReservationRowMapper.bind(rs).mapRow(rs);
                 }
             }
         } catch (SQLException e) {
@@ -112,23 +109,345 @@ public class ReservationDaoImpl implements ReservationDao {
     }
 
     @Override
-    public void delete(int id) {
-        String sql = "DELETE FROM reservation WHERE id = ?";
+    public Map<Integer, Reservation> findByIds(Collection<Integer> ids) {
+        Map<Integer, Reservation> result = new HashMap<>();
+        if (ids == null || ids.isEmpty()) {
+            return result;
+        }
+
+        List<Integer> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Integer, Client> clients = new HashMap<>();
+        Map<Integer, Room> rooms = new HashMap<>();
+
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            for (int from = 0; from < distinct.size(); from += IN_CHUNK_SIZE) {
+                List<Integer> chunk = distinct.subList(from, Math.min(from + IN_CHUNK_SIZE, distinct.size()));
+                String sql = "SELECT " + ReservationRowMapper.COLUMNS +
+                        "FROM reservation r " +
+                        ReservationRowMapper.JOINS +
+                        "WHERE r.id IN (" + placeholders(chunk.size()) + ")";
+
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        ps.setInt(i + 1, chunk.get(i));
+                    }
+                    try (ResultSet rs = ps.executeQuery()) {
+                        ReservationRowMapper mapper = ReservationRowMapper.bind(rs, clients, rooms);
+                        while (rs.next()) {
+                            Reservation reservation = mapper.mapRow(rs);
+                            result.put(reservation.getId(), reservation);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Erreur lors de la récupération des réservations par lot", e);
+        }
+        return result;
+    }
+
+    @Override
+    public List<Reservation> findByClientId(int clientId) {
+        String sql = "SELECT " + ReservationRowMapper.COLUMNS +
+                "FROM reservation r " +
+                ReservationRowMapper.JOINS +
+                "WHERE r.client_id = ? " +
+                "ORDER BY r.check_in, r.id";
+
+        List<Reservation> result = new ArrayList<>();
+        Map<Integer, Client> clients = new HashMap<>();
+        Map<Integer, Room> rooms = new HashMap<>();
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, clientId);
+            try (ResultSet rs = ps.executeQuery()) {
+                ReservationRowMapper mapper = ReservationRowMapper.bind(rs, clients, rooms);
+                while (rs.next()) {
+                    result.add(mapper.mapRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Erreur lors de la récupération des réservations du client", e);
+        }
+        return result;
+    }
+
+    @Override
+    public void forEachClientHistory(int clientId, ClientHistoryConsumer consumer) {
+        // une ligne par couple (paiement, facture) d'une réservation : regroupées ci-dessous par r.id
+        String sql = "SELECT " + ReservationRowMapper.COLUMNS + ", " +
+                "p.id AS p_id, p.amount AS p_amount, p.payment_date AS p_date, p.paid AS p_paid, " +
+                "i.id AS i_id, i.invoice_date AS i_date, i.total_amount AS i_total " +
+                "FROM reservation r " +
+                ReservationRowMapper.JOINS +
+                "LEFT JOIN payment p ON p.reservation_id = r.id " +
+                "LEFT JOIN invoice i ON i.reservation_id = r.id " +
+                "WHERE r.client_id = ? " +
+                "ORDER BY r.check_in, r.id";
+
+        Map<Integer, Client> clients = new HashMap<>();
+        Map<Integer, Room> rooms = new HashMap<>();
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, clientId);
+            try (ResultSet rs = ps.executeQuery()) {
+                Columns columns = Columns.of(rs);
+                ReservationRowMapper mapper = ReservationRowMapper.bind(columns, clients, rooms);
+                int paymentIdIdx = columns.indexOf("p_id");
+                int paymentAmountIdx = columns.indexOf("p_amount");
+                int paymentDateIdx = columns.indexOf("p_date");
+                int paymentPaidIdx = columns.indexOf("p_paid");
+                int invoiceIdIdx = columns.indexOf("i_id");
+                int invoiceDateIdx = columns.indexOf("i_date");
+                int invoiceTotalIdx = columns.indexOf("i_total");
+
+                Reservation current = null;
+                Map<Integer, Payment> payments = new LinkedHashMap<>();
+                Map<Integer, Invoice> invoices = new LinkedHashMap<>();
+
+                while (rs.next()) {
+                    int reservationId = mapper.readId(rs);
+                    if (current == null || current.getId() != reservationId) {
+                        if (current != null) {
+                            consumer.accept(current, new ArrayList<>(payments.values()), new ArrayList<>(invoices.values()));
+                            payments.clear();
+                            invoices.clear();
+                        }
+                        current = mapper.mapRow(rs);
+                    }
+
+                    int paymentId = rs.getInt(paymentIdIdx);
+                    if (!rs.wasNull() && !payments.containsKey(paymentId)) {
+                        Payment payment = new Payment();
+                        payment.setId(paymentId);
+                        payment.setReservation(current);
+                        payment.setClient(current.getClient());
+                        payment.setAmount(rs.getDouble(paymentAmountIdx));
+                        payment.setDate(rs.getDate(paymentDateIdx).toLocalDate());
+                        payment.setPaid(rs.getBoolean(paymentPaidIdx));
+                        payments.put(paymentId, payment);
+                    }
+
+                    int invoiceId = rs.getInt(invoiceIdIdx);
+                    if (!rs.wasNull() && !invoices.containsKey(invoiceId)) {
+                        Invoice invoice = new Invoice();
+                        invoice.setId(invoiceId);
+                        invoice.setReservation(current);
+                        invoice.setDate(rs.getDate(invoiceDateIdx).toLocalDate());
+                        invoice.setTotalAmount(rs.getDouble(invoiceTotalIdx));
+                        invoices.put(invoiceId, invoice);
+                    }
+                }
+                if (current != null) {
+                    consumer.accept(current, new ArrayList<>(payments.values()), new ArrayList<>(invoices.values()));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Erreur lors de la récupération de l'historique du client", e);
+        }
+    }
+
+    @Override
+    public List<Reservation> findPage(ReservationFilter filter, int afterId, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(ReservationRowMapper.COLUMNS)
+                .append("FROM reservation r ")
+                .append(ReservationRowMapper.JOINS)
+                .append("WHERE r.id > ? ");
+        List<Object> params = new ArrayList<>();
+        params.add(afterId);
+
+        if (filter != null) {
+            if (filter.getClientId() != null) {
+                sql.append("AND r.client_id = ? ");
+                params.add(filter.getClientId());
+            }
+            if (filter.getFrom() != null) {
+                sql.append("AND r.check_out > ? ");
+                params.add(Date.valueOf(filter.getFrom()));
+            }
+            if (filter.getTo() != null) {
+                sql.append("AND r.check_in < ? ");
+                params.add(Date.valueOf(filter.getTo()));
+            }
+            if (filter.getRoomType() != null && !filter.getRoomType().isBlank()) {
+                sql.append("AND room.type = ? ");
+                params.add(filter.getRoomType());
+            }
+            if (filter.getConfirmed() != null) {
+                sql.append("AND r.confirmed = ? ");
+                params.add(filter.getConfirmed());
+            }
+        }
+        sql.append("ORDER BY r.id LIMIT ?");
+        params.add(limit);
+
+        List<Reservation> result = new ArrayList<>();
+        Map<Integer, Client> clients = new HashMap<>();
+        Map<Integer, Room> rooms = new HashMap<>();
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                ReservationRowMapper mapper = ReservationRowMapper.bind(rs, clients, rooms);
+                while (rs.next()) {
+                    result.add(mapper.mapRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Erreur lors de la recherche paginée des réservations", e);
+        }
+        return result;
+    }
+
+    @Override
+    public int count() {
+        String sql = "SELECT COUNT(*) FROM reservation";
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            throw new RuntimeException("Erreur lors du comptage des réservations", e);
+        }
+    }
+
+    @Override
+    public List<Reservation> findSortedPage(ReservationSort sort, boolean ascending, int offset, int limit) {
+        String direction = ascending ? " ASC" : " DESC";
+        String sql = "SELECT " + ReservationRowMapper.COLUMNS +
+                "FROM reservation r " +
+                ReservationRowMapper.JOINS +
+                "ORDER BY " + orderColumn(sort) + direction + ", r.id" + direction + " " +
+                "LIMIT ? OFFSET ?";
+
+        List<Reservation> result = new ArrayList<>();
+        Map<Integer, Client> clients = new HashMap<>();
+        Map<Integer, Room> rooms = new HashMap<>();
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, limit);
+            ps.setInt(2, offset);
+            try (ResultSet rs = ps.executeQuery()) {
+                ReservationRowMapper mapper = ReservationRowMapper.bind(rs, clients, rooms);
+                while (rs.next()) {
+                    result.add(mapper.mapRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Erreur lors de la récupération des réservations", e);
+        }
+        return result;
+    }
+
+    // colonne SQL de chaque clé de tri (jamais de texte fourni par l'appelant dans ORDER BY)
+    private static String orderColumn(ReservationSort sort) {
+        switch (sort != null ? sort : ReservationSort.ID) {
+            case CLIENT:
+                return "c.name";
+            case ROOM:
+                return "room.id";
+            case CHECK_IN:
+                return "r.check_in";
+            case CHECK_OUT:
+                return "r.check_out";
+            case CONFIRMED:
+                return "r.confirmed";
+            default:
+                return "r.id";
+        }
+    }
+
+    @Override
+    public void forEachStay(LocalDate from, LocalDate to, String roomType, StayConsumer consumer) {
+        boolean byType = roomType != null && !roomType.isBlank();
+        String sql = "SELECT r.check_in, r.check_out, room.price " +
+                "FROM reservation r " +
+                "JOIN room ON r.room_id = room.id " +
+                "WHERE r.check_out > ? AND r.check_in < ? " +
+                (byType ? "AND room.type = ?" : "");
+
+        try (Connection conn = DatabaseUtil.getStreamingConnection();
+             PreparedStatement ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            DatabaseUtil.enableStreaming(ps, 1000);
+            ps.setDate(1, Date.valueOf(from));
+            ps.setDate(2, Date.valueOf(to));
+            if (byType) {
+                ps.setString(3, roomType);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(
+                            rs.getDate(1).toLocalDate().toEpochDay(),
+                            rs.getDate(2).toLocalDate().toEpochDay(),
+                            rs.getDouble(3));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Erreur lors du parcours des séjours", e);
+        }
+    }
+
+    @Override
+    public void forEachBooking(LocalDate from, LocalDate to, BookingConsumer consumer) {
+        String sql = "SELECT id, room_id, check_in, check_out FROM reservation " +
+                "WHERE check_out > ? AND check_in < ?";
+
+        try (Connection conn = DatabaseUtil.getStreamingConnection();
+             PreparedStatement ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            DatabaseUtil.enableStreaming(ps, 1000);
+            ps.setDate(1, Date.valueOf(from));
+            ps.setDate(2, Date.valueOf(to));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(rs.getInt(1), rs.getInt(2),
+                            rs.getDate(3).toLocalDate().toEpochDay(),
+                            rs.getDate(4).toLocalDate().toEpochDay());
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Erreur lors du parcours des réservations", e);
+        }
+    }
+
+    @Override
+    public void delete(int id, int version) {
+        String sql = "DELETE FROM reservation WHERE id = ? AND version = ?";
+        int deleted;
+
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
             ps.setInt(1, id);
-            ps.executeUpdate();
+            ps.setInt(2, version);
+            deleted = ps.executeUpdate();
         } catch (SQLException e) {
             throw new RuntimeException("Erreur lors de la suppression de la réservation", e);
         }
+        if (deleted == 0) {
+            throw new OptimisticLockException("La réservation " + id
+                    + " a été modifiée ou supprimée entre-temps");
+        }
     }
 
     @Override
     public void update(Reservation reservation) {
         String sql = "UPDATE reservation " +
-                "SET client_id = ?, room_id = ?, check_in = ?, check_out = ?, confirmed = ? " +
-                "WHERE id = ?";
+                "SET client_id = ?, room_id = ?, check_in = ?, check_out = ?, confirmed = ?, version = version + 1 " +
+                "WHERE id = ? AND version = ?";
+        int updated;
 
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -139,44 +458,88 @@ public class ReservationDaoImpl implements ReservationDao {
             ps.setDate(4, Date.valueOf(reservation.getCheckOutDate()));
             ps.setBoolean(5, reservation.isConfirmed());
             ps.setInt(6, reservation.getId());
+            ps.setInt(7, reservation.getVersion());
 
-            ps.executeUpdate();
+            updated = ps.executeUpdate();
         } catch (SQLException e) {
             throw new RuntimeException("Erreur lors de la mise à jour de la réservation", e);
         }
+        if (updated == 0) {
+            throw new OptimisticLockException("La réservation " + reservation.getId()
+                    + " a été modifiée ou supprimée entre-temps");
+        }
+        reservation.setVersion(reservation.getVersion() + 1);
     }
 
-    // --------- utilitaire de mapping ---------
+    @Override
+    public boolean hasOverlap(int roomId, LocalDate checkIn, LocalDate checkOut) {
+        String sql = "SELECT 1 FROM reservation WHERE room_id = ? AND check_in < ? AND check_out > ? LIMIT 1";
 
-    private Reservation mapRowToReservation(ResultSet rs) throws SQLException {
-        // Client
-        Client client = new Client();
-        client.setId(rs.getInt("c_id"));
-        client.setName(rs.getString("c_name"));
-        client.setContact(rs.getString("c_contact"));
-        client.setEmail(rs.getString("c_email"));
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
 
-        // Room
-        Room room = new Room();
-        room.setId(rs.getInt("room_id"));
-        room.setNumber(rs.getString("room_number"));
-        room.setType(rs.getString("room_type"));
-        room.setPrice(rs.getDouble("room_price"));
-        room.setAvailable(rs.getBoolean("room_available"));
+            ps.setInt(1, roomId);
+            ps.setDate(2, Date.valueOf(checkOut));
+            ps.setDate(3, Date.valueOf(checkIn));
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Erreur lors du contrôle de disponibilité", e);
+        }
+    }
 
-        // Reservation
-        Reservation reservation = new Reservation();
-        reservation.setId(rs.getInt("r_id"));
-        reservation.setClient(client);
-        reservation.setRoom(room);
+    @Override
+    public SortedMap<LocalDate, Integer> getOccupancyChanges(LocalDate from) {
+        String sql = "SELECT d, SUM(n) AS n FROM (" +
+                "  SELECT check_in AS d, COUNT(*) AS n FROM reservation WHERE check_out > ? GROUP BY check_in" +
+                "  UNION ALL" +
+                "  SELECT check_out AS d, -COUNT(*) AS n FROM reservation WHERE check_out > ? GROUP BY check_out" +
+                ") changes GROUP BY d";
+        SortedMap<LocalDate, Integer> changes = new TreeMap<>();
 
-        LocalDate checkIn = rs.getDate("r_check_in").toLocalDate();
-        LocalDate checkOut = rs.getDate("r_check_out").toLocalDate();
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setDate(1, Date.valueOf(from));
+            ps.setDate(2, Date.valueOf(from));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    changes.put(rs.getDate(1).toLocalDate(), rs.getInt(2));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Erreur lors du calcul de l'occupation", e);
+        }
+        return changes;
+    }
+
+    @Override
+    public Map<String, Long> getNightsByRoomType() {
+        String sql = "SELECT ro.type, SUM(TIMESTAMPDIFF(DAY, r.check_in, r.check_out)) AS nights " +
+                "FROM reservation r JOIN room ro ON r.room_id = ro.id " +
+                "WHERE r.check_out > r.check_in " +
+                "GROUP BY ro.type";
+        Map<String, Long> nights = new HashMap<>();
 
-        reservation.setCheckInDate(checkIn);
-        reservation.setCheckOutDate(checkOut);
-        reservation.setConfirmed(rs.getBoolean("r_confirmed"));
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                nights.put(rs.getString(1), rs.getLong(2));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Erreur lors du calcul des nuitées par type de chambre", e);
+        }
+        return nights;
+    }
 
-        return reservation;
+    private static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder(count * 2);
+        for (int i = 0; i < count; i++) {
+            sb.append(i == 0 ? "?" : ",?");
+        }
+        return sb.toString();
     }
 }
@@ -0,0 +1,93 @@
+package com.hotel.db;
+
+import com.hotel.model.Client;
+import com.hotel.model.Reservation;
+import com.hotel.model.Room;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Mapping partagé d'une ligne "reservation + client + room" jointe.
+ * Les requêtes doivent sélectionner {@link #COLUMNS} et joindre les tables via {@link #JOINS}
+ * (alias {@code r}, {@code c} et {@code room}).
+ * <p>
+ * Avec carte d'identité : un client ou une chambre déjà vus dans les cartes passées à
+ * {@link #bind(Columns, Map, Map)} sont réutilisés au lieu d'être recréés.
+ */
+final class ReservationRowMapper implements RowMapper<Reservation> {
+
+    static final String COLUMNS =
+            "       r.id               AS r_id, " +
+            "       r.check_in         AS r_check_in, " +
+            "       r.check_out        AS r_check_out, " +
+            "       r.confirmed        AS r_confirmed, " +
+            "       r.version          AS r_version, " +
+            "       c.id               AS c_id, " +
+            "       c.name             AS c_name, " +
+            "       c.contact          AS c_contact, " +
+            "       c.email            AS c_email, " +
+            "       room.id            AS room_id, " +
+            "       room.room_number   AS room_number, " +
+            "       room.type          AS room_type, " +
+            "       room.price         AS room_price, " +
+            "       room.available     AS room_available, " +
+            "       room.version       AS room_version ";
+
+    static final String JOINS =
+            "JOIN client c ON r.client_id = c.id " +
+            "JOIN room     ON r.room_id   = room.id ";
+
+    private final int idIdx;
+    private final int checkInIdx;
+    private final int checkOutIdx;
+    private final int confirmedIdx;
+    private final int versionIdx;
+    private final RowMapper<Client> clients;
+    private final RowMapper<Room> rooms;
+
+    private ReservationRowMapper(Columns columns, Map<Integer, Client> clients, Map<Integer, Room> rooms)
+            throws SQLException {
+        this.idIdx = columns.indexOf("r_id");
+        this.checkInIdx = columns.indexOf("r_check_in");
+        this.checkOutIdx = columns.indexOf("r_check_out");
+        this.confirmedIdx = columns.indexOf("r_confirmed");
+        this.versionIdx = columns.indexOf("r_version");
+        this.clients = RowMappers.identity(columns, "c_id", RowMappers.JOINED_CLIENT, clients);
+        this.rooms = RowMappers.identity(columns, "room_id", RowMappers.JOINED_ROOM, rooms);
+    }
+
+    static ReservationRowMapper bind(ResultSet rs) throws SQLException {
+        return bind(Columns.of(rs), new HashMap<>(), new HashMap<>());
+    }
+
+    static ReservationRowMapper bind(ResultSet rs, Map<Integer, Client> clients, Map<Integer, Room> rooms)
+            throws SQLException {
+        return bind(Columns.of(rs), clients, rooms);
+    }
+
+    static ReservationRowMapper bind(Columns columns, Map<Integer, Client> clients, Map<Integer, Room> rooms)
+            throws SQLException {
+        return new ReservationRowMapper(columns, clients, rooms);
+    }
+
+    /** Id de la réservation de la ligne courante, sans construire l'objet. */
+    int readId(ResultSet rs) throws SQLException {
+        return rs.getInt(idIdx);
+    }
+
+    @Override
+    public Reservation mapRow(ResultSet rs) throws SQLException {
+        Reservation reservation = new Reservation();
+        reservation.setId(rs.getInt(idIdx));
+        reservation.setClient(clients.mapRow(rs));
+        reservation.setRoom(rooms.mapRow(rs));
+        reservation.setCheckInDate(rs.getDate(checkInIdx).toLocalDate());
+        reservation.setCheckOutDate(rs.getDate(checkOutIdx).toLocalDate());
+        reservation.setConfirmed(rs.getBoolean(confirmedIdx));
+        reservation.setVersion(rs.getInt(versionIdx));
+        return reservation;
+    }
+}
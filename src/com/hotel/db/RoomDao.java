@@ -2,13 +2,29 @@ package com.hotel.db;
 
 import com.hotel.model.Room;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface RoomDao {
     Room addRoom(Room room);
+    // insertion par lots ; renvoie les chambres dans l'ordre reçu, ids renseignés
+    List<Room> saveAll(Collection<Room> rooms);
+    // UPDATE conditionnel sur la version : OptimisticLockException si la ligne a changé
     void updateRoom(Room room);
+    // incrémente seulement la version (prise de "verrou" optimiste sur la chambre)
+    void incrementVersion(Room room);
     void deleteRoom(int roomId);
     List<Room> getAllRooms();
     List<Room> getAvailableRooms();
+    // chambres en service sans réservation sur aucune nuit de [checkIn, checkOut), type null = tous ;
+    // les ids de excluded (chambres que l'appelant sait occupées) sont écartés sans sonder leurs réservations
+    List<Room> findAvailable(LocalDate checkIn, LocalDate checkOut, String type, Collection<Integer> excluded);
     Room getRoomById(int id);
+    // nombre de chambres en service, type null = tous
+    int countRooms(String type);
+    // nombre total de chambres, en service ou non
+    int countAllRooms();
+    // pagination par clé : chambres d'id > afterId, type null = tous
+    List<Room> findPage(String type, int afterId, int limit);
 }
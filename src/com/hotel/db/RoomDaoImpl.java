@@ -3,21 +3,32 @@ package com.hotel.db;
 import com.hotel.model.Room;
 
 import java.sql.*;
-import java.util.ArrayList;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 
 public class RoomDaoImpl implements RoomDao {
 
+    // ids écartés d'office au plus par findAvailable
+    private static final int MAX_EXCLUDED = 500;
+
+    private static final String INSERT_SQL = "INSERT INTO room (room_number, type, price, available) VALUES (?, ?, ?, ?)";
+
+    private static final BatchInserter.Binder<Room> INSERT_BINDER = (ps, room) -> {
+        ps.setString(1, room.getNumber());
+        ps.setString(2, room.getType());
+        ps.setDouble(3, room.getPrice());
+        ps.setBoolean(4, room.isAvailable());
+    };
+
     @Override
     public Room addRoom(Room room) {
-        String sql = "INSERT INTO room (room_number, type, price, available) VALUES (?, ?, ?, ?)";
         try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement ps = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
 
-            ps.setString(1, room.getNumber());
-            ps.setString(2, room.getType());
-            ps.setDouble(3, room.getPrice());
-            ps.setBoolean(4, room.isAvailable());
+            INSERT_BINDER.bind(ps, room);
             ps.executeUpdate();
 
             try (ResultSet rs = ps.getGeneratedKeys()) {
@@ -31,9 +42,16 @@ public class RoomDaoImpl implements RoomDao {
         }
     }
 
+    @Override
+    public List<Room> saveAll(Collection<Room> rooms) {
+        return BatchInserter.insertAll(INSERT_SQL, rooms, INSERT_BINDER, Room::setId);
+    }
+
     @Override
     public void updateRoom(Room room) {
-        String sql = "UPDATE room SET room_number = ?, type = ?, price = ?, available = ? WHERE id = ?";
+        String sql = "UPDATE room SET room_number = ?, type = ?, price = ?, available = ?, version = version + 1 " +
+                "WHERE id = ? AND version = ?";
+        int updated;
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
@@ -42,10 +60,35 @@ public class RoomDaoImpl implements RoomDao {
             ps.setDouble(3, room.getPrice());
             ps.setBoolean(4, room.isAvailable());
             ps.setInt(5, room.getId());
-            ps.executeUpdate();
+            ps.setInt(6, room.getVersion());
+            updated = ps.executeUpdate();
         } catch (SQLException e) {
             throw new RuntimeException("Erreur lors de la mise à jour de la chambre", e);
         }
+        if (updated == 0) {
+            throw new OptimisticLockException("La chambre " + room.getId()
+                    + " a été modifiée ou supprimée entre-temps, rechargez-la");
+        }
+        room.setVersion(room.getVersion() + 1);
+    }
+
+    @Override
+    public void incrementVersion(Room room) {
+        String sql = "UPDATE room SET version = version + 1 WHERE id = ? AND version = ?";
+        int updated;
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, room.getId());
+            ps.setInt(2, room.getVersion());
+            updated = ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new RuntimeException("Erreur lors du verrouillage de la chambre", e);
+        }
+        if (updated == 0) {
+            throw new OptimisticLockException("Version périmée pour la chambre " + room.getId());
+        }
+        room.setVersion(room.getVersion() + 1);
     }
 
     @Override
@@ -63,22 +106,14 @@ public class RoomDaoImpl implements RoomDao {
 
     @Override
     public List<Room> getAllRooms() {
-        String sql = "SELECT id, room_number, type, price, available FROM room";
-        List<Room> rooms = new ArrayList<>();
+        String sql = "SELECT id, room_number, type, price, available, version FROM room";
+        List<Room> rooms;
 
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
-            while (rs.next()) {
-                Room room = new Room();
-                room.setId(rs.getInt("id"));
-                room.setNumber(rs.getString("room_number"));
-                room.setType(rs.getString("type"));
-                room.setPrice(rs.getDouble("price"));
-                room.setAvailable(rs.getBoolean("available"));
-                rooms.add(room);
-            }
+            rooms = RowMappers.list(rs, RowMappers.ROOM);
         } catch (SQLException e) {
             throw new RuntimeException("Erreur lors de la récupération des chambres", e);
         }
@@ -87,49 +122,121 @@ public class RoomDaoImpl implements RoomDao {
 
     @Override
     public List<Room> getAvailableRooms() {
-        String sql = "SELECT id, room_number, type, price, available FROM room WHERE available = true";
-        List<Room> rooms = new ArrayList<>();
+        String sql = "SELECT id, room_number, type, price, available, version FROM room WHERE available = true";
+        List<Room> rooms;
 
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
-            while (rs.next()) {
-                Room room = new Room();
-                room.setId(rs.getInt("id"));
-                room.setNumber(rs.getString("room_number"));
-                room.setType(rs.getString("type"));
-                room.setPrice(rs.getDouble("price"));
-                room.setAvailable(rs.getBoolean("available"));
-                rooms.add(room);
-            }
+            rooms = RowMappers.list(rs, RowMappers.ROOM);
         } catch (SQLException e) {
             throw new RuntimeException("Erreur lors de la récupération des chambres disponibles", e);
         }
         return rooms;
     }
 
+    @Override
+    public List<Room> findAvailable(LocalDate checkIn, LocalDate checkOut, String type, Collection<Integer> excluded) {
+        boolean byType = type != null && !type.isBlank();
+        // liste bornée : les chambres occupées au-delà sont écartées par le NOT EXISTS
+        List<Integer> skipped = excluded.stream().limit(MAX_EXCLUDED).collect(Collectors.toList());
+        String sql = "SELECT id, room_number, type, price, available, version FROM room " +
+                "WHERE available = true" + (byType ? " AND type = ?" : "") +
+                (skipped.isEmpty() ? "" : " AND id NOT IN (" + String.join(",", Collections.nCopies(skipped.size(), "?")) + ")") +
+                " AND NOT EXISTS (SELECT 1 FROM reservation r" +
+                "                 WHERE r.room_id = room.id AND r.check_in < ? AND r.check_out > ?) " +
+                "ORDER BY id";
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            int i = 1;
+            if (byType) {
+                ps.setString(i++, type);
+            }
+            for (int id : skipped) {
+                ps.setInt(i++, id);
+            }
+            ps.setDate(i++, Date.valueOf(checkOut));
+            ps.setDate(i, Date.valueOf(checkIn));
+            try (ResultSet rs = ps.executeQuery()) {
+                return RowMappers.list(rs, RowMappers.ROOM);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Erreur lors de la recherche des chambres disponibles", e);
+        }
+    }
+
+    @Override
+    public List<Room> findPage(String type, int afterId, int limit) {
+        boolean byType = type != null && !type.isBlank();
+        String sql = "SELECT id, room_number, type, price, available, version FROM room WHERE id > ? " +
+                (byType ? "AND type = ? " : "") +
+                "ORDER BY id LIMIT ?";
+        List<Room> rooms;
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            int i = 1;
+            ps.setInt(i++, afterId);
+            if (byType) {
+                ps.setString(i++, type);
+            }
+            ps.setInt(i, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                rooms = RowMappers.list(rs, RowMappers.ROOM);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Erreur lors de la recherche paginée des chambres", e);
+        }
+        return rooms;
+    }
+
+    @Override
+    public int countRooms(String type) {
+        boolean byType = type != null && !type.isBlank();
+        String sql = "SELECT COUNT(*) FROM room WHERE available = true" + (byType ? " AND type = ?" : "");
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            if (byType) {
+                ps.setString(1, type);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Erreur lors du comptage des chambres", e);
+        }
+    }
+
+    @Override
+    public int countAllRooms() {
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT COUNT(*) FROM room");
+             ResultSet rs = ps.executeQuery()) {
+
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            throw new RuntimeException("Erreur lors du comptage des chambres", e);
+        }
+    }
+
     @Override
     public Room getRoomById(int id) {
-        String sql = "SELECT id, room_number, type, price, available FROM room WHERE id = ?";
+        String sql = "SELECT id, room_number, type, price, available, version FROM room WHERE id = ?";
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
             ps.setInt(1, id);
             try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    Room room = new Room();
-                    room.setId(rs.getInt("id"));
-                    room.setNumber(rs.getString("room_number"));
-                    room.setType(rs.getString("type"));
-                    room.setPrice(rs.getDouble("price"));
-                    room.setAvailable(rs.getBoolean("available"));
-                    return room;
-                }
+                return RowMappers.first(rs, RowMappers.ROOM);
             }
         } catch (SQLException e) {
             throw new RuntimeException("Erreur lors de la récupération de la chambre", e);
         }
-        return null;
     }
 }
@@ -0,0 +1,14 @@
+package com.hotel.db;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Construit un objet à partir de la ligne courante d'un {@link ResultSet}.
+ * Obtenu par {@link RowMapping#bind}, il n'est valable que pour ce résultat.
+ */
+@FunctionalInterface
+interface RowMapper<T> {
+
+    T mapRow(ResultSet rs) throws SQLException;
+}
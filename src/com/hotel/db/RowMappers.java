@@ -0,0 +1,103 @@
+package com.hotel.db;
+
+import com.hotel.model.Client;
+import com.hotel.model.Room;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mappings partagés des tables {@code room} et {@code client}, sous leurs noms de colonnes
+ * (requêtes sur la table seule) ou sous les alias des jointures de {@link ReservationRowMapper}
+ * et de {@code UserDaoImpl}, et utilitaires de lecture d'un résultat complet.
+ */
+final class RowMappers {
+
+    static final RowMapping<Room> ROOM = room("id", "room_number", "type", "price", "available", "version");
+    static final RowMapping<Room> JOINED_ROOM =
+            room("room_id", "room_number", "room_type", "room_price", "room_available", "room_version");
+
+    static final RowMapping<Client> CLIENT = client("id", "name", "contact", "email");
+    static final RowMapping<Client> JOINED_CLIENT = client("c_id", "c_name", "c_contact", "c_email");
+
+    private RowMappers() {
+    }
+
+    static RowMapping<Room> room(String id, String number, String type, String price, String available,
+                                 String version) {
+        return columns -> {
+            int idIdx = columns.indexOf(id);
+            int numberIdx = columns.indexOf(number);
+            int typeIdx = columns.indexOf(type);
+            int priceIdx = columns.indexOf(price);
+            int availableIdx = columns.indexOf(available);
+            int versionIdx = columns.indexOf(version);
+            return rs -> {
+                Room room = new Room();
+                room.setId(rs.getInt(idIdx));
+                room.setNumber(rs.getString(numberIdx));
+                room.setType(rs.getString(typeIdx));
+                room.setPrice(rs.getDouble(priceIdx));
+                room.setAvailable(rs.getBoolean(availableIdx));
+                room.setVersion(rs.getInt(versionIdx));
+                return room;
+            };
+        };
+    }
+
+    static RowMapping<Client> client(String id, String name, String contact, String email) {
+        return columns -> {
+            int idIdx = columns.indexOf(id);
+            int nameIdx = columns.indexOf(name);
+            int contactIdx = columns.indexOf(contact);
+            int emailIdx = columns.indexOf(email);
+            return rs -> new Client(
+                    rs.getInt(idIdx),
+                    rs.getString(nameIdx),
+                    rs.getString(contactIdx),
+                    rs.getString(emailIdx));
+        };
+    }
+
+    /**
+     * Carte d'identité : l'objet d'id déjà vu dans {@code seen} est réutilisé au lieu d'être
+     * recréé. Un id {@code NULL} (jointure externe sans correspondance) donne {@code null}.
+     */
+    static <T> RowMapper<T> identity(Columns columns, String idLabel, RowMapping<T> mapping,
+                                     Map<Integer, T> seen) throws SQLException {
+        int idIdx = columns.indexOf(idLabel);
+        RowMapper<T> mapper = mapping.bind(columns);
+        return rs -> {
+            int id = rs.getInt(idIdx);
+            if (rs.wasNull()) {
+                return null;
+            }
+            T value = seen.get(id);
+            if (value == null) {
+                value = mapper.mapRow(rs);
+                seen.put(id, value);
+            }
+            return value;
+        };
+    }
+
+    /** Lit toutes les lignes restantes de {@code rs}. */
+    static <T> List<T> list(ResultSet rs, RowMapping<T> mapping) throws SQLException {
+        List<T> result = new ArrayList<>();
+        if (rs.next()) {
+            RowMapper<T> mapper = mapping.bind(rs);
+            do {
+                result.add(mapper.mapRow(rs));
+            } while (rs.next());
+        }
+        return result;
+    }
+
+    /** Première ligne de {@code rs}, ou {@code null} si le résultat est vide. */
+    static <T> T first(ResultSet rs, RowMapping<T> mapping) throws SQLException {
+        return rs.next() ? mapping.bind(rs).mapRow(rs) : null;
+    }
+}
@@ -0,0 +1,18 @@
+package com.hotel.db;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Description réutilisable d'un mapping : à chaque nouveau {@link ResultSet}, {@link #bind}
+ * résout les libellés de colonnes en index et renvoie le {@link RowMapper} qui lit par position.
+ */
+@FunctionalInterface
+interface RowMapping<T> {
+
+    RowMapper<T> bind(Columns columns) throws SQLException;
+
+    default RowMapper<T> bind(ResultSet rs) throws SQLException {
+        return bind(Columns.of(rs));
+    }
+}
@@ -0,0 +1,166 @@
+package com.hotel.db;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Mises à jour idempotentes du schéma, appliquées au démarrage.
+ * <p>
+ * Chaque étape vérifie d'abord l'état du schéma via {@link DatabaseMetaData} et ne
+ * fait rien s'il est déjà conforme : on peut la rejouer sans risque sur une base existante.
+ */
+public final class SchemaUpdater {
+
+    private static final Logger LOG = Logger.getLogger(SchemaUpdater.class.getName());
+
+    private SchemaUpdater() {
+    }
+
+    /**
+     * Applique toutes les étapes, chacune dans sa propre connexion. Les colonnes, index
+     * uniques et tables passent en premier : le code en dépend (verrouillage optimiste,
+     * paiements idempotents, facture unique, journal des modifications), et leur échec
+     * interrompt la mise à jour. Les autres index ne servent qu'aux performances : un index
+     * impossible à créer est signalé et les étapes suivantes sont quand même appliquées.
+     *
+     * @throws RuntimeException si une étape requise a échoué
+     */
+    public static void update() {
+        // verrouillage optimiste : numéro de version incrémenté à chaque mise à jour
+        required("room.version", conn -> ensureColumn(conn, "room", "version", "INT NOT NULL DEFAULT 0"));
+        required("reservation.version", conn -> ensureColumn(conn, "reservation", "version", "INT NOT NULL DEFAULT 0"));
+        // paiements idempotents : une clé ne peut être enregistrée qu'une fois (NULL autorisé)
+        required("payment.idempotency_key", conn -> ensureColumn(conn, "payment", "idempotency_key", "VARCHAR(64) NULL"));
+        required("uq_payment_idempotency_key",
+                conn -> ensureUniqueIndex(conn, "payment", "uq_payment_idempotency_key", "idempotency_key"));
+        // une facture par réservation, même générée par deux serveurs à la fois
+        required("uq_invoice_reservation", SchemaUpdater::ensureOneInvoicePerReservation);
+        // journal des écritures, lu par les get*Changes de tous les serveurs et postes
+        required("change_log", conn -> ensureTable(conn, "change_log",
+                "seq BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                        "topic VARCHAR(16) NOT NULL, " +
+                        "entity_id INT NOT NULL, " +
+                        "deleted BOOLEAN NOT NULL, " +
+                        "changed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP"));
+
+        // historique client : recherche par client puis jointures vers paiements et factures
+        optional("idx_reservation_client", conn -> ensureIndex(conn, "reservation", "idx_reservation_client", "client_id"));
+        optional("idx_payment_reservation", conn -> ensureIndex(conn, "payment", "idx_payment_reservation", "reservation_id"));
+    }
+
+    @FunctionalInterface
+    interface Step {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    private static void required(String name, Step step) {
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            step.apply(conn);
+        } catch (SQLException e) {
+            throw new RuntimeException("Erreur lors de la mise à jour du schéma (" + name + ")", e);
+        }
+    }
+
+    private static void optional(String name, Step step) {
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            step.apply(conn);
+        } catch (SQLException e) {
+            LOG.log(Level.WARNING, "Mise à jour du schéma ignorée (" + name + ")", e);
+        }
+    }
+
+    /**
+     * Crée l'index si aucun index existant ne commence déjà par {@code column}
+     * (MySQL en crée un, par exemple, pour chaque clé étrangère).
+     */
+    static void ensureIndex(Connection conn, String table, String indexName, String column) throws SQLException {
+        if (hasIndexOn(conn.getMetaData(), conn.getCatalog(), table, column, false)) {
+            return;
+        }
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("CREATE INDEX " + indexName + " ON " + table + " (" + column + ")");
+        }
+    }
+
+    /** Crée un index unique sur {@code column} s'il n'en existe pas déjà un qui commence par elle. */
+    static void ensureUniqueIndex(Connection conn, String table, String indexName, String column) throws SQLException {
+        if (hasIndexOn(conn.getMetaData(), conn.getCatalog(), table, column, true)) {
+            return;
+        }
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("CREATE UNIQUE INDEX " + indexName + " ON " + table + " (" + column + ")");
+        }
+    }
+
+    /**
+     * Rend {@code invoice.reservation_id} unique. Les doublons laissés par l'ancienne
+     * facturation ne sont jamais supprimés ici : s'il en reste, l'étape échoue en listant les
+     * réservations concernées, à régulariser à la main avant de relancer le serveur. L'index
+     * sert aussi aux recherches par réservation : l'ancien index simple
+     * idx_invoice_reservation n'est plus créé.
+     */
+    static void ensureOneInvoicePerReservation(Connection conn) throws SQLException {
+        if (hasIndexOn(conn.getMetaData(), conn.getCatalog(), "invoice", "reservation_id", true)) {
+            return;
+        }
+        List<Integer> duplicated = new ArrayList<>();
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT reservation_id FROM invoice " +
+                     "GROUP BY reservation_id HAVING COUNT(*) > 1 ORDER BY reservation_id")) {
+            while (rs.next()) {
+                duplicated.add(rs.getInt(1));
+            }
+        }
+        if (!duplicated.isEmpty()) {
+            throw new SQLException(duplicated.size() + " réservation(s) avec plusieurs factures, "
+                    + "à régulariser avant la création de uq_invoice_reservation : " + duplicated);
+        }
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("CREATE UNIQUE INDEX uq_invoice_reservation ON invoice (reservation_id)");
+        }
+    }
+
+    /** Crée la table si elle n'existe pas encore. */
+    static void ensureTable(Connection conn, String table, String columns) throws SQLException {
+        try (ResultSet rs = conn.getMetaData().getTables(conn.getCatalog(), null, table, null)) {
+            if (rs.next()) {
+                return;
+            }
+        }
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("CREATE TABLE " + table + " (" + columns + ")");
+        }
+    }
+
+    /** Ajoute la colonne si la table ne l'a pas encore. */
+    static void ensureColumn(Connection conn, String table, String column, String definition) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        try (ResultSet rs = meta.getColumns(conn.getCatalog(), null, table, column)) {
+            if (rs.next()) {
+                return;
+            }
+        }
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+        }
+    }
+
+    private static boolean hasIndexOn(DatabaseMetaData meta, String catalog, String table, String column,
+                                      boolean unique) throws SQLException {
+        try (ResultSet rs = meta.getIndexInfo(catalog, null, table, unique, true)) {
+            while (rs.next()) {
+                if (rs.getShort("ORDINAL_POSITION") == 1 && column.equalsIgnoreCase(rs.getString("COLUMN_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,10 @@
+package com.hotel.db;
+
+/**
+ * Reçoit les séjours lus en flux par {@link ReservationDao#forEachStay}, sans
+ * matérialiser de {@code Reservation}. Les dates sont des jours epoch.
+ */
+@FunctionalInterface
+public interface StayConsumer {
+    void accept(long checkInDay, long checkOutDay, double nightlyRate);
+}
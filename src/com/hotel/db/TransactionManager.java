@@ -0,0 +1,160 @@
+package com.hotel.db;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Unité de travail JDBC liée au thread courant.
+ * <p>
+ * Pendant {@link #inTransaction}, une seule connexion du pool est liée au thread :
+ * {@link DatabaseUtil#getConnection()} la renvoie aux DAO, enveloppée pour que leur
+ * {@code try-with-resources} ne la rende pas au pool. Toutes les requêtes de l'unité
+ * partagent donc une connexion et un seul {@code COMMIT} final ; une exception annule
+ * tout. À l'intérieur, {@code commit}, {@code rollback}, {@code setAutoCommit} et
+ * {@code setReadOnly} des DAO sont ignorés : ils participent à la transaction englobante.
+ * <p>
+ * Un {@code inTransaction} imbriqué rejoint la transaction en cours.
+ */
+public final class TransactionManager {
+
+    private static final ThreadLocal<Unit> CURRENT = new ThreadLocal<>();
+
+    private TransactionManager() {
+    }
+
+    /** Exécute {@code work} dans une transaction : commit si elle se termine normalement, rollback sinon. */
+    public static <T> T inTransaction(Supplier<T> work) {
+        if (CURRENT.get() != null) {
+            return work.get();
+        }
+
+        Unit unit;
+        try {
+            unit = new Unit(DatabaseUtil.getConnection());
+        } catch (SQLException e) {
+            throw new RuntimeException("Erreur lors de l'ouverture de la transaction", e);
+        }
+        try {
+            unit.physical.setAutoCommit(false);
+        } catch (SQLException e) {
+            unit.close(false);
+            throw new RuntimeException("Erreur lors de l'ouverture de la transaction", e);
+        }
+
+        CURRENT.set(unit);
+        boolean committed = false;
+        try {
+            T result = work.get();
+            unit.physical.commit();
+            committed = true;
+            return result;
+        } catch (SQLException e) {
+            throw new RuntimeException("Erreur lors de la validation de la transaction", e);
+        } finally {
+            CURRENT.remove();
+            if (!committed) {
+                rollbackQuietly(unit);
+            }
+            unit.close(committed);
+        }
+    }
+
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * Action compensatoire (état en mémoire...) exécutée si la transaction en cours est annulée.
+     *
+     * @throws IllegalStateException hors transaction
+     */
+    public static void onRollback(Runnable action) {
+        Unit unit = CURRENT.get();
+        if (unit == null) {
+            throw new IllegalStateException("Aucune transaction en cours");
+        }
+        unit.onRollback.add(action);
+    }
+
+    /**
+     * Action exécutée une fois la transaction terminée (validée ou annulée), par exemple
+     * une invalidation de cache ; hors transaction, elle est exécutée immédiatement.
+     */
+    public static void afterCompletion(Runnable action) {
+        Unit unit = CURRENT.get();
+        if (unit == null) {
+            action.run();
+        } else {
+            unit.afterCompletion.add(action);
+        }
+    }
+
+    /** Connexion de la transaction du thread courant, ou {@code null} s'il n'y en a pas. */
+    static Connection currentConnection() {
+        Unit unit = CURRENT.get();
+        return unit != null ? unit.participant : null;
+    }
+
+    private static void rollbackQuietly(Unit unit) {
+        try {
+            unit.physical.rollback();
+        } catch (SQLException ignored) {
+            // la connexion est de toute façon remise à zéro par le pool
+        }
+    }
+
+    private static final class Unit {
+        final Connection physical;
+        final Connection participant;
+        final List<Runnable> onRollback = new ArrayList<>();
+        final List<Runnable> afterCompletion = new ArrayList<>();
+
+        Unit(Connection physical) {
+            this.physical = physical;
+            this.participant = (Connection) Proxy.newProxyInstance(
+                    TransactionManager.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "close":
+                            case "commit":
+                            case "rollback":
+                            case "setAutoCommit":
+                            case "setReadOnly":
+                                return null;
+                            case "equals":
+                                return proxy == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            default:
+                                try {
+                                    return method.invoke(physical, args);
+                                } catch (InvocationTargetException e) {
+                                    throw e.getCause();
+                                }
+                        }
+                    });
+        }
+
+        void close(boolean committed) {
+            try {
+                // transaction terminée : le pool n'a plus de rollback à faire au retour
+                physical.setAutoCommit(true);
+            } catch (SQLException ignored) {
+            }
+            try {
+                physical.close();
+            } catch (SQLException ignored) {
+            }
+            if (!committed) {
+                onRollback.forEach(Runnable::run);
+            }
+            afterCompletion.forEach(Runnable::run);
+        }
+    }
+}
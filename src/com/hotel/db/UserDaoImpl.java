@@ -5,21 +5,31 @@ import com.hotel.model.User;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class UserDaoImpl implements UserDao {
 
-    private final ClientDao clientDao = new ClientDaoImpl();
+    // l'éventuel client du user est chargé dans la même requête (LEFT JOIN)
+    private static final String SELECT_WITH_CLIENT =
+            "SELECT u.id, u.username, u.password, u.role, " +
+                    "       c.id      AS c_id, " +
+                    "       c.name    AS c_name, " +
+                    "       c.contact AS c_contact, " +
+                    "       c.email   AS c_email " +
+                    "FROM user u " +
+                    "LEFT JOIN client c ON u.client_id = c.id ";
 
     @Override
     public User findById(int id) {
-        String sql = "SELECT * FROM user WHERE id = ?";
+        String sql = SELECT_WITH_CLIENT + "WHERE u.id = ?";
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
             ps.setInt(1, id);
             try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) return mapRowToUser(rs);
+                if (rs.next()) return userMapper(rs, new HashMap<>()).mapRow(rs);
             }
             return null;
 
@@ -30,13 +40,13 @@ public class UserDaoImpl implements UserDao {
 
     @Override
     public User findByUsername(String username) {
-        String sql = "SELECT * FROM user WHERE username = ?";
+        String sql = SELECT_WITH_CLIENT + "WHERE u.username = ?";
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
             ps.setString(1, username);
             try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) return mapRowToUser(rs);
+                if (rs.next()) return userMapper(rs, new HashMap<>()).mapRow(rs);
             }
             return null;
 
@@ -47,7 +57,7 @@ public class UserDaoImpl implements UserDao {
 
     @Override
     public User findByUsernameAndPassword(String username, String password) {
-        String sql = "SELECT * FROM user WHERE username = ? AND password = ?";
+        String sql = SELECT_WITH_CLIENT + "WHERE u.username = ? AND u.password = ?";
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
@@ -55,7 +65,7 @@ public class UserDaoImpl implements UserDao {
             ps.setString(2, password);
 
             try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) return mapRowToUser(rs);
+                if (rs.next()) return userMapper(rs, new HashMap<>()).mapRow(rs);
             }
             return null;
 
@@ -67,13 +77,15 @@ public class UserDaoImpl implements UserDao {
     @Override
     public List<User> findAll() {
         List<User> list = new ArrayList<>();
-        String sql = "SELECT * FROM user";
+        // plusieurs users peuvent pointer vers le même client : une seule instance par client
+        Map<Integer, Client> clients = new HashMap<>();
         try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
+             PreparedStatement ps = conn.prepareStatement(SELECT_WITH_CLIENT);
              ResultSet rs = ps.executeQuery()) {
 
+            RowMapper<User> mapper = userMapper(rs, clients);
             while (rs.next()) {
-                list.add(mapRowToUser(rs));
+                list.add(mapper.mapRow(rs));
             }
             return list;
 
@@ -153,30 +165,27 @@ public class UserDaoImpl implements UserDao {
     // --------------------------
     // Mapping SQL -> User
     // --------------------------
-    private User mapRowToUser(ResultSet rs) throws SQLException {
-
-        int id = rs.getInt("id");
-        String username = rs.getString("username");
-        String password = rs.getString("password");
-        User.Role role = User.Role.valueOf(rs.getString("role"));
-
-        int clientId = rs.getInt("client_id");
-        Client client = null;
-
-        // si le user est un client, on charge l'objet Client
-        if (!rs.wasNull() && clientId > 0) {
-
-            for (Client c : clientDao.findAll()) {
-                if (c.getId() == clientId) {
-                    client = c;
-                    break;
-                }
+    private static RowMapper<User> userMapper(ResultSet rs, Map<Integer, Client> clients) throws SQLException {
+        Columns columns = Columns.of(rs);
+        int idIdx = columns.indexOf("id");
+        int usernameIdx = columns.indexOf("username");
+        int passwordIdx = columns.indexOf("password");
+        int roleIdx = columns.indexOf("role");
+        // si le user est un client, les colonnes c_* viennent du LEFT JOIN
+        // (c_id est NULL pour un employé ou si le client n'existe plus : client null)
+        RowMapper<Client> clientMapper = RowMappers.identity(columns, "c_id", RowMappers.JOINED_CLIENT, clients);
+
+        return row -> {
+            int id = row.getInt(idIdx);
+            String username = row.getString(usernameIdx);
+            String password = row.getString(passwordIdx);
+            User.Role role = User.Role.valueOf(row.getString(roleIdx));
+
+            Client client = clientMapper.mapRow(row);
+            if (client != null) {
+                return new User(id, username, password, role, client);
             }
-        }
-
-        if (client != null) {
-            return new User(id, username, password, role, client);
-        }
-        return new User(id, username, password, role);
+            return new User(id, username, password, role);
+        };
     }
 }
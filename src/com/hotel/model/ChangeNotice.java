@@ -0,0 +1,40 @@
+package com.hotel.model;
+
+import java.io.Serializable;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Avis de modification envoyé aux abonnés : tables modifiées et dernière séquence de
+ * chacune. Il ne transporte pas les lignes ; l'abonné les lit ensuite via les méthodes
+ * {@code get*Changes}. Plusieurs avis en attente pour un même abonné sont fusionnés.
+ */
+public class ChangeNotice implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final EnumMap<ChangeTopic, Long> sequences;
+
+    public ChangeNotice(Map<ChangeTopic, Long> sequences) {
+        this.sequences = new EnumMap<>(ChangeTopic.class);
+        this.sequences.putAll(sequences);
+    }
+
+    public Set<ChangeTopic> getTopics() {
+        return sequences.keySet();
+    }
+
+    public boolean contains(ChangeTopic topic) {
+        return sequences.containsKey(topic);
+    }
+
+    public long getSequence(ChangeTopic topic) {
+        Long sequence = sequences.get(topic);
+        return sequence != null ? sequence : 0L;
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeNotice" + sequences;
+    }
+}
@@ -0,0 +1,50 @@
+package com.hotel.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Modifications d'une table depuis un numéro de séquence donné.
+ * <p>
+ * {@link #getSequence()} est le numéro à repasser à l'appel suivant. Si
+ * {@link #isFullReloadRequired()} est vrai, le journal ne remonte pas assez loin : la
+ * liste doit être rechargée entièrement, et les listes de modifications sont vides.
+ * Appliquer deux fois la même modification est sans effet.
+ */
+public class ChangeSet<T extends Serializable> implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final long sequence;
+    private final boolean fullReloadRequired;
+    private final List<T> upserted;
+    private final List<Integer> deletedIds;
+
+    public ChangeSet(long sequence, boolean fullReloadRequired, List<T> upserted, List<Integer> deletedIds) {
+        this.sequence = sequence;
+        this.fullReloadRequired = fullReloadRequired;
+        this.upserted = new ArrayList<>(upserted);
+        this.deletedIds = new ArrayList<>(deletedIds);
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public boolean isFullReloadRequired() {
+        return fullReloadRequired;
+    }
+
+    /** Lignes créées ou modifiées, dans leur dernier état connu. */
+    public List<T> getUpserted() {
+        return upserted;
+    }
+
+    public List<Integer> getDeletedIds() {
+        return deletedIds;
+    }
+
+    public boolean isEmpty() {
+        return !fullReloadRequired && upserted.isEmpty() && deletedIds.isEmpty();
+    }
+}
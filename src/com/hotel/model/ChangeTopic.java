@@ -0,0 +1,9 @@
+package com.hotel.model;
+
+/** Tables dont les modifications sont journalisées et notifiées aux postes connectés. */
+public enum ChangeTopic {
+    ROOMS,
+    CLIENTS,
+    RESERVATIONS,
+    PAYMENTS
+}
@@ -1,10 +1,13 @@
 package com.hotel.model;
 
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 
 
-public class Client implements Serializable {
-    private static final long serialVersionUID = 1L;
+public class Client implements Externalizable {
+    private static final long serialVersionUID = 2L;
 
     private int id;
     private String name;
@@ -56,6 +59,24 @@ public class Client implements Serializable {
 
 
 
+    // ---------- encodage compact RMI ----------
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeInt(id);
+        WireFormat.writeString(out, name);
+        WireFormat.writeString(out, contact);
+        WireFormat.writeString(out, email);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        id = in.readInt();
+        name = WireFormat.readString(in);
+        contact = WireFormat.readString(in);
+        email = WireFormat.readString(in);
+    }
+
     @Override
     public String toString() {
         if (email != null && !email.isEmpty()) {
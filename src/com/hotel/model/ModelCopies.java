@@ -0,0 +1,57 @@
+package com.hotel.model;
+
+/**
+ * Copies profondes des objets du modèle, pour ceux qui les gardent au-delà de l'appel
+ * (caches des DAO, journaux de modifications) : l'appelant peut ensuite modifier
+ * l'original, ou la copie qu'on lui rend, sans effet sur l'état conservé.
+ * {@code null} donne {@code null}.
+ */
+public final class ModelCopies {
+
+    private ModelCopies() {
+    }
+
+    public static Room copy(Room room) {
+        if (room == null) {
+            return null;
+        }
+        Room copy = new Room(room.getId(), room.getNumber(), room.getType(), room.getPrice(), room.isAvailable());
+        copy.setVersion(room.getVersion());
+        return copy;
+    }
+
+    public static Client copy(Client client) {
+        if (client == null) {
+            return null;
+        }
+        return new Client(client.getId(), client.getName(), client.getContact(), client.getEmail());
+    }
+
+    public static Reservation copy(Reservation reservation) {
+        if (reservation == null) {
+            return null;
+        }
+        Reservation copy = new Reservation(reservation.getId(), copy(reservation.getClient()), copy(reservation.getRoom()),
+                reservation.getCheckInDate(), reservation.getCheckOutDate());
+        copy.setConfirmed(reservation.isConfirmed());
+        copy.setVersion(reservation.getVersion());
+        return copy;
+    }
+
+    public static Payment copy(Payment payment) {
+        if (payment == null) {
+            return null;
+        }
+        Payment copy = new Payment(payment.getId(), copy(payment.getClient()), copy(payment.getReservation()),
+                payment.getAmount(), payment.getDate(), payment.isPaid());
+        copy.setIdempotencyKey(payment.getIdempotencyKey());
+        return copy;
+    }
+
+    public static Invoice copy(Invoice invoice) {
+        if (invoice == null) {
+            return null;
+        }
+        return new Invoice(invoice.getId(), copy(invoice.getReservation()), invoice.getDate(), invoice.getTotalAmount());
+    }
+}
@@ -1,11 +1,14 @@
 package com.hotel.model;
 
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.time.LocalDate;
 
 
-public class Payment implements Serializable {
-    private static final long serialVersionUID = 1L;
+public class Payment implements Externalizable {
+    private static final long serialVersionUID = 3L;
 
     private int id;
     private Client client;
@@ -13,6 +16,7 @@ public class Payment implements Serializable {
     private double amount;
     private LocalDate date;
     private boolean paid;
+    private String idempotencyKey; // clé fournie par l'appelant, null si aucune
 
     public Payment(int id, Client client, Reservation reservation, double amount, LocalDate date, boolean paid) {
         this.id = id;
@@ -75,6 +79,38 @@ public class Payment implements Serializable {
         this.paid = paid;
     }
 
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    // ---------- encodage compact RMI ----------
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeInt(id);
+        out.writeObject(client);
+        out.writeObject(reservation);
+        out.writeDouble(amount);
+        WireFormat.writeDate(out, date);
+        out.writeBoolean(paid);
+        WireFormat.writeString(out, idempotencyKey);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        id = in.readInt();
+        client = (Client) in.readObject();
+        reservation = (Reservation) in.readObject();
+        amount = in.readDouble();
+        date = WireFormat.readDate(in);
+        paid = in.readBoolean();
+        idempotencyKey = WireFormat.readString(in);
+    }
+
     @Override
     public String toString() {
         return "Payment{" +
@@ -0,0 +1,11 @@
+package com.hotel.model;
+
+/** Clés de tri des listes de paiements paginées, dans l'ordre des colonnes affichées. */
+public enum PaymentSort {
+    ID,
+    CLIENT,
+    RESERVATION,
+    AMOUNT,
+    DATE,
+    PAID
+}
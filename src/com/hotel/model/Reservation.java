@@ -1,11 +1,14 @@
 package com.hotel.model;
 
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.time.LocalDate;
 
 
-public class Reservation implements Serializable {
-    private static final long serialVersionUID = 1L;
+public class Reservation implements Externalizable {
+    private static final long serialVersionUID = 3L;
 
     private int id;
     private Client client;
@@ -13,6 +16,7 @@ public class Reservation implements Serializable {
     private LocalDate checkInDate;
     private LocalDate checkOutDate;
     private boolean confirmed;
+    private int version; // verrouillage optimiste, incrémenté par chaque UPDATE
 
     public Reservation(int id, Client client, Room room, LocalDate checkInDate, LocalDate checkOutDate) {
         this.id = id;
@@ -75,6 +79,40 @@ public class Reservation implements Serializable {
         this.confirmed = confirmed;
     }
 
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+
+    // ---------- encodage compact RMI ----------
+    // client et chambre passent par writeObject : une instance partagée par plusieurs
+    // réservations n'est envoyée qu'une fois, puis sous forme de référence arrière
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeInt(id);
+        out.writeObject(client);
+        out.writeObject(room);
+        WireFormat.writeDate(out, checkInDate);
+        WireFormat.writeDate(out, checkOutDate);
+        out.writeBoolean(confirmed);
+        out.writeInt(version);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        id = in.readInt();
+        client = (Client) in.readObject();
+        room = (Room) in.readObject();
+        checkInDate = WireFormat.readDate(in);
+        checkOutDate = WireFormat.readDate(in);
+        confirmed = in.readBoolean();
+        version = in.readInt();
+    }
 
     @Override
     public String toString() {
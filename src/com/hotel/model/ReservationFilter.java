@@ -0,0 +1,78 @@
+package com.hotel.model;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Critères de recherche des réservations, appliqués côté serveur.
+ * Un critère {@code null} n'est pas filtré.
+ */
+public class ReservationFilter implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private Integer clientId;
+    private LocalDate from;      // séjours qui chevauchent [from, to)
+    private LocalDate to;
+    private String roomType;
+    private Boolean confirmed;
+
+    public ReservationFilter() {
+    }
+
+    public static ReservationFilter forClient(int clientId) {
+        ReservationFilter filter = new ReservationFilter();
+        filter.setClientId(clientId);
+        return filter;
+    }
+
+    public Integer getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(Integer clientId) {
+        this.clientId = clientId;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public String getRoomType() {
+        return roomType;
+    }
+
+    public void setRoomType(String roomType) {
+        this.roomType = roomType;
+    }
+
+    public Boolean getConfirmed() {
+        return confirmed;
+    }
+
+    public void setConfirmed(Boolean confirmed) {
+        this.confirmed = confirmed;
+    }
+
+    @Override
+    public String toString() {
+        return "ReservationFilter{" +
+                "clientId=" + clientId +
+                ", from=" + from +
+                ", to=" + to +
+                ", roomType=" + roomType +
+                ", confirmed=" + confirmed +
+                '}';
+    }
+}
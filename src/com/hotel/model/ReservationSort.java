@@ -0,0 +1,11 @@
+package com.hotel.model;
+
+/** Clés de tri des listes de réservations paginées, dans l'ordre des colonnes affichées. */
+public enum ReservationSort {
+    ID,
+    CLIENT,
+    ROOM,
+    CHECK_IN,
+    CHECK_OUT,
+    CONFIRMED
+}
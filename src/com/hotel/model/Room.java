@@ -1,14 +1,19 @@
 package com.hotel.model;
 
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 
-public class Room implements Serializable {
+public class Room implements Externalizable {
+    private static final long serialVersionUID = 3L;
 
     private int id;
     private String number;
     private String type;
     private double price;
-    private boolean available;
+    private boolean available;  // chambre en service ; l'occupation par date se lit dans les réservations
+    private int version;        // verrouillage optimiste, incrémenté par chaque UPDATE
 
     public Room() {
     }
@@ -69,6 +74,36 @@ public class Room implements Serializable {
         this.available = available;
     }
 
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+
+    // ---------- encodage compact RMI ----------
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeInt(id);
+        WireFormat.writeString(out, number);
+        WireFormat.writeSharedString(out, type);
+        out.writeDouble(price);
+        out.writeBoolean(available);
+        out.writeInt(version);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        id = in.readInt();
+        number = WireFormat.readString(in);
+        type = WireFormat.readSharedString(in);
+        price = in.readDouble();
+        available = in.readBoolean();
+        version = in.readInt();
+    }
 
     @Override
     public String toString() {
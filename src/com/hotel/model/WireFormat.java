@@ -0,0 +1,53 @@
+package com.hotel.model;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.time.LocalDate;
+
+/**
+ * Primitives de l'encodage compact ({@link java.io.Externalizable}) des modèles
+ * échangés via RMI.
+ */
+final class WireFormat {
+
+    // valeur réservée pour une date null
+    private static final int NULL_DATE = Integer.MIN_VALUE;
+
+    private WireFormat() {
+    }
+
+    static void writeString(ObjectOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    static String readString(ObjectInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /**
+     * Chaîne à faible cardinalité (type de chambre...) : écrite en objet internalisé,
+     * le flux n'en transmet le contenu qu'une fois puis une simple référence arrière.
+     */
+    static void writeSharedString(ObjectOutput out, String value) throws IOException {
+        out.writeObject(value != null ? value.intern() : null);
+    }
+
+    static String readSharedString(ObjectInput in) throws IOException, ClassNotFoundException {
+        String value = (String) in.readObject();
+        return value != null ? value.intern() : null;
+    }
+
+    // date en jour epoch sur 4 octets
+    static void writeDate(ObjectOutput out, LocalDate date) throws IOException {
+        out.writeInt(date != null ? Math.toIntExact(date.toEpochDay()) : NULL_DATE);
+    }
+
+    static LocalDate readDate(ObjectInput in) throws IOException {
+        int epochDay = in.readInt();
+        return epochDay == NULL_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+}
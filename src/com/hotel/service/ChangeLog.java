@@ -0,0 +1,162 @@
+package com.hotel.service;
+
+import com.hotel.db.ChangeLogDao;
+import com.hotel.db.ChangeLogDaoImpl;
+import com.hotel.db.ChangeLogEntry;
+import com.hotel.model.ChangeSet;
+import com.hotel.model.ChangeTopic;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Journal des modifications d'une table, tenu en base (table {@code change_log}).
+ * <p>
+ * Chaque écriture y ajoute une ligne (id de l'entité, suppression ou non) numérotée par
+ * une séquence commune à toutes les tables. Le journal est donc le même pour tous les
+ * serveurs et tous les postes : {@link #since} voit aussi les écritures faites par un
+ * autre processus. Les entités modifiées sont relues en base dans leur état courant.
+ * <p>
+ * Les séquences sont attribuées à l'insertion mais visibles au commit : une séquence
+ * absente peut être une insertion en cours. {@link #since} s'arrête donc avant un trou
+ * récent, et ne le franchit qu'une fois l'entrée suivante assez ancienne pour que la
+ * séquence manquante soit tenue pour annulée ({@code hotel.changes.settleSeconds}, 2 s).
+ * <p>
+ * Un client dont la séquence a été purgée ({@code hotel.changes.retentionHours}, 24 h),
+ * ou en retard de plus de {@value #CAPACITY} écritures, reçoit un {@link ChangeSet}
+ * "rechargement complet".
+ * <p>
+ * Chaque écriture est aussi signalée à {@link ChangeNotifier} pour le sujet du journal.
+ */
+public class ChangeLog<T extends Serializable> {
+
+    private static final Logger LOG = Logger.getLogger(ChangeLog.class.getName());
+
+    static final int CAPACITY = 4096;
+    // au-delà, relire les entités une à une coûterait plus qu'un rechargement complet
+    private static final int MAX_UPSERTS = 256;
+    private static final int RETENTION_HOURS = Math.max(1, Integer.getInteger("hotel.changes.retentionHours", 24));
+
+    private static final ChangeLogDao DAO = new ChangeLogDaoImpl();
+    private static ScheduledExecutorService pruner;
+
+    private final ChangeTopic topic;
+    private final IntFunction<T> loader;
+
+    /** @param loader lecture d'une entité par id en base, {@code null} si elle n'existe plus */
+    public ChangeLog(ChangeTopic topic, IntFunction<T> loader) {
+        this.topic = topic;
+        this.loader = loader;
+    }
+
+    /**
+     * Démarre la purge horaire des entrées anciennes. Une seule par processus ; à lancer par
+     * le serveur (ou le mode autonome), pas par les postes clients.
+     */
+    public static synchronized void startPruning() {
+        if (pruner != null) {
+            return;
+        }
+        pruner = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "change-log-pruner");
+            t.setDaemon(true);
+            return t;
+        });
+        pruner.scheduleWithFixedDelay(ChangeLog::prune, 0, 1, TimeUnit.HOURS);
+    }
+
+    public static synchronized void stopPruning() {
+        if (pruner != null) {
+            pruner.shutdownNow();
+            pruner = null;
+        }
+    }
+
+    private static void prune() {
+        try {
+            DAO.prune(RETENTION_HOURS);
+        } catch (RuntimeException e) {
+            LOG.log(Level.WARNING, "Purge du journal des modifications impossible", e);
+        }
+    }
+
+    /** Enregistre la création ou la modification de l'entité {@code id}, déjà validée en base. */
+    public void recordUpsert(int id) {
+        record(id, false);
+    }
+
+    public void recordDelete(int id) {
+        record(id, true);
+    }
+
+    // l'écriture est déjà validée : un échec ici ne doit pas la faire passer pour ratée ;
+    // les postes la verront au prochain rechargement complet
+    private void record(int id, boolean deleted) {
+        try {
+            ChangeNotifier.getInstance().publish(topic, DAO.append(topic, id, deleted));
+        } catch (RuntimeException e) {
+            LOG.log(Level.WARNING, "Modification non journalisée : " + topic + " " + id, e);
+        }
+    }
+
+    public long currentSequence() {
+        return DAO.lastSequence();
+    }
+
+    /** Modifications de séquence strictement supérieure à {@code since}, une entrée par id. */
+    public ChangeSet<T> since(long since) {
+        if (since <= 0) {
+            return fullReload(DAO.lastSequence());
+        }
+        // l'entrée 'since' elle-même est relue : absente, elle a été purgée
+        List<ChangeLogEntry> entries = DAO.findFrom(since, CAPACITY + 2);
+        if (entries.isEmpty() || entries.get(0).getSequence() != since) {
+            return fullReload(DAO.lastSequence());
+        }
+        if (entries.size() > CAPACITY + 1) {
+            return fullReload(entries.get(entries.size() - 1).getSequence());
+        }
+
+        // dernière opération par id (true = suppression), dans l'ordre d'apparition
+        Map<Integer, Boolean> latest = new LinkedHashMap<>();
+        long sequence = since;
+        for (ChangeLogEntry entry : entries.subList(1, entries.size())) {
+            if (entry.getSequence() != sequence + 1 && !entry.isSettled()) {
+                break; // trou récent : insertion peut-être pas encore validée, on la reverra
+            }
+            sequence = entry.getSequence();
+            if (entry.getTopic() == topic) {
+                latest.remove(entry.getEntityId());
+                latest.put(entry.getEntityId(), entry.isDeleted());
+            }
+        }
+        if (latest.size() > MAX_UPSERTS) {
+            return fullReload(sequence);
+        }
+
+        List<T> upserted = new ArrayList<>();
+        List<Integer> deleted = new ArrayList<>();
+        for (Map.Entry<Integer, Boolean> change : latest.entrySet()) {
+            T entity = change.getValue() ? null : loader.apply(change.getKey());
+            if (entity == null) {
+                deleted.add(change.getKey());
+            } else {
+                upserted.add(entity);
+            }
+        }
+        return new ChangeSet<>(sequence, false, upserted, deleted);
+    }
+
+    private static <T extends Serializable> ChangeSet<T> fullReload(long sequence) {
+        return new ChangeSet<>(sequence, true, List.of(), List.of());
+    }
+}
@@ -0,0 +1,136 @@
+package com.hotel.service;
+
+import com.hotel.model.ChangeNotice;
+import com.hotel.model.ChangeTopic;
+import com.hotel.service.rmi.HotelChangeListener;
+
+import java.rmi.RemoteException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Diffusion des avis de modification aux abonnés {@link HotelChangeListener}.
+ * <p>
+ * {@link #publish} ne fait que noter la nouvelle séquence dans la file de chaque abonné
+ * et ne bloque jamais l'écriture qui l'appelle. La file d'un abonné est bornée par
+ * construction : les avis en attente sont fusionnés (une séquence par table), et un seul
+ * envoi par abonné est en cours à la fois sur l'exécuteur dédié.
+ * <p>
+ * Un abonné est désinscrit si un avis l'attend depuis plus de
+ * {@code hotel.notify.maxLagMs} (10 s) parce que l'envoi précédent n'est pas terminé,
+ * ou après {@value #MAX_FAILURES} échecs d'envoi consécutifs (poste fermé, réseau coupé).
+ * Le poste s'en aperçoit à sa prochaine réinscription périodique ({@link #subscribe} renvoie true).
+ */
+public class ChangeNotifier {
+
+    private static final Logger LOG = Logger.getLogger(ChangeNotifier.class.getName());
+
+    private static final ChangeNotifier INSTANCE = new ChangeNotifier();
+
+    private static final int MAX_FAILURES = 3;
+    private static final long MAX_LAG_NANOS =
+            TimeUnit.MILLISECONDS.toNanos(Long.getLong("hotel.notify.maxLagMs", 10_000));
+
+    private final Map<HotelChangeListener, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(
+            Integer.getInteger("hotel.notify.threads", 4), r -> {
+                Thread t = new Thread(r, "change-notifier");
+                t.setDaemon(true);
+                return t;
+            });
+
+    public static ChangeNotifier getInstance() {
+        return INSTANCE;
+    }
+
+    /** Inscrit {@code listener} ; renvoie false s'il l'était déjà. */
+    public boolean subscribe(HotelChangeListener listener) {
+        return subscribers.putIfAbsent(listener, new Subscriber(listener)) == null;
+    }
+
+    public void unsubscribe(HotelChangeListener listener) {
+        subscribers.remove(listener);
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /** Signale que {@code topic} a atteint la séquence {@code sequence}. */
+    public void publish(ChangeTopic topic, long sequence) {
+        for (Subscriber subscriber : subscribers.values()) {
+            subscriber.offer(topic, sequence);
+        }
+    }
+
+    private void drop(Subscriber subscriber, String reason) {
+        if (subscribers.remove(subscriber.listener, subscriber)) {
+            LOG.warning("Abonné désinscrit (" + reason + ") : " + subscriber.listener);
+        }
+    }
+
+    private final class Subscriber {
+        final HotelChangeListener listener;
+        // avis en attente, fusionnés ; gardé par le moniteur de l'abonné
+        private final EnumMap<ChangeTopic, Long> pending = new EnumMap<>(ChangeTopic.class);
+        private long pendingSince;
+        private boolean sending;
+        private int failures;
+
+        Subscriber(HotelChangeListener listener) {
+            this.listener = listener;
+        }
+
+        void offer(ChangeTopic topic, long sequence) {
+            boolean start = false;
+            boolean tooSlow = false;
+            synchronized (this) {
+                pending.merge(topic, sequence, Math::max);
+                long now = System.nanoTime();
+                if (pendingSince == 0) {
+                    pendingSince = now;
+                }
+                if (!sending) {
+                    sending = true;
+                    start = true;
+                } else if (now - pendingSince > MAX_LAG_NANOS) {
+                    tooSlow = true;
+                }
+            }
+            if (start) {
+                executor.execute(this::drain);
+            } else if (tooSlow) {
+                drop(this, "trop lent");
+            }
+        }
+
+        // envoie les avis en attente jusqu'à épuisement, un appel distant à la fois
+        private void drain() {
+            while (true) {
+                ChangeNotice notice;
+                synchronized (this) {
+                    if (pending.isEmpty() || subscribers.get(listener) != this) {
+                        sending = false;
+                        return;
+                    }
+                    notice = new ChangeNotice(pending);
+                    pending.clear();
+                    pendingSince = 0;
+                }
+                try {
+                    listener.changesAvailable(notice);
+                    failures = 0;
+                } catch (RemoteException | RuntimeException e) {
+                    if (++failures >= MAX_FAILURES) {
+                        drop(this, e.toString());
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.hotel.service;
+
+/** Formats de fichier produits par {@link ExportService}. */
+public enum ExportFormat {
+    /** CSV RFC 4180 avec ligne d'en-tête, séparateur virgule, fins de ligne CRLF. */
+    CSV("csv"),
+    /** Un objet JSON par ligne. */
+    JSON_LINES("jsonl");
+
+    private final String extension;
+
+    ExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
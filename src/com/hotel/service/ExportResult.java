@@ -0,0 +1,45 @@
+package com.hotel.service;
+
+import java.nio.file.Path;
+
+/** Bilan d'un export : volume écrit et débit. */
+public class ExportResult {
+
+    private final Path file;
+    private final long rows;
+    private final long bytes;
+    private final long elapsedMillis;
+
+    public ExportResult(Path file, long rows, long bytes, long elapsedMillis) {
+        this.file = file;
+        this.rows = rows;
+        this.bytes = bytes;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? rows * 1000.0 : rows * 1000.0 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d rows, %d bytes in %d ms (%.0f rows/s) -> %s",
+                rows, bytes, elapsedMillis, getRowsPerSecond(), file);
+    }
+}
@@ -0,0 +1,15 @@
+package com.hotel.service;
+
+import com.hotel.db.ExportDataset;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public interface ExportService {
+
+    /**
+     * Écrit toutes les lignes du jeu de données dans {@code target} (remplacé s'il existe).
+     * La mémoire utilisée ne dépend pas du nombre de lignes.
+     */
+    ExportResult export(ExportDataset dataset, ExportFormat format, Path target) throws IOException;
+}
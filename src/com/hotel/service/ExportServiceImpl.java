@@ -0,0 +1,170 @@
+package com.hotel.service;
+
+import com.hotel.db.ExportDao;
+import com.hotel.db.ExportDaoImpl;
+import com.hotel.db.ExportDataset;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Export en flux : chaque ligne lue par le curseur JDBC est formatée puis écrite dans un
+ * tampon de {@value #BUFFER_SIZE} caractères vidé vers un {@link FileChannel}. Rien n'est
+ * accumulé en mémoire entre deux lignes.
+ */
+public class ExportServiceImpl implements ExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ExportDao exportDao;
+
+    public ExportServiceImpl() {
+        this.exportDao = new ExportDaoImpl();
+    }
+
+    @Override
+    public ExportResult export(ExportDataset dataset, ExportFormat format, Path target) throws IOException {
+        long start = System.nanoTime();
+        List<String> columns = dataset.getColumns();
+        long rows;
+        long bytes;
+
+        try (FileChannel channel = FileChannel.open(target,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             Writer out = new BufferedWriter(
+                     Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), BUFFER_SIZE), BUFFER_SIZE)) {
+
+            if (format == ExportFormat.CSV) {
+                writeCsvHeader(out, columns);
+                rows = exportDao.forEachRow(dataset, values -> writeCsvRow(out, values));
+            } else {
+                rows = exportDao.forEachRow(dataset, values -> writeJsonLine(out, columns, values));
+            }
+            out.flush();
+            bytes = channel.position();
+        }
+
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        return new ExportResult(target, rows, bytes, elapsed);
+    }
+
+    // nombres en notation décimale (jamais 1.0E7), DECIMAL avec leur échelle d'origine
+    private static String text(Object value) {
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        }
+        if (value instanceof Double && Double.isFinite((Double) value)) {
+            return BigDecimal.valueOf((Double) value).toPlainString();
+        }
+        return value.toString();
+    }
+
+    // ---------- CSV ----------
+
+    private static void writeCsvHeader(Writer out, List<String> columns) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            writeCsvField(out, columns.get(i));
+        }
+        out.write("\r\n");
+    }
+
+    private static void writeCsvRow(Writer out, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            if (values[i] != null) {
+                writeCsvField(out, text(values[i]));
+            }
+        }
+        out.write("\r\n");
+    }
+
+    // guillemets seulement si nécessaire, guillemets internes doublés
+    private static void writeCsvField(Writer out, String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.write('"');
+            }
+            out.write(c);
+        }
+        out.write('"');
+    }
+
+    // ---------- JSON Lines ----------
+
+    private static void writeJsonLine(Writer out, List<String> columns, Object[] values) throws IOException {
+        out.write('{');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            writeJsonString(out, columns.get(i));
+            out.write(':');
+            Object v = values[i];
+            if (v == null) {
+                out.write("null");
+            } else if (v instanceof Double && !Double.isFinite((Double) v)) {
+                out.write("null");
+            } else if (v instanceof Number || v instanceof Boolean) {
+                out.write(text(v));
+            } else {
+                writeJsonString(out, v.toString());
+            }
+        }
+        out.write("}\n");
+    }
+
+    private static void writeJsonString(Writer out, String value) throws IOException {
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.write("\\\"");
+                    break;
+                case '\\':
+                    out.write("\\\\");
+                    break;
+                case '\n':
+                    out.write("\\n");
+                    break;
+                case '\r':
+                    out.write("\\r");
+                    break;
+                case '\t':
+                    out.write("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+            }
+        }
+        out.write('"');
+    }
+}
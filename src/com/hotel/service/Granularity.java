@@ -0,0 +1,8 @@
+package com.hotel.service;
+
+/** Pas de regroupement des séries temporelles de rapport. */
+public enum Granularity {
+    DAY,
+    WEEK,
+    MONTH
+}
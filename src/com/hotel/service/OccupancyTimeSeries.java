@@ -0,0 +1,115 @@
+package com.hotel.service;
+
+import com.hotel.db.ReservationDao;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Série temporelle d'occupation (taux, ADR, RevPAR) sur une période quelconque.
+ * <p>
+ * Les séjours de toute la période sont lus en un seul passage par
+ * {@link ReservationDao#forEachStay} et cumulés dans deux tableaux indexés par nuit
+ * (nuitées vendues, chiffre d'affaires), sans construire de {@code Reservation} ;
+ * le découpage par jour, semaine ou mois se fait ensuite sur ces tableaux.
+ * Le coût est une requête et reste linéaire en nombre de nuitées.
+ */
+class OccupancyTimeSeries {
+
+    private final ReservationDao reservationDao;
+
+    OccupancyTimeSeries(ReservationDao reservationDao) {
+        this.reservationDao = reservationDao;
+    }
+
+    /** Une ligne du rapport : nuits {@code [start, end)} regroupées selon la granularité. */
+    static final class Bucket {
+        final LocalDate start;
+        final LocalDate end;
+        long roomNightsAvailable;
+        long roomNightsSold;
+        double revenue;
+
+        Bucket(LocalDate start, LocalDate end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        double occupancy() {
+            return roomNightsAvailable == 0 ? 0.0 : (double) roomNightsSold / roomNightsAvailable;
+        }
+
+        double adr() {
+            return roomNightsSold == 0 ? 0.0 : revenue / roomNightsSold;
+        }
+
+        double revPar() {
+            return roomNightsAvailable == 0 ? 0.0 : revenue / roomNightsAvailable;
+        }
+    }
+
+    /**
+     * Calcule la série pour les nuits {@code [from, to)}.
+     *
+     * @param rooms nombre de chambres offertes chaque nuit (dénominateur)
+     */
+    List<Bucket> compute(LocalDate from, LocalDate to, Granularity granularity, String roomType, int rooms) {
+        long first = from.toEpochDay();
+        int nights = Math.toIntExact(to.toEpochDay() - first);
+        long[] sold = new long[nights];
+        double[] revenue = new double[nights];
+
+        long last = to.toEpochDay();
+        reservationDao.forEachStay(from, to, roomType, (checkIn, checkOut, rate) -> {
+            long a = Math.max(checkIn, first);
+            long b = Math.min(checkOut, last);
+            for (long night = a; night < b; night++) {
+                int i = (int) (night - first);
+                sold[i]++;
+                revenue[i] += rate;
+            }
+        });
+
+        return group(from, to, granularity, rooms, sold, revenue);
+    }
+
+    private static List<Bucket> group(LocalDate from, LocalDate to, Granularity granularity, int rooms,
+                                      long[] sold, double[] revenue) {
+        List<Bucket> buckets = new ArrayList<>();
+        long first = from.toEpochDay();
+        LocalDate start = from;
+        while (start.isBefore(to)) {
+            LocalDate end = next(start, granularity);
+            if (end.isAfter(to)) {
+                end = to;
+            }
+            Bucket b = new Bucket(start, end);
+            int lo = (int) (start.toEpochDay() - first);
+            int hi = (int) (end.toEpochDay() - first);
+            for (int i = lo; i < hi; i++) {
+                b.roomNightsSold += sold[i];
+                b.revenue += revenue[i];
+            }
+            b.roomNightsAvailable = (long) rooms * (hi - lo);
+            buckets.add(b);
+            start = end;
+        }
+        return buckets;
+    }
+
+    // début de la période suivante (semaines ISO du lundi, mois calendaires)
+    private static LocalDate next(LocalDate start, Granularity granularity) {
+        switch (granularity) {
+            case WEEK:
+                return start.with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+            case MONTH:
+                return YearMonth.from(start).plusMonths(1).atDay(1);
+            default:
+                return start.plusDays(1);
+        }
+    }
+}
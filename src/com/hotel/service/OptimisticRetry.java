@@ -0,0 +1,70 @@
+package com.hotel.service;
+
+import com.hotel.db.OptimisticLockException;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Rejoue une unité de travail interrompue par un conflit de version.
+ * <p>
+ * Au plus {@code hotel.retry.maxAttempts} essais (5), séparés par une attente
+ * exponentielle avec gigue : tirée dans {@code [0, base * 2^essai]}, base
+ * {@code hotel.retry.backoffMs} (5 ms), plafonnée à {@value #MAX_BACKOFF_MS} ms.
+ * Le dernier conflit est relancé tel quel à l'appelant.
+ */
+public final class OptimisticRetry {
+
+    private static final int MAX_ATTEMPTS = Math.max(1, Integer.getInteger("hotel.retry.maxAttempts", 5));
+    private static final long BACKOFF_MS = Math.max(1, Long.getLong("hotel.retry.backoffMs", 5));
+    private static final long MAX_BACKOFF_MS = 200;
+
+    private static final LongAdder ATTEMPTS = new LongAdder();
+    private static final LongAdder CONFLICTS = new LongAdder();
+    private static final LongAdder FAILURES = new LongAdder();
+
+    private OptimisticRetry() {
+    }
+
+    public static <T> T run(Supplier<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            ATTEMPTS.increment();
+            try {
+                return work.get();
+            } catch (OptimisticLockException e) {
+                CONFLICTS.increment();
+                if (attempt >= MAX_ATTEMPTS) {
+                    FAILURES.increment();
+                    throw e;
+                }
+                backoff(attempt);
+            }
+        }
+    }
+
+    private static void backoff(int attempt) {
+        long ceiling = Math.min(MAX_BACKOFF_MS, BACKOFF_MS << Math.min(attempt, 16));
+        try {
+            TimeUnit.MILLISECONDS.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OptimisticLockException("Nouvel essai interrompu");
+        }
+    }
+
+    /** Essais effectués, premiers essais compris. */
+    public static long getAttemptCount() {
+        return ATTEMPTS.sum();
+    }
+
+    public static long getConflictCount() {
+        return CONFLICTS.sum();
+    }
+
+    /** Unités abandonnées après {@code hotel.retry.maxAttempts} conflits. */
+    public static long getFailureCount() {
+        return FAILURES.sum();
+    }
+}
@@ -0,0 +1,161 @@
+package com.hotel.service;
+
+import com.hotel.model.Payment;
+import com.hotel.model.Reservation;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Agrégats des rapports tenus à jour au fil des écritures : nombre de chambres,
+ * chambres occupées par nuit, nuitées par type de chambre, chiffre d'affaires par mois.
+ * <p>
+ * Les services appellent {@code reservationAdded}, {@code paymentRecorded}... après
+ * chaque écriture réussie ; les rapports lisent ensuite les compteurs en O(1).
+ * {@link #reload} remplace d'un bloc tous les compteurs par ceux recalculés depuis la
+ * base (chargement initial et réconciliation périodique).
+ * <p>
+ * L'occupation par nuit n'est tenue qu'à partir de {@link #getFirstTrackedNight()} :
+ * les nuits plus anciennes sont ignorées à l'écriture et abandonnées au rechargement.
+ */
+public class ReportAggregates {
+
+    // nuits passées conservées dans l'occupation par nuit (-Dhotel.report.retentionDays)
+    private static final long RETENTION_DAYS = Long.getLong("hotel.report.retentionDays", 7);
+
+    private static final ReportAggregates INSTANCE = new ReportAggregates();
+
+    private volatile Counters counters = new Counters(getFirstTrackedNight().toEpochDay());
+
+    public static ReportAggregates getInstance() {
+        return INSTANCE;
+    }
+
+    // ---------- mises à jour incrémentales ----------
+
+    public void roomAdded() {
+        counters.rooms.incrementAndGet();
+    }
+
+    public void roomRemoved() {
+        counters.rooms.decrementAndGet();
+    }
+
+    public void reservationAdded(Reservation reservation) {
+        counters.addStay(reservation, 1);
+    }
+
+    public void reservationRemoved(Reservation reservation) {
+        counters.addStay(reservation, -1);
+    }
+
+    public void paymentRecorded(Payment payment) {
+        counters.addPayment(payment.getDate(), payment.getAmount());
+    }
+
+    // ---------- lectures ----------
+
+    public int getRoomCount() {
+        return counters.rooms.get();
+    }
+
+    public long getOccupiedRooms(LocalDate night) {
+        LongAdder adder = counters.occupiedByNight.get(night.toEpochDay());
+        return adder == null ? 0 : adder.sum();
+    }
+
+    public long getNightsByRoomType(String type) {
+        LongAdder adder = counters.nightsByRoomType.get(type);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    public double getRevenue(YearMonth month) {
+        DoubleAdder adder = counters.revenueByMonth.get(month);
+        return adder == null ? 0.0 : adder.sum();
+    }
+
+    public double getTotalRevenue() {
+        return counters.totalRevenue.sum();
+    }
+
+    /** Première nuit dont l'occupation est tenue ; les nuits antérieures valent 0. */
+    public LocalDate getFirstTrackedNight() {
+        return LocalDate.now().minusDays(RETENTION_DAYS);
+    }
+
+    // ---------- (re)chargement ----------
+
+    /**
+     * Remplace tous les compteurs par ceux calculés en base et les publie d'un coup.
+     * {@code occupancyChanges} donne, date par date à partir de {@code from}, les arrivées
+     * moins les départs ({@code ReservationDao.getOccupancyChanges}) : leur cumul est
+     * l'occupation de chaque nuit. Une écriture concurrente au rechargement peut être
+     * comptée deux fois ou pas du tout ; la réconciliation suivante corrige l'écart.
+     */
+    public void reload(LocalDate from, int rooms, SortedMap<LocalDate, Integer> occupancyChanges,
+                       Map<String, Long> nightsByRoomType, Map<YearMonth, Double> revenueByMonth) {
+        Counters fresh = new Counters(from.toEpochDay());
+        fresh.rooms.set(rooms);
+
+        long occupied = 0;
+        long previous = Long.MIN_VALUE;
+        for (Map.Entry<LocalDate, Integer> change : occupancyChanges.entrySet()) {
+            long day = change.getKey().toEpochDay();
+            // les nuits entre deux changements gardent l'occupation courante
+            if (occupied != 0) {
+                for (long night = Math.max(previous, fresh.firstNight); night < day; night++) {
+                    fresh.occupiedByNight.computeIfAbsent(night, n -> new LongAdder()).add(occupied);
+                }
+            }
+            occupied += change.getValue();
+            previous = day;
+        }
+        nightsByRoomType.forEach((type, nights) ->
+                fresh.nightsByRoomType.computeIfAbsent(type, t -> new LongAdder()).add(nights));
+        revenueByMonth.forEach((month, amount) -> {
+            fresh.revenueByMonth.computeIfAbsent(month, m -> new DoubleAdder()).add(amount);
+            fresh.totalRevenue.add(amount);
+        });
+        counters = fresh;
+    }
+
+    private static final class Counters {
+        final long firstNight;
+        final AtomicInteger rooms = new AtomicInteger();
+        final Map<Long, LongAdder> occupiedByNight = new ConcurrentHashMap<>();
+        final Map<String, LongAdder> nightsByRoomType = new ConcurrentHashMap<>();
+        final Map<YearMonth, DoubleAdder> revenueByMonth = new ConcurrentHashMap<>();
+        final DoubleAdder totalRevenue = new DoubleAdder();
+
+        Counters(long firstNight) {
+            this.firstNight = firstNight;
+        }
+
+        void addStay(Reservation r, int delta) {
+            if (r.getCheckInDate() == null || r.getCheckOutDate() == null) {
+                return;
+            }
+            long from = r.getCheckInDate().toEpochDay();
+            long to = r.getCheckOutDate().toEpochDay();
+            for (long night = Math.max(from, firstNight); night < to; night++) {
+                occupiedByNight.computeIfAbsent(night, n -> new LongAdder()).add(delta);
+            }
+            if (r.getRoom() != null && r.getRoom().getType() != null && to > from) {
+                nightsByRoomType.computeIfAbsent(r.getRoom().getType(), t -> new LongAdder())
+                        .add(delta * (to - from));
+            }
+        }
+
+        void addPayment(LocalDate date, double amount) {
+            YearMonth month = YearMonth.from(date != null ? date : LocalDate.now());
+            revenueByMonth.computeIfAbsent(month, m -> new DoubleAdder()).add(amount);
+            totalRevenue.add(amount);
+        }
+    }
+}
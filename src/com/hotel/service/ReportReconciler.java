@@ -0,0 +1,98 @@
+package com.hotel.service;
+
+import com.hotel.db.CachingRoomDao;
+import com.hotel.db.PaymentDao;
+import com.hotel.db.PaymentDaoImpl;
+import com.hotel.db.ReservationDao;
+import com.hotel.db.ReservationDaoImpl;
+import com.hotel.db.RoomDao;
+import com.hotel.db.RoomDaoImpl;
+
+import java.time.LocalDate;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Chargement et réconciliation des {@link ReportAggregates} du processus.
+ * <p>
+ * {@link #start} charge les agrégats depuis la base puis, toutes les
+ * {@code hotel.report.reconcileMinutes} (15) minutes, les compare à la base, signale les
+ * écarts et les corrige. Une seule réconciliation par processus : elle est lancée par le
+ * serveur ({@code --server}) et par le mode autonome, jamais par les postes clients, qui
+ * demandent leurs rapports au serveur.
+ */
+public final class ReportReconciler {
+
+    private static final Logger LOG = Logger.getLogger(ReportReconciler.class.getName());
+
+    private static final long RECONCILE_MINUTES = Math.max(1, Long.getLong("hotel.report.reconcileMinutes", 15));
+
+    private static final RoomDao ROOM_DAO = new CachingRoomDao(new RoomDaoImpl());
+    private static final ReservationDao RESERVATION_DAO = new ReservationDaoImpl();
+    private static final PaymentDao PAYMENT_DAO = new PaymentDaoImpl();
+
+    private static ScheduledExecutorService scheduler;
+
+    private ReportReconciler() {
+    }
+
+    /** Charge les agrégats et planifie la réconciliation ; sans effet si elle est déjà démarrée. */
+    public static synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        reload();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "report-reconciler");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(ReportReconciler::reconcile,
+                RECONCILE_MINUTES, RECONCILE_MINUTES, TimeUnit.MINUTES);
+    }
+
+    public static synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /** Recharge les agrégats depuis la base ; renvoie false en cas d'erreur SQL. */
+    public static boolean reload() {
+        ReportAggregates aggregates = ReportAggregates.getInstance();
+        try {
+            LocalDate from = aggregates.getFirstTrackedNight();
+            aggregates.reload(from, ROOM_DAO.countAllRooms(), RESERVATION_DAO.getOccupancyChanges(from),
+                    RESERVATION_DAO.getNightsByRoomType(), PAYMENT_DAO.getRevenueByMonth());
+            return true;
+        } catch (RuntimeException e) {
+            LOG.log(Level.WARNING, "Rechargement des agrégats des rapports impossible", e);
+            return false;
+        }
+    }
+
+    // compare les agrégats tenus en mémoire à la base, signale les écarts et les corrige
+    private static void reconcile() {
+        ReportAggregates aggregates = ReportAggregates.getInstance();
+        LocalDate today = LocalDate.now();
+        int rooms = aggregates.getRoomCount();
+        long occupied = aggregates.getOccupiedRooms(today);
+        double revenue = aggregates.getTotalRevenue();
+
+        if (!reload()) {
+            return;
+        }
+        if (rooms != aggregates.getRoomCount()
+                || occupied != aggregates.getOccupiedRooms(today)
+                || Math.abs(revenue - aggregates.getTotalRevenue()) > 0.005) {
+            LOG.warning(String.format("Écart corrigé : chambres %d -> %d, occupées %d -> %d, CA %.2f -> %.2f",
+                    rooms, aggregates.getRoomCount(),
+                    occupied, aggregates.getOccupiedRooms(today),
+                    revenue, aggregates.getTotalRevenue()));
+        }
+    }
+}
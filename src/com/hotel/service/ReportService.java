@@ -2,6 +2,8 @@ package com.hotel.service;
 
 import com.hotel.model.Client;
 
+import java.time.LocalDate;
+
 public interface ReportService {
 
     String generateOccupancyReport();
@@ -10,5 +12,12 @@ public interface ReportService {
     String generateRevenueReport();
 
 
+    /**
+     * Taux d'occupation, ADR et RevPAR pour les nuits {@code [from, to)}, par jour,
+     * semaine ou mois ; {@code roomType} null ou vide = tous les types.
+     */
+    String generateOccupancyTimeSeries(LocalDate from, LocalDate to, Granularity granularity, String roomType);
+
+
     String generateClientHistoryReport(Client client);
 }
\ No newline at end of file
@@ -1,43 +1,33 @@
 package com.hotel.service;
 
-import com.hotel.db.PaymentDao;
-import com.hotel.db.PaymentDaoImpl;
+import com.hotel.db.CachingRoomDao;
 import com.hotel.db.ReservationDao;
 import com.hotel.db.ReservationDaoImpl;
 import com.hotel.db.RoomDao;
 import com.hotel.db.RoomDaoImpl;
 import com.hotel.model.Client;
-import com.hotel.model.Reservation;
-import com.hotel.model.Room;
-import com.hotel.service.ejb.PaymentService;
-import com.hotel.service.rmi.HotelService;
+import com.hotel.model.Invoice;
+import com.hotel.model.Payment;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class ReportServiceImpl implements ReportService {
 
-
-    private final RoomDao roomDao;
-    private final PaymentDao paymentDao;
-    private final ReservationDao reservationDao;
-
-
-    public ReportServiceImpl(HotelService hotelService, PaymentService paymentService) {
-        this.roomDao = new RoomDaoImpl();
-        this.paymentDao = new PaymentDaoImpl();
-        this.reservationDao = new ReservationDaoImpl();
-    }
+    private final RoomDao roomDao = new CachingRoomDao(new RoomDaoImpl());
+    private final ReservationDao reservationDao = new ReservationDaoImpl();
+    // chargés et réconciliés par ReportReconciler, démarré par le serveur ou le mode autonome
+    private final ReportAggregates aggregates = ReportAggregates.getInstance();
+    private final OccupancyTimeSeries timeSeries = new OccupancyTimeSeries(reservationDao);
 
     @Override
     public String generateOccupancyReport() {
 
-        List<Room> rooms = roomDao.getAllRooms();
-        List<Room> available = roomDao.getAvailableRooms();
-
-        int total = rooms.size();
-        int free = available.size();
-        int booked = total - free;
+        // occupation de la nuit courante, lue dans les agrégats
+        int total = aggregates.getRoomCount();
+        long booked = Math.min(total, aggregates.getOccupiedRooms(LocalDate.now()));
+        long free = total - booked;
         double occupancyRate = total == 0 ? 0.0 : (double) booked / total * 100.0;
 
         return String.format(
@@ -53,8 +43,44 @@ public class ReportServiceImpl implements ReportService {
     @Override
     public String generateRevenueReport() {
 
-        double revenue = paymentDao.getTotalRevenue();
-        return String.format("Revenue Report:\nTotal revenue: %.2f", revenue);
+        double revenue = aggregates.getTotalRevenue();
+        double thisMonth = aggregates.getRevenue(YearMonth.now());
+        return String.format("Revenue Report:\nTotal revenue: %.2f\nThis month: %.2f", revenue, thisMonth);
+    }
+
+    @Override
+    public String generateOccupancyTimeSeries(LocalDate from, LocalDate to, Granularity granularity, String roomType) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("Période invalide : " + from + " → " + to);
+        }
+        boolean anyType = roomType == null || roomType.isBlank();
+        int rooms = roomDao.countRooms(anyType ? null : roomType);
+
+        List<OccupancyTimeSeries.Bucket> buckets = timeSeries.compute(from, to,
+                granularity != null ? granularity : Granularity.DAY, anyType ? null : roomType, rooms);
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Occupancy Time Series (%s → %s, %s, room type: %s, rooms: %d)%n",
+                from, to, granularity, anyType ? "all" : roomType, rooms));
+        sb.append(String.format("%-12s %-12s %10s %10s %12s %10s %10s%n",
+                "From", "To", "Sold", "Available", "Occupancy", "ADR", "RevPAR"));
+
+        OccupancyTimeSeries.Bucket total = new OccupancyTimeSeries.Bucket(from, to);
+        for (OccupancyTimeSeries.Bucket b : buckets) {
+            appendBucket(sb, b);
+            total.roomNightsSold += b.roomNightsSold;
+            total.roomNightsAvailable += b.roomNightsAvailable;
+            total.revenue += b.revenue;
+        }
+        sb.append("Total:\n");
+        appendBucket(sb, total);
+        return sb.toString();
+    }
+
+    private static void appendBucket(StringBuilder sb, OccupancyTimeSeries.Bucket b) {
+        sb.append(String.format("%-12s %-12s %10d %10d %11.2f%% %10.2f %10.2f%n",
+                b.start, b.end, b.roomNightsSold, b.roomNightsAvailable,
+                b.occupancy() * 100.0, b.adr(), b.revPar()));
     }
 
     @Override
@@ -70,29 +96,34 @@ public class ReportServiceImpl implements ReportService {
                 .append(client.getId())
                 .append(")\n");
 
-        List<Reservation> reservations = reservationDao.findAll();
-
-        List<Reservation> clientReservations = reservations.stream()
-                .filter(r -> r.getClient() != null && r.getClient().getId() == client.getId())
-                .collect(Collectors.toList());
+        // une seule requête indexée sur client_id, lue en flux
+        int[] count = {0};
+        reservationDao.forEachClientHistory(client.getId(), (res, payments, invoices) -> {
+            count[0]++;
+            sb.append(String.format(
+                    "Reservation %d - Room %s (%s → %s) - Confirmed: %s\n",
+                    res.getId(),
+                    res.getRoom() != null
+                            ? (res.getRoom().getNumber() != null
+                            ? res.getRoom().getNumber()
+                            : String.valueOf(res.getRoom().getId()))
+                            : "?",
+                    res.getCheckInDate(),
+                    res.getCheckOutDate(),
+                    res.isConfirmed() ? "yes" : "no"
+            ));
+            for (Payment p : payments) {
+                sb.append(String.format("    Payment %d - %.2f on %s - Paid: %s\n",
+                        p.getId(), p.getAmount(), p.getDate(), p.isPaid() ? "yes" : "no"));
+            }
+            for (Invoice i : invoices) {
+                sb.append(String.format("    Invoice %d - %.2f on %s\n",
+                        i.getId(), i.getTotalAmount(), i.getDate()));
+            }
+        });
 
-        if (clientReservations.isEmpty()) {
+        if (count[0] == 0) {
             sb.append("No reservations found.\n");
-        } else {
-            for (Reservation res : clientReservations) {
-                sb.append(String.format(
-                        "Reservation %d - Room %s (%s → %s) - Confirmed: %s\n",
-                        res.getId(),
-                        res.getRoom() != null
-                                ? (res.getRoom().getNumber() != null
-                                ? res.getRoom().getNumber()
-                                : String.valueOf(res.getRoom().getId()))
-                                : "?",
-                        res.getCheckInDate(),
-                        res.getCheckOutDate(),
-                        res.isConfirmed() ? "yes" : "no"
-                ));
-            }
         }
 
         return sb.toString();
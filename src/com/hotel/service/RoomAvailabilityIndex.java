@@ -0,0 +1,137 @@
+package com.hotel.service;
+
+import com.hotel.db.ReservationDao;
+import com.hotel.model.ChangeSet;
+import com.hotel.model.Reservation;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Occupation des chambres nuit par nuit, tenue en mémoire : pré-filtre de la recherche de
+ * chambres libres.
+ * <p>
+ * Chaque chambre possède un {@link BitSet} indexé par jour epoch (décalé d'une date
+ * d'origine) : le bit d'une nuit est à 1 si une réservation l'occupe. Un séjour
+ * {@code [checkIn, checkOut)} occupe les nuits de checkIn inclus à checkOut exclu. Seules
+ * les nuits entre l'origine (un an en arrière) et l'horizon de réservation sont suivies.
+ * <p>
+ * L'index est chargé depuis la base au premier appel, puis rattrapé à chaque appel par le
+ * journal des réservations ({@link ChangeLog}), qui contient aussi les écritures des autres
+ * serveurs. Il ne fait pas foi : une chambre qu'il croit libre est vérifiée en SQL par
+ * l'appelant, et une chambre libérée ailleurs depuis moins de
+ * {@code hotel.changes.settleSeconds} peut être écartée à tort jusqu'à l'appel suivant.
+ */
+public class RoomAvailabilityIndex {
+
+    // réservations acceptées jusqu'à tant d'années à l'avance (-Dhotel.booking.horizonYears)
+    private static final int HORIZON_YEARS = Math.max(1, Integer.getInteger("hotel.booking.horizonYears", 5));
+
+    private final ReservationDao reservationDao;
+    private final ChangeLog<Reservation> changes;
+    private final long origin;
+    private final int limit; // index (exclu) de la dernière nuit suivie
+
+    // gardés par this
+    private final Map<Integer, BitSet> nightsByRoom = new HashMap<>();
+    private final Map<Integer, Stay> stays = new HashMap<>();
+    private boolean loaded;
+    private long sequence;
+
+    public RoomAvailabilityIndex(ReservationDao reservationDao, ChangeLog<Reservation> changes) {
+        this.reservationDao = reservationDao;
+        this.changes = changes;
+        this.origin = LocalDate.now().minusYears(1).toEpochDay();
+        this.limit = Math.toIntExact(LocalDate.now().plusYears(HORIZON_YEARS).toEpochDay() - origin);
+    }
+
+    /** Chambres dont au moins une nuit de {@code [checkIn, checkOut)} est occupée, d'après le journal. */
+    public synchronized Set<Integer> occupiedRooms(LocalDate checkIn, LocalDate checkOut) {
+        sync();
+        int from = bit(checkIn.toEpochDay());
+        int to = bit(checkOut.toEpochDay());
+        Set<Integer> occupied = new HashSet<>();
+        if (from >= to) {
+            return occupied;
+        }
+        for (Map.Entry<Integer, BitSet> entry : nightsByRoom.entrySet()) {
+            int next = entry.getValue().nextSetBit(from);
+            if (next >= 0 && next < to) {
+                occupied.add(entry.getKey());
+            }
+        }
+        return occupied;
+    }
+
+    private void sync() {
+        // journal encore vide : since(0) demanderait un rechargement à chaque appel
+        if (loaded && sequence == 0 && changes.currentSequence() == 0) {
+            return;
+        }
+        ChangeSet<Reservation> changeSet = changes.since(sequence);
+        if (changeSet.isFullReloadRequired()) {
+            // la séquence est lue avant les réservations : ce qui arrive entre les deux est rejoué
+            rebuild();
+        } else {
+            for (int id : changeSet.getDeletedIds()) {
+                release(id);
+            }
+            for (Reservation r : changeSet.getUpserted()) {
+                release(r.getId());
+                if (r.getRoom() != null && r.getCheckInDate() != null && r.getCheckOutDate() != null) {
+                    book(r.getId(), r.getRoom().getId(), r.getCheckInDate().toEpochDay(), r.getCheckOutDate().toEpochDay());
+                }
+            }
+        }
+        sequence = changeSet.getSequence();
+        loaded = true;
+    }
+
+    private void rebuild() {
+        nightsByRoom.clear();
+        stays.clear();
+        reservationDao.forEachBooking(LocalDate.ofEpochDay(origin), LocalDate.ofEpochDay(origin + limit), this::book);
+    }
+
+    private void book(int reservationId, int roomId, long checkInDay, long checkOutDay) {
+        int from = bit(checkInDay);
+        int to = bit(checkOutDay);
+        if (from < to) {
+            nightsByRoom.computeIfAbsent(roomId, id -> new BitSet()).set(from, to);
+            stays.put(reservationId, new Stay(roomId, from, to));
+        }
+    }
+
+    // deux réservations d'une chambre n'ont jamais de nuit en commun : effacer les nuits
+    // d'un séjour ne libère que celles-ci
+    private void release(int reservationId) {
+        Stay stay = stays.remove(reservationId);
+        if (stay != null) {
+            BitSet nights = nightsByRoom.get(stay.roomId);
+            if (nights != null) {
+                nights.clear(stay.from, stay.to);
+            }
+        }
+    }
+
+    // borné à [0, limit] : un séjour hors fenêtre devient vide
+    private int bit(long epochDay) {
+        return (int) Math.max(0, Math.min(epochDay - origin, limit));
+    }
+
+    private static final class Stay {
+        final int roomId;
+        final int from;
+        final int to;
+
+        Stay(int roomId, int from, int to) {
+            this.roomId = roomId;
+            this.from = from;
+            this.to = to;
+        }
+    }
+}
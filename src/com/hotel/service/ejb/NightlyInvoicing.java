@@ -0,0 +1,81 @@
+package com.hotel.service.ejb;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Facturation groupée de nuit : chaque jour à {@code hotel.invoice.batchHour} (2 h, -1 pour
+ * la désactiver), factures des réservations parties pendant les
+ * {@code hotel.invoice.lookbackDays} (7) derniers jours ; une nuit manquée est rattrapée
+ * la suivante.
+ * <p>
+ * Démarrée une seule fois, par le serveur ({@code --server}) : les postes clients créent
+ * chacun leur {@link PaymentServiceImpl} et ne doivent pas lancer le traitement. Un second
+ * lancement concurrent reste sans effet, l'index unique sur {@code invoice(reservation_id)}
+ * empêchant les doublons.
+ */
+public final class NightlyInvoicing {
+
+    private static final Logger LOG = Logger.getLogger(NightlyInvoicing.class.getName());
+
+    private static final int BATCH_HOUR = Integer.getInteger("hotel.invoice.batchHour", 2);
+    private static final int LOOKBACK_DAYS = Math.max(1, Integer.getInteger("hotel.invoice.lookbackDays", 7));
+
+    private final PaymentService paymentService;
+    private ScheduledExecutorService scheduler;
+
+    public NightlyInvoicing(PaymentService paymentService) {
+        this.paymentService = paymentService;
+    }
+
+    /**
+     * Planifie le traitement quotidien.
+     *
+     * @return {@code false} s'il est désactivé ou déjà démarré
+     */
+    public synchronized boolean start() {
+        if (scheduler != null || BATCH_HOUR < 0 || BATCH_HOUR > 23) {
+            return false;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "invoice-batch");
+            t.setDaemon(true);
+            return t;
+        });
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime next = now.toLocalDate().atTime(BATCH_HOUR, 0);
+        if (!next.isAfter(now)) {
+            next = next.plusDays(1);
+        }
+        long delayMs = Duration.between(now, next).toMillis();
+        scheduler.scheduleAtFixedRate(this::runOnce, delayMs, TimeUnit.DAYS.toMillis(1), TimeUnit.MILLISECONDS);
+        LOG.info("Facturation de nuit planifiée à " + BATCH_HOUR + " h");
+        return true;
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    // une exception ne doit pas remonter : elle annulerait les exécutions suivantes
+    void runOnce() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        try {
+            int created = paymentService.generateInvoices(yesterday.minusDays(LOOKBACK_DAYS - 1), yesterday);
+            if (created > 0) {
+                LOG.info(created + " facture(s) générée(s)");
+            }
+        } catch (RuntimeException e) {
+            LOG.log(Level.WARNING, "Échec de la facturation de nuit, nouvel essai demain", e);
+        }
+    }
+}
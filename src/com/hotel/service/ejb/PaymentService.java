@@ -1,9 +1,12 @@
 package com.hotel.service.ejb;
 
+import com.hotel.model.ChangeSet;
 import com.hotel.model.Invoice;
 import com.hotel.model.Payment;
+import com.hotel.model.PaymentSort;
 import com.hotel.model.Reservation;
 
+import java.time.LocalDate;
 import java.util.List;
 
 
@@ -11,9 +14,31 @@ public interface PaymentService {
 
     Payment processPayment(Reservation reservation, double amount);
 
+    /**
+     * Comme {@link #processPayment(Reservation, double)}, mais un second appel avec la même
+     * clé (re-essai, double clic) renvoie le paiement déjà enregistré au lieu d'en créer un autre.
+     * Une clé {@code null} désactive la déduplication.
+     */
+    Payment processPayment(Reservation reservation, double amount, String idempotencyKey);
+
+    // renvoie la facture existante de la réservation s'il y en a une
     Invoice generateInvoice(Reservation reservation);
 
+    // facture les réservations terminées (départ dans [from, to]) qui n'en ont pas encore
+    int generateInvoices(LocalDate from, LocalDate to);
+
     List<Payment> getPaymentsForClient(int clientId);
 
+    int countPayments();
+
+    // page triée à partir de la ligne offset, égalités départagées par l'id
+    List<Payment> getPaymentsPage(PaymentSort sort, boolean ascending, int offset, int limit);
+
+    // page suivante, lue après la ligne after sans repasser sur les précédentes
+    List<Payment> getPaymentsPageAfter(PaymentSort sort, boolean ascending, Payment after, int limit);
+
     double getTotalRevenue();
+
+    // paiements enregistrés depuis la séquence donnée (0 au premier appel)
+    ChangeSet<Payment> getPaymentChanges(long sinceSequence);
 }
\ No newline at end of file
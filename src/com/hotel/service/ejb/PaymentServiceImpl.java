@@ -1,34 +1,81 @@
 package com.hotel.service.ejb;
 
+import com.hotel.db.CachingInvoiceDao;
+import com.hotel.db.DuplicateKeyException;
 import com.hotel.db.InvoiceDao;
 import com.hotel.db.InvoiceDaoImpl;
 import com.hotel.db.PaymentDao;
 import com.hotel.db.PaymentDaoImpl;
+import com.hotel.model.ChangeSet;
+import com.hotel.model.ChangeTopic;
 import com.hotel.model.Invoice;
 import com.hotel.model.Payment;
+import com.hotel.model.PaymentSort;
 import com.hotel.model.Reservation;
+import com.hotel.service.ChangeLog;
+import com.hotel.service.ReportAggregates;
 
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 
 public class PaymentServiceImpl implements PaymentService {
 
+    static final int MAX_KEY_LENGTH = 64;
+    private static final int RECENT_KEYS = Math.max(16, Integer.getInteger("hotel.payment.recentKeys", 10000));
+    private static final int INVOICE_LOCK_STRIPES = 64; // puissance de 2
+
     private final PaymentDao paymentDao = new PaymentDaoImpl();
-    private final InvoiceDao invoiceDao = new InvoiceDaoImpl();
+    private final InvoiceDao invoiceDao = new CachingInvoiceDao(new InvoiceDaoImpl());
+    // une seule facture par réservation, même si deux clics arrivent en même temps
+    private final Object[] invoiceLocks = new Object[INVOICE_LOCK_STRIPES];
+    private final ChangeLog<Payment> paymentChanges = new ChangeLog<>(ChangeTopic.PAYMENTS, paymentDao::findById);
+
+    // clés d'idempotence récentes -> paiement enregistré ; l'index unique en base fait foi au-delà
+    private final Map<String, Payment> recentKeys = Collections.synchronizedMap(
+            new LinkedHashMap<String, Payment>(64, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Payment> eldest) {
+                    return size() > RECENT_KEYS;
+                }
+            });
 
     public PaymentServiceImpl() {
+        for (int i = 0; i < invoiceLocks.length; i++) {
+            invoiceLocks[i] = new Object();
+        }
     }
 
     @Override
     public Payment processPayment(Reservation reservation, double amount) {
+        return processPayment(reservation, amount, null);
+    }
+
+    @Override
+    public Payment processPayment(Reservation reservation, double amount, String idempotencyKey) {
         if (reservation == null) {
             throw new IllegalArgumentException("Reservation cannot be null");
         }
         if (amount <= 0) {
             throw new IllegalArgumentException("Amount must be positive");
         }
+        if (idempotencyKey != null && (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH)) {
+            throw new IllegalArgumentException("Idempotency key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+
+        // re-essai récent : une recherche en mémoire, sans aller-retour en base
+        if (idempotencyKey != null) {
+            Payment known = recentKeys.get(idempotencyKey);
+            if (known != null) {
+                return checkSameRequest(known, reservation, amount);
+            }
+        }
 
         Payment payment = new Payment();
         payment.setClient(reservation.getClient());
@@ -36,8 +83,36 @@ public class PaymentServiceImpl implements PaymentService {
         payment.setAmount(amount);
         payment.setDate(LocalDate.now());
         payment.setPaid(true);
+        payment.setIdempotencyKey(idempotencyKey);
+
+        Payment saved;
+        try {
+            saved = paymentDao.save(payment);
+        } catch (DuplicateKeyException e) {
+            // clé déjà enregistrée (autre thread, redémarrage, clé sortie du cache)
+            Payment existing = paymentDao.findByIdempotencyKey(idempotencyKey);
+            if (existing == null) {
+                throw e;
+            }
+            recentKeys.put(idempotencyKey, existing);
+            return checkSameRequest(existing, reservation, amount);
+        }
+        if (idempotencyKey != null) {
+            recentKeys.put(idempotencyKey, saved);
+        }
+        ReportAggregates.getInstance().paymentRecorded(saved);
+        paymentChanges.recordUpsert(saved.getId());
+        return saved;
+    }
 
-        return paymentDao.save(payment);
+    // une clé réutilisée pour une autre réservation ou un autre montant est une erreur de l'appelant
+    private static Payment checkSameRequest(Payment existing, Reservation reservation, double amount) {
+        Reservation paid = existing.getReservation();
+        if ((paid != null && paid.getId() != reservation.getId()) || Double.compare(existing.getAmount(), amount) != 0) {
+            throw new IllegalArgumentException("Clé d'idempotence déjà utilisée pour un autre paiement : "
+                    + existing.getIdempotencyKey());
+        }
+        return existing;
     }
 
     @Override
@@ -55,12 +130,38 @@ public class PaymentServiceImpl implements PaymentService {
         }
         double total = days * reservation.getRoom().getPrice();
 
-        Invoice invoice = new Invoice();
-        invoice.setReservation(reservation);
-        invoice.setDate(LocalDate.now());
-        invoice.setTotalAmount(total);
+        synchronized (invoiceLocks[Integer.hashCode(reservation.getId()) & (INVOICE_LOCK_STRIPES - 1)]) {
+            Invoice existing = invoiceDao.findByReservationId(reservation.getId());
+            if (existing != null) {
+                existing.setReservation(reservation);
+                return existing;
+            }
 
-        return invoiceDao.save(invoice);
+            Invoice invoice = new Invoice();
+            invoice.setReservation(reservation);
+            invoice.setDate(LocalDate.now());
+            invoice.setTotalAmount(total);
+
+            try {
+                return invoiceDao.save(invoice);
+            } catch (DuplicateKeyException e) {
+                // facturée entre-temps par un autre serveur ou par le traitement de nuit
+                Invoice concurrent = invoiceDao.findByReservationId(reservation.getId());
+                if (concurrent == null) {
+                    throw e;
+                }
+                concurrent.setReservation(reservation);
+                return concurrent;
+            }
+        }
+    }
+
+    @Override
+    public int generateInvoices(LocalDate from, LocalDate to) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new IllegalArgumentException("Période invalide : " + from + " → " + to);
+        }
+        return invoiceDao.insertMissing(from, to, LocalDate.now());
     }
 
     @Override
@@ -68,8 +169,28 @@ public class PaymentServiceImpl implements PaymentService {
         return paymentDao.findByClientId(clientId);
     }
 
+    @Override
+    public int countPayments() {
+        return paymentDao.count();
+    }
+
+    @Override
+    public List<Payment> getPaymentsPage(PaymentSort sort, boolean ascending, int offset, int limit) {
+        return paymentDao.findSortedPage(sort, ascending, offset, limit);
+    }
+
+    @Override
+    public List<Payment> getPaymentsPageAfter(PaymentSort sort, boolean ascending, Payment after, int limit) {
+        return paymentDao.findSortedPageAfter(sort, ascending, after, limit);
+    }
+
     @Override
     public double getTotalRevenue() {
         return paymentDao.getTotalRevenue();
     }
+
+    @Override
+    public ChangeSet<Payment> getPaymentChanges(long sinceSequence) {
+        return paymentChanges.since(sinceSequence);
+    }
 }
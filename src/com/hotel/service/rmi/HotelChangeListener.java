@@ -0,0 +1,15 @@
+package com.hotel.service.rmi;
+
+import com.hotel.model.ChangeNotice;
+
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+
+/**
+ * Abonné aux modifications, exporté par le poste client et appelé par le serveur.
+ * L'appel doit rendre la main rapidement : un abonné trop lent est désinscrit.
+ */
+public interface HotelChangeListener extends Remote {
+
+    void changesAvailable(ChangeNotice notice) throws RemoteException;
+}
@@ -0,0 +1,59 @@
+package com.hotel.service.rmi;
+
+import java.rmi.NoSuchObjectException;
+import java.rmi.NotBoundException;
+import java.rmi.RemoteException;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.rmi.server.UnicastRemoteObject;
+
+/**
+ * Démarrage du service hôtel en mode serveur (registre RMI local) et accès
+ * au service depuis un poste client.
+ */
+public final class HotelServer {
+
+    public static final String BINDING_NAME = "HotelService";
+    public static final int DEFAULT_REGISTRY_PORT = Registry.REGISTRY_PORT;
+
+    // références fortes : évite que le registre ou le service exporté soient collectés
+    private static Registry registry;
+    private static HotelServiceImpl service;
+
+    private HotelServer() {
+    }
+
+    /**
+     * Crée le registre sur {@code registryPort}, exporte le service sur {@code servicePort}
+     * (0 = port anonyme) et l'y enregistre.
+     */
+    public static synchronized HotelServiceImpl start(int registryPort, int servicePort) throws RemoteException {
+        TimeoutSocketFactory sockets = TimeoutSocketFactory.fromSystemProperties();
+        registry = LocateRegistry.createRegistry(registryPort);
+        service = new HotelServiceImpl(servicePort, sockets, sockets);
+        registry.rebind(BINDING_NAME, service);
+        return service;
+    }
+
+    /** Retire le service et le registre démarrés par {@link #start}. */
+    public static synchronized void stop() throws NoSuchObjectException {
+        if (service != null) {
+            UnicastRemoteObject.unexportObject(service, true);
+            service = null;
+        }
+        if (registry != null) {
+            UnicastRemoteObject.unexportObject(registry, true);
+            registry = null;
+        }
+    }
+
+    /** Récupère le stub du service publié sur {@code host:registryPort}. */
+    public static HotelService lookup(String host, int registryPort) throws RemoteException {
+        Registry registry = LocateRegistry.getRegistry(host, registryPort, TimeoutSocketFactory.fromSystemProperties());
+        try {
+            return (HotelService) registry.lookup(BINDING_NAME);
+        } catch (NotBoundException e) {
+            throw new RemoteException("Aucun service '" + BINDING_NAME + "' sur " + host + ":" + registryPort, e);
+        }
+    }
+}
@@ -5,26 +5,82 @@ import java.rmi.RemoteException;
 import java.time.LocalDate;
 import java.util.List;
 
+import com.hotel.model.ChangeSet;
 import com.hotel.model.Client;
+import com.hotel.model.Invoice;
+import com.hotel.model.Payment;
+import com.hotel.model.PaymentSort;
 import com.hotel.model.Reservation;
+import com.hotel.model.ReservationFilter;
+import com.hotel.model.ReservationSort;
 import com.hotel.model.Room;
+import com.hotel.service.Granularity;
 
 public interface HotelService extends Remote {
+    // Taille maximale d'une page renvoyée par les méthodes *Page / findReservations
+    int MAX_PAGE_SIZE = 500;
+
     // Room operations
     List<Room> getAllRooms() throws RemoteException;
     List<Room> getAvailableRooms() throws RemoteException;
+    // null si la chambre n'existe pas
+    Room getRoom(int id) throws RemoteException;
+    // chambres en service et libres toutes les nuits de [checkIn, checkOut) ; type null = tous
+    List<Room> getAvailableRooms(LocalDate checkIn, LocalDate checkOut, String type) throws RemoteException;
     void addRoom(Room room) throws RemoteException;
     void updateRoom(Room room) throws RemoteException;
     void deleteRoom(int id) throws RemoteException;
+    // pagination par clé : passer l'id de la dernière ligne reçue (0 pour la première page)
+    List<Room> getRoomsPage(String type, int afterId, int limit) throws RemoteException;
 
     // Client operations
     List<Client> getAllClients() throws RemoteException;
     void addClient(Client client) throws RemoteException;
     Client findClientByName(String name) throws RemoteException;
+    List<Client> getClientsPage(int afterId, int limit) throws RemoteException;
 
     // Reservation operations
     List<Reservation> getAllReservations() throws RemoteException;
+
+    int countReservations() throws RemoteException;
+
+    // page triée à partir de la ligne offset, au plus MAX_PAGE_SIZE lignes
+    List<Reservation> getReservationsPage(ReservationSort sort, boolean ascending, int offset, int limit) throws RemoteException;
+    List<Reservation> findReservations(ReservationFilter filter, int afterId, int limit) throws RemoteException;
     Reservation makeReservation(Client client, Room room, LocalDate checkIn, LocalDate checkOut) throws RemoteException;
     void cancelReservation(int reservationId) throws RemoteException;
     void confirmReservation(int reservationId) throws RemoteException;
-}
\ No newline at end of file
+
+    // Payment operations : servies par le serveur, les postes clients n'écrivent pas en base
+    Payment processPayment(Reservation reservation, double amount, String idempotencyKey) throws RemoteException;
+    Invoice generateInvoice(Reservation reservation) throws RemoteException;
+    List<Payment> getPaymentsForClient(int clientId) throws RemoteException;
+    double getTotalRevenue() throws RemoteException;
+    int countPayments() throws RemoteException;
+    // page triée à partir de la ligne offset, au plus MAX_PAGE_SIZE lignes
+    List<Payment> getPaymentsPage(PaymentSort sort, boolean ascending, int offset, int limit) throws RemoteException;
+    // page suivante, lue après la ligne after (pagination par clé de tri puis id)
+    List<Payment> getPaymentsPageAfter(PaymentSort sort, boolean ascending, Payment after, int limit) throws RemoteException;
+
+    // Reports : calculés par le serveur, qui tient les agrégats
+    String generateOccupancyReport() throws RemoteException;
+    String generateRevenueReport() throws RemoteException;
+    String generateOccupancyTimeSeries(LocalDate from, LocalDate to, Granularity granularity, String roomType) throws RemoteException;
+    String generateClientHistoryReport(Client client) throws RemoteException;
+
+    // Journaux de modifications : passer la séquence du ChangeSet précédent (0 au premier appel)
+    ChangeSet<Room> getRoomChanges(long sinceSequence) throws RemoteException;
+
+    ChangeSet<Client> getClientChanges(long sinceSequence) throws RemoteException;
+
+    ChangeSet<Reservation> getReservationChanges(long sinceSequence) throws RemoteException;
+
+    ChangeSet<Payment> getPaymentChanges(long sinceSequence) throws RemoteException;
+
+    // Notifications poussées (chambres, clients, réservations, paiements), fusionnées par abonné.
+    // Sans effet si l'abonné est déjà inscrit ; renvoie true s'il ne l'était pas (ou plus :
+    // le serveur désinscrit les abonnés trop lents ou injoignables). Sert aussi de battement de cœur.
+    boolean addChangeListener(HotelChangeListener listener) throws RemoteException;
+
+    void removeChangeListener(HotelChangeListener listener) throws RemoteException;
+}
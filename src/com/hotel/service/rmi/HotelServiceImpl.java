@@ -1,112 +1,294 @@
 package com.hotel.service.rmi;
 
+import com.hotel.db.CachingClientDao;
+import com.hotel.db.CachingRoomDao;
 import com.hotel.db.ClientDao;
 import com.hotel.db.ClientDaoImpl;
 import com.hotel.db.ReservationDao;
 import com.hotel.db.ReservationDaoImpl;
 import com.hotel.db.RoomDao;
 import com.hotel.db.RoomDaoImpl;
+import com.hotel.db.TransactionManager;
+import com.hotel.model.ChangeSet;
+import com.hotel.model.ChangeTopic;
 import com.hotel.model.Client;
+import com.hotel.model.Invoice;
+import com.hotel.model.Payment;
+import com.hotel.model.PaymentSort;
 import com.hotel.model.Reservation;
+import com.hotel.model.ReservationFilter;
+import com.hotel.model.ReservationSort;
 import com.hotel.model.Room;
+import com.hotel.service.ChangeLog;
+import com.hotel.service.ChangeNotifier;
+import com.hotel.service.OptimisticRetry;
+import com.hotel.service.Granularity;
+import com.hotel.service.ReportAggregates;
+import com.hotel.service.ReportService;
+import com.hotel.service.ReportServiceImpl;
+import com.hotel.service.RoomAvailabilityIndex;
+import com.hotel.service.ejb.PaymentService;
+import com.hotel.service.ejb.PaymentServiceImpl;
 
 import java.rmi.RemoteException;
+import java.rmi.server.RMIClientSocketFactory;
+import java.rmi.server.RMIServerSocketFactory;
 import java.rmi.server.UnicastRemoteObject;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Implémentation du service hôtel.
+ * <p>
+ * Modèle de concurrence :
+ * <ul>
+ *   <li>les lectures de catalogue (chambres, clients, réservations, disponibilités)
+ *       ne prennent aucun verrou ;</li>
+ *   <li>la base fait foi : {@code room} et {@code reservation} portent une colonne
+ *       {@code version} et leurs UPDATE sont conditionnels. Une réservation contrôle le
+ *       chevauchement en SQL puis incrémente la version de la chambre dans la même
+ *       transaction : deux serveurs qui réservent la même chambre en même temps ne
+ *       peuvent pas valider tous les deux, le perdant rejoue ({@link OptimisticRetry}).</li>
+ *   <li>dans un même serveur, les écritures qui touchent une chambre passent en plus par
+ *       un verrou "strié" choisi d'après l'id de la chambre. Il n'est pas nécessaire à la
+ *       cohérence de la base ; il évite les conflits inutiles entre threads locaux.</li>
+ * </ul>
+ * Garantie : pour une chambre donnée, deux réservations acceptées n'ont jamais de nuit
+ * en commun, même avec plusieurs serveurs sur la même base. La recherche de chambres
+ * libres écarte d'abord les chambres occupées d'après un {@link RoomAvailabilityIndex}
+ * tenu à jour par le journal des réservations, puis vérifie les autres en SQL : elle voit
+ * aussi les réservations des autres serveurs.
+ * <p>
+ * Les séjours sont acceptés d'un an en arrière jusqu'à {@code hotel.booking.horizonYears}
+ * (5) ans à l'avance.
+ * <p>
+ * Les paiements sont délégués à un {@link PaymentServiceImpl} : un poste {@code --client}
+ * les fait passer par ce service ({@link RemotePaymentService}), et leurs avis partent
+ * ainsi vers ses abonnés comme ceux des réservations. Les rapports sont calculés ici aussi
+ * ({@link RemoteReportService}) : seul le serveur tient des agrégats à jour.
+ */
 public class HotelServiceImpl extends UnicastRemoteObject implements HotelService {
     private static final long serialVersionUID = 1L;
 
-    private final ClientDao clientDao = new ClientDaoImpl();
-    private final RoomDao roomDao = new RoomDaoImpl();
+    // nombre de verrous (puissance de 2) ; plusieurs chambres peuvent partager un verrou
+    private static final int LOCK_STRIPES = 64;
+
+    // réservations acceptées jusqu'à tant d'années à l'avance (-Dhotel.booking.horizonYears)
+    private static final int HORIZON_YEARS = Math.max(1, Integer.getInteger("hotel.booking.horizonYears", 5));
+
+    private final ClientDao clientDao = new CachingClientDao(new ClientDaoImpl());
+    private final RoomDao roomDao = new CachingRoomDao(new RoomDaoImpl());
     private final ReservationDao reservationDao = new ReservationDaoImpl();
+    private final PaymentService paymentService = new PaymentServiceImpl();
+    private final ReportService reportService = new ReportServiceImpl();
+    private final ReentrantLock[] roomLocks = new ReentrantLock[LOCK_STRIPES];
+    private final ReportAggregates aggregates = ReportAggregates.getInstance();
+    private final ChangeLog<Room> roomChanges = new ChangeLog<>(ChangeTopic.ROOMS, roomDao::getRoomById);
+    private final ChangeLog<Client> clientChanges = new ChangeLog<>(ChangeTopic.CLIENTS, clientDao::findById);
+    private final ChangeLog<Reservation> reservationChanges = new ChangeLog<>(ChangeTopic.RESERVATIONS, reservationDao::findById);
+    private final RoomAvailabilityIndex availability = new RoomAvailabilityIndex(reservationDao, reservationChanges);
 
     public HotelServiceImpl() throws RemoteException {
         super();
+        initialise();
+    }
+
+    // exporté sur un port et des sockets donnés (mode serveur, cf. HotelServer)
+    public HotelServiceImpl(int port, RMIClientSocketFactory csf, RMIServerSocketFactory ssf) throws RemoteException {
+        super(port, csf, ssf);
+        initialise();
+    }
+
+    private void initialise() {
+        for (int i = 0; i < roomLocks.length; i++) {
+            roomLocks[i] = new ReentrantLock();
+        }
         initialiseSampleData();
     }
 
     private void initialiseSampleData() {
         // Chambres
         if (roomDao.getAllRooms().isEmpty()) {
-            roomDao.addRoom(new Room(0, "101", "Single", 50.0, true));
-            roomDao.addRoom(new Room(0, "102", "Double", 80.0, true));
-            roomDao.addRoom(new Room(0, "201", "Suite", 120.0, true));
+            roomDao.saveAll(List.of(
+                    new Room(0, "101", "Single", 50.0, true),
+                    new Room(0, "102", "Double", 80.0, true),
+                    new Room(0, "201", "Suite", 120.0, true)));
         }
 
         // Clients
         if (clientDao.findAll().isEmpty()) {
-            clientDao.add(new Client(0, "Alice", "1234 Avenue Street", "alice@example.com"));
-            clientDao.add(new Client(0, "Bob", "5678 Boulevard", "bob@example.com"));
+            clientDao.saveAll(List.of(
+                    new Client(0, "Alice", "1234 Avenue Street", "alice@example.com"),
+                    new Client(0, "Bob", "5678 Boulevard", "bob@example.com")));
         }
     }
 
+    private static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    // dates présentes, dans l'ordre, d'un an en arrière au plus jusqu'à l'horizon de réservation
+    private static boolean isBookable(LocalDate checkIn, LocalDate checkOut) {
+        LocalDate today = LocalDate.now();
+        return checkIn != null && checkOut != null && checkOut.isAfter(checkIn)
+                && !checkIn.isBefore(today.minusYears(1))
+                && !checkOut.isAfter(today.plusYears(HORIZON_YEARS));
+    }
+
+    private ReentrantLock lockFor(int roomId) {
+        return roomLocks[Integer.hashCode(roomId) & (LOCK_STRIPES - 1)];
+    }
+
     // -------------------- Room operations --------------------
 
     @Override
-    public synchronized List<Room> getAllRooms() {
+    public List<Room> getAllRooms() {
         return roomDao.getAllRooms();
     }
 
     @Override
-    public synchronized List<Room> getAvailableRooms() {
+    public List<Room> getAvailableRooms() {
         return roomDao.getAvailableRooms();
     }
 
     @Override
-    public synchronized void addRoom(Room room) {
+    public Room getRoom(int id) {
+        return roomDao.getRoomById(id);
+    }
+
+    @Override
+    public List<Room> getAvailableRooms(LocalDate checkIn, LocalDate checkOut, String type) {
+        if (!isBookable(checkIn, checkOut)) {
+            return new ArrayList<>();
+        }
+        return roomDao.findAvailable(checkIn, checkOut, type, availability.occupiedRooms(checkIn, checkOut));
+    }
+
+    @Override
+    public void addRoom(Room room) {
         roomDao.addRoom(room);
+        aggregates.roomAdded();
+        roomChanges.recordUpsert(room.getId());
     }
 
     @Override
-    public synchronized void updateRoom(Room room) {
-        roomDao.updateRoom(room);
+    public void updateRoom(Room room) {
+        ReentrantLock lock = lockFor(room.getId());
+        lock.lock();
+        try {
+            roomDao.updateRoom(room);
+            roomChanges.recordUpsert(room.getId());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void deleteRoom(int id) {
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            roomDao.deleteRoom(id);
+            aggregates.roomRemoved();
+            roomChanges.recordDelete(id);
+        } finally {
+            lock.unlock();
+        }
     }
 
     @Override
-    public synchronized void deleteRoom(int id) {
-        roomDao.deleteRoom(id);
+    public List<Room> getRoomsPage(String type, int afterId, int limit) {
+        return roomDao.findPage(type, afterId, pageSize(limit));
     }
 
     // -------------------- Client operations --------------------
 
     @Override
-    public synchronized List<Client> getAllClients() {
+    public List<Client> getAllClients() {
         return clientDao.findAll();
     }
 
     @Override
-    public synchronized void addClient(Client client) {
+    public void addClient(Client client) {
         clientDao.add(client);
+        clientChanges.recordUpsert(client.getId());
     }
 
     @Override
-    public synchronized Client findClientByName(String name) {
+    public Client findClientByName(String name) {
         return clientDao.findByName(name);
     }
 
+    @Override
+    public List<Client> getClientsPage(int afterId, int limit) {
+        return clientDao.findPage(afterId, pageSize(limit));
+    }
+
     // -------------------- Reservation operations --------------------
 
     @Override
-    public synchronized List<Reservation> getAllReservations() {
+    public List<Reservation> getAllReservations() {
         return reservationDao.findAll();
     }
 
     @Override
-    public synchronized Reservation makeReservation(Client client,
-                                                    Room room,
-                                                    LocalDate checkIn,
-                                                    LocalDate checkOut) {
+    public int countReservations() {
+        return reservationDao.count();
+    }
 
-        Room managedRoom = roomDao.getRoomById(room.getId());
-        if (managedRoom == null || !managedRoom.isAvailable()) {
+    @Override
+    public List<Reservation> getReservationsPage(ReservationSort sort, boolean ascending, int offset, int limit) {
+        return reservationDao.findSortedPage(sort, ascending, Math.max(0, offset), pageSize(limit));
+    }
+
+    @Override
+    public List<Reservation> findReservations(ReservationFilter filter, int afterId, int limit) {
+        return reservationDao.findPage(filter, afterId, pageSize(limit));
+    }
+
+    @Override
+    public Reservation makeReservation(Client client,
+                                       Room room,
+                                       LocalDate checkIn,
+                                       LocalDate checkOut) {
+
+        if (!isBookable(checkIn, checkOut)) {
             return null;
         }
 
+        // conflit de version (autre serveur sur la même chambre) : transaction rejouée
+        Reservation saved = OptimisticRetry.run(() -> {
+            ReentrantLock lock = lockFor(room.getId());
+            lock.lock();
+            try {
+                // une connexion et un commit par réservation ; agrégats et journal mis à jour après le commit
+                return TransactionManager.inTransaction(() -> book(client, room.getId(), checkIn, checkOut));
+            } finally {
+                lock.unlock();
+            }
+        });
+        if (saved != null) {
+            aggregates.reservationAdded(saved);
+            reservationChanges.recordUpsert(saved.getId());
+        }
+        return saved;
+    }
 
-        managedRoom.setAvailable(false);
-        roomDao.updateRoom(managedRoom);
+    // dans la transaction de makeReservation
+    private Reservation book(Client client, int roomId, LocalDate checkIn, LocalDate checkOut) {
+        // le flag available signifie "chambre en service" ; l'occupation est suivie par date
+        Room managedRoom = roomDao.getRoomById(roomId);
+        if (managedRoom == null || !managedRoom.isAvailable()) {
+            return null;
+        }
+        if (reservationDao.hasOverlap(roomId, checkIn, checkOut)) {
+            return null;
+        }
+        // toute réservation validée depuis la lecture de la chambre a incrémenté sa version :
+        // OptimisticLockException ici, la transaction est annulée puis rejouée
+        roomDao.incrementVersion(managedRoom);
 
         Reservation reservation = new Reservation();
         reservation.setClient(client);
@@ -114,27 +296,155 @@ public class HotelServiceImpl extends UnicastRemoteObject implements HotelServic
         reservation.setCheckInDate(checkIn);
         reservation.setCheckOutDate(checkOut);
         reservation.setConfirmed(false);
-
         return reservationDao.save(reservation);
     }
 
     @Override
-    public synchronized void cancelReservation(int reservationId) {
+    public void cancelReservation(int reservationId) {
         Reservation res = reservationDao.findById(reservationId);
-        if (res != null) {
-            Room room = res.getRoom();
-            room.setAvailable(true);
-            roomDao.updateRoom(room);
-            reservationDao.delete(reservationId);
+        if (res == null) {
+            return;
+        }
+        int roomId = res.getRoom().getId();
+        // DELETE conditionnel sur la version lue : une modification concurrente (confirmation,
+        // autre serveur) fait rejouer la relecture plutôt que supprimer une ligne changée
+        Reservation removed = OptimisticRetry.run(() -> {
+            ReentrantLock lock = lockFor(roomId);
+            lock.lock();
+            try {
+                return TransactionManager.inTransaction(() -> {
+                    Reservation current = reservationDao.findById(reservationId);
+                    if (current != null) {
+                        reservationDao.delete(reservationId, current.getVersion());
+                    }
+                    return current;
+                });
+            } finally {
+                lock.unlock();
+            }
+        });
+        if (removed != null) {
+            aggregates.reservationRemoved(removed);
+            reservationChanges.recordDelete(reservationId);
         }
     }
 
     @Override
-    public synchronized void confirmReservation(int reservationId) {
+    public void confirmReservation(int reservationId) {
         Reservation res = reservationDao.findById(reservationId);
-        if (res != null) {
-            res.setConfirmed(true);
-            reservationDao.update(res);
+        if (res == null) {
+            return;
         }
+        int roomId = res.getRoom().getId();
+        Reservation confirmed = OptimisticRetry.run(() -> {
+            ReentrantLock lock = lockFor(roomId);
+            lock.lock();
+            try {
+                return TransactionManager.inTransaction(() -> {
+                    Reservation current = reservationDao.findById(reservationId);
+                    if (current != null) {
+                        current.setConfirmed(true);
+                        reservationDao.update(current);
+                    }
+                    return current;
+                });
+            } finally {
+                lock.unlock();
+            }
+        });
+        if (confirmed != null) {
+            reservationChanges.recordUpsert(confirmed.getId());
+        }
+    }
+
+    // -------------------- Payment operations --------------------
+
+    @Override
+    public Payment processPayment(Reservation reservation, double amount, String idempotencyKey) {
+        return paymentService.processPayment(reservation, amount, idempotencyKey);
+    }
+
+    @Override
+    public Invoice generateInvoice(Reservation reservation) {
+        return paymentService.generateInvoice(reservation);
+    }
+
+    @Override
+    public List<Payment> getPaymentsForClient(int clientId) {
+        return paymentService.getPaymentsForClient(clientId);
+    }
+
+    @Override
+    public double getTotalRevenue() {
+        return paymentService.getTotalRevenue();
+    }
+
+    @Override
+    public int countPayments() {
+        return paymentService.countPayments();
+    }
+
+    @Override
+    public List<Payment> getPaymentsPage(PaymentSort sort, boolean ascending, int offset, int limit) {
+        return paymentService.getPaymentsPage(sort, ascending, Math.max(0, offset), pageSize(limit));
+    }
+
+    @Override
+    public List<Payment> getPaymentsPageAfter(PaymentSort sort, boolean ascending, Payment after, int limit) {
+        return paymentService.getPaymentsPageAfter(sort, ascending, after, pageSize(limit));
+    }
+
+    // -------------------- Reports --------------------
+
+    @Override
+    public String generateOccupancyReport() {
+        return reportService.generateOccupancyReport();
+    }
+
+    @Override
+    public String generateRevenueReport() {
+        return reportService.generateRevenueReport();
+    }
+
+    @Override
+    public String generateOccupancyTimeSeries(LocalDate from, LocalDate to, Granularity granularity, String roomType) {
+        return reportService.generateOccupancyTimeSeries(from, to, granularity, roomType);
+    }
+
+    @Override
+    public String generateClientHistoryReport(Client client) {
+        return reportService.generateClientHistoryReport(client);
+    }
+
+    // -------------------- Change logs --------------------
+
+    @Override
+    public ChangeSet<Room> getRoomChanges(long sinceSequence) {
+        return roomChanges.since(sinceSequence);
+    }
+
+    @Override
+    public ChangeSet<Client> getClientChanges(long sinceSequence) {
+        return clientChanges.since(sinceSequence);
+    }
+
+    @Override
+    public ChangeSet<Reservation> getReservationChanges(long sinceSequence) {
+        return reservationChanges.since(sinceSequence);
+    }
+
+    @Override
+    public ChangeSet<Payment> getPaymentChanges(long sinceSequence) {
+        return paymentService.getPaymentChanges(sinceSequence);
+    }
+
+    @Override
+    public boolean addChangeListener(HotelChangeListener listener) {
+        return ChangeNotifier.getInstance().subscribe(listener);
+    }
+
+    @Override
+    public void removeChangeListener(HotelChangeListener listener) {
+        ChangeNotifier.getInstance().unsubscribe(listener);
     }
 }
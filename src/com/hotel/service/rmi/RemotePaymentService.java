@@ -0,0 +1,110 @@
+package com.hotel.service.rmi;
+
+import com.hotel.model.ChangeSet;
+import com.hotel.model.Invoice;
+import com.hotel.model.Payment;
+import com.hotel.model.PaymentSort;
+import com.hotel.model.Reservation;
+import com.hotel.service.ejb.PaymentService;
+
+import java.rmi.RemoteException;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * {@link PaymentService} d'un poste {@code --client} : chaque appel est fait par le serveur
+ * via {@link HotelService}. Une {@link RemoteException} remonte en RuntimeException, comme
+ * une erreur de base côté serveur.
+ * <p>
+ * La facturation groupée reste réservée au serveur (traitement de nuit).
+ */
+public class RemotePaymentService implements PaymentService {
+
+    private final HotelService hotelService;
+
+    public RemotePaymentService(HotelService hotelService) {
+        this.hotelService = hotelService;
+    }
+
+    @Override
+    public Payment processPayment(Reservation reservation, double amount) {
+        return processPayment(reservation, amount, null);
+    }
+
+    @Override
+    public Payment processPayment(Reservation reservation, double amount, String idempotencyKey) {
+        try {
+            return hotelService.processPayment(reservation, amount, idempotencyKey);
+        } catch (RemoteException e) {
+            throw new RuntimeException("Erreur lors de l'enregistrement du paiement", e);
+        }
+    }
+
+    @Override
+    public Invoice generateInvoice(Reservation reservation) {
+        try {
+            return hotelService.generateInvoice(reservation);
+        } catch (RemoteException e) {
+            throw new RuntimeException("Erreur lors de la génération de la facture", e);
+        }
+    }
+
+    @Override
+    public int generateInvoices(LocalDate from, LocalDate to) {
+        throw new UnsupportedOperationException("Facturation groupée réservée au serveur");
+    }
+
+    @Override
+    public List<Payment> getPaymentsForClient(int clientId) {
+        try {
+            return hotelService.getPaymentsForClient(clientId);
+        } catch (RemoteException e) {
+            throw new RuntimeException("Erreur lors de la recherche des paiements du client", e);
+        }
+    }
+
+    @Override
+    public int countPayments() {
+        try {
+            return hotelService.countPayments();
+        } catch (RemoteException e) {
+            throw new RuntimeException("Erreur lors du comptage des paiements", e);
+        }
+    }
+
+    @Override
+    public List<Payment> getPaymentsPage(PaymentSort sort, boolean ascending, int offset, int limit) {
+        try {
+            return hotelService.getPaymentsPage(sort, ascending, offset, limit);
+        } catch (RemoteException e) {
+            throw new RuntimeException("Erreur lors de la lecture des paiements", e);
+        }
+    }
+
+    @Override
+    public List<Payment> getPaymentsPageAfter(PaymentSort sort, boolean ascending, Payment after, int limit) {
+        try {
+            return hotelService.getPaymentsPageAfter(sort, ascending, after, limit);
+        } catch (RemoteException e) {
+            throw new RuntimeException("Erreur lors de la lecture des paiements", e);
+        }
+    }
+
+    @Override
+    public double getTotalRevenue() {
+        try {
+            return hotelService.getTotalRevenue();
+        } catch (RemoteException e) {
+            throw new RuntimeException("Erreur lors du calcul du chiffre d'affaires", e);
+        }
+    }
+
+    @Override
+    public ChangeSet<Payment> getPaymentChanges(long sinceSequence) {
+        try {
+            return hotelService.getPaymentChanges(sinceSequence);
+        } catch (RemoteException e) {
+            throw new RuntimeException("Erreur lors de la lecture du journal des paiements", e);
+        }
+    }
+}
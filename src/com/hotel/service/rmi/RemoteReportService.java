@@ -0,0 +1,58 @@
+package com.hotel.service.rmi;
+
+import com.hotel.model.Client;
+import com.hotel.service.Granularity;
+import com.hotel.service.ReportService;
+
+import java.rmi.RemoteException;
+import java.time.LocalDate;
+
+/**
+ * {@link ReportService} d'un poste {@code --client} : les rapports sont calculés par le
+ * serveur, seul à tenir et réconcilier les agrégats. Une {@link RemoteException} remonte
+ * en RuntimeException.
+ */
+public class RemoteReportService implements ReportService {
+
+    private final HotelService hotelService;
+
+    public RemoteReportService(HotelService hotelService) {
+        this.hotelService = hotelService;
+    }
+
+    @Override
+    public String generateOccupancyReport() {
+        try {
+            return hotelService.generateOccupancyReport();
+        } catch (RemoteException e) {
+            throw new RuntimeException("Erreur lors du calcul du rapport d'occupation", e);
+        }
+    }
+
+    @Override
+    public String generateRevenueReport() {
+        try {
+            return hotelService.generateRevenueReport();
+        } catch (RemoteException e) {
+            throw new RuntimeException("Erreur lors du calcul du rapport de chiffre d'affaires", e);
+        }
+    }
+
+    @Override
+    public String generateOccupancyTimeSeries(LocalDate from, LocalDate to, Granularity granularity, String roomType) {
+        try {
+            return hotelService.generateOccupancyTimeSeries(from, to, granularity, roomType);
+        } catch (RemoteException e) {
+            throw new RuntimeException("Erreur lors du calcul de la série d'occupation", e);
+        }
+    }
+
+    @Override
+    public String generateClientHistoryReport(Client client) {
+        try {
+            return hotelService.generateClientHistoryReport(client);
+        } catch (RemoteException e) {
+            throw new RuntimeException("Erreur lors du calcul de l'historique client", e);
+        }
+    }
+}
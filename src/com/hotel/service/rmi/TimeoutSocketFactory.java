@@ -0,0 +1,71 @@
+package com.hotel.service.rmi;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.rmi.server.RMIClientSocketFactory;
+import java.rmi.server.RMIServerSocketFactory;
+import java.util.Objects;
+
+/**
+ * Fabrique de sockets RMI avec délais de connexion / lecture et TCP_NODELAY.
+ * <p>
+ * La partie cliente est sérialisée dans le stub : ses délais s'appliquent donc
+ * sur les postes qui appellent le service.
+ */
+public class TimeoutSocketFactory implements RMIClientSocketFactory, RMIServerSocketFactory, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final int connectTimeoutMs;
+    private final int readTimeoutMs;
+
+    public TimeoutSocketFactory(int connectTimeoutMs, int readTimeoutMs) {
+        this.connectTimeoutMs = connectTimeoutMs;
+        this.readTimeoutMs = readTimeoutMs;
+    }
+
+    /** Délais lus dans {@code hotel.rmi.connectTimeoutMs} (5 s) et {@code hotel.rmi.readTimeoutMs} (30 s). */
+    public static TimeoutSocketFactory fromSystemProperties() {
+        return new TimeoutSocketFactory(
+                Integer.getInteger("hotel.rmi.connectTimeoutMs", 5_000),
+                Integer.getInteger("hotel.rmi.readTimeoutMs", 30_000));
+    }
+
+    @Override
+    public Socket createSocket(String host, int port) throws IOException {
+        Socket socket = new Socket();
+        socket.setTcpNoDelay(true);
+        socket.setKeepAlive(true);
+        socket.setSoTimeout(readTimeoutMs);
+        socket.connect(new InetSocketAddress(host, port), connectTimeoutMs);
+        return socket;
+    }
+
+    @Override
+    public ServerSocket createServerSocket(int port) throws IOException {
+        return new ServerSocket(port) {
+            @Override
+            public Socket accept() throws IOException {
+                Socket socket = super.accept();
+                socket.setTcpNoDelay(true);
+                return socket;
+            }
+        };
+    }
+
+    // RMI réutilise les connexions des fabriques égales : equals/hashCode sont nécessaires
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TimeoutSocketFactory that = (TimeoutSocketFactory) o;
+        return connectTimeoutMs == that.connectTimeoutMs && readTimeoutMs == that.readTimeoutMs;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(connectTimeoutMs, readTimeoutMs);
+    }
+}
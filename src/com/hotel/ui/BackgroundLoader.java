@@ -0,0 +1,124 @@
+package com.hotel.ui;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Exécute les appels service / DAO des écrans hors de l'EDT, sur les threads de
+ * {@link SwingWorker}, et remet le résultat sur l'EDT.
+ * <ul>
+ *   <li>{@link #load} : lecture identifiée par une clé ; relancer la même clé rend la
+ *       précédente obsolète (annulée, son résultat est ignoré) ;</li>
+ *   <li>{@link #run} : écriture, jamais annulée ;</li>
+ *   <li>une barre de progression indéterminée reste visible tant qu'une tâche tourne ;</li>
+ *   <li>les erreurs sont affichées dans une boîte de dialogue.</li>
+ * </ul>
+ * Toutes les méthodes s'appellent depuis l'EDT.
+ */
+public class BackgroundLoader {
+
+    @FunctionalInterface
+    public interface Task<T> {
+        T call() throws Exception;
+    }
+
+    private final Component owner;
+    private final JProgressBar progressBar = new JProgressBar();
+    private final Map<String, SwingWorker<?, ?>> latest = new HashMap<>();
+    private int running;
+
+    public BackgroundLoader(Component owner) {
+        this.owner = owner;
+        progressBar.setIndeterminate(true);
+        progressBar.setPreferredSize(new Dimension(120, 16));
+        progressBar.setVisible(false);
+    }
+
+    /** Indicateur d'activité à placer dans l'écran. */
+    public JProgressBar getProgressBar() {
+        return progressBar;
+    }
+
+    /** Lance une lecture ; une lecture de même clé encore en cours est annulée. */
+    public <T> void load(String key, Task<T> task, Consumer<? super T> onSuccess) {
+        SwingWorker<?, ?> previous = latest.get(key);
+        if (previous != null) {
+            // pas d'interruption : un appel JDBC / RMI interrompu peut laisser la connexion
+            // dans un état douteux ; le résultat sera simplement ignoré
+            previous.cancel(false);
+        }
+        latest.put(key, start(key, owner, task, onSuccess));
+    }
+
+    /** Lance une écriture puis {@code onSuccess} sur l'EDT ; les erreurs s'affichent sur {@code parent}. */
+    public <T> void run(Component parent, Task<T> task, Consumer<? super T> onSuccess) {
+        start(null, parent, task, onSuccess);
+    }
+
+    public <T> void run(Task<T> task, Consumer<? super T> onSuccess) {
+        run(owner, task, onSuccess);
+    }
+
+    private <T> SwingWorker<T, Void> start(String key, Component parent, Task<T> task, Consumer<? super T> onSuccess) {
+        SwingWorker<T, Void> worker = new SwingWorker<T, Void>() {
+            @Override
+            protected T doInBackground() throws Exception {
+                return task.call();
+            }
+
+            @Override
+            protected void done() {
+                finished();
+                if (key != null && latest.get(key) == this) {
+                    latest.remove(key);
+                } else if (key != null) {
+                    return; // remplacée par une lecture plus récente
+                }
+                if (isCancelled()) {
+                    return;
+                }
+                try {
+                    onSuccess.accept(get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    JOptionPane.showMessageDialog(parent, "Error: " + cause.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        running++;
+        progressBar.setVisible(true);
+        worker.execute();
+        return worker;
+    }
+
+    private void finished() {
+        running--;
+        if (running == 0) {
+            progressBar.setVisible(false);
+        }
+    }
+
+    /**
+     * Remplace toutes les lignes du modèle en un seul événement {@code tableDataChanged},
+     * au lieu d'un événement (et d'un repaint) par {@code addRow}.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public static void replaceRows(DefaultTableModel model, List<Object[]> rows) {
+        Vector<Vector> data = model.getDataVector();
+        data.clear();
+        for (Object[] row : rows) {
+            data.add(new Vector<>(Arrays.asList(row)));
+        }
+        model.fireTableDataChanged();
+    }
+}
@@ -0,0 +1,127 @@
+package com.hotel.ui;
+
+import com.hotel.model.ChangeNotice;
+import com.hotel.model.ChangeTopic;
+import com.hotel.service.rmi.HotelChangeListener;
+import com.hotel.service.rmi.HotelService;
+import com.hotel.service.rmi.TimeoutSocketFactory;
+
+import javax.swing.*;
+import java.lang.reflect.Proxy;
+import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Relais côté poste des avis de modification poussés par le serveur.
+ * <p>
+ * Un seul abonné est inscrit auprès de chaque {@link HotelService} ; il n'est exporté
+ * en objet RMI que si le service est distant. Les panneaux s'abonnent par table et leurs
+ * {@link Runnable} sont exécutés sur l'EDT ; ils relisent alors les changements via leur
+ * journal ({@code get*Changes}).
+ * <p>
+ * Le serveur désinscrit un abonné trop lent ou injoignable sans le prévenir : l'abonné se
+ * réinscrit donc toutes les {@code hotel.notify.heartbeatSeconds} (30 s). Si le serveur
+ * l'avait perdu, tous les panneaux abonnés sont relancés une fois pour rattraper les avis
+ * manqués entre-temps.
+ */
+public final class ChangeEvents implements HotelChangeListener {
+
+    private static final Logger LOG = Logger.getLogger(ChangeEvents.class.getName());
+
+    private static final long HEARTBEAT_SECONDS = Long.getLong("hotel.notify.heartbeatSeconds", 30);
+
+    private static final Map<HotelService, ChangeEvents> HUBS = new IdentityHashMap<>();
+
+    private final HotelService hotelService;
+    private final Map<ChangeTopic, List<Runnable>> handlers = new EnumMap<>(ChangeTopic.class);
+    private ScheduledExecutorService heartbeat; // démarré au premier abonnement
+    private boolean registeredOnce;             // thread du battement de cœur uniquement
+    private HotelChangeListener callback;       // this, ou son stub RMI une fois exporté
+
+    private ChangeEvents(HotelService hotelService) {
+        this.hotelService = hotelService;
+        for (ChangeTopic topic : ChangeTopic.values()) {
+            handlers.put(topic, new CopyOnWriteArrayList<>());
+        }
+    }
+
+    public static synchronized ChangeEvents of(HotelService hotelService) {
+        return HUBS.computeIfAbsent(hotelService, ChangeEvents::new);
+    }
+
+    /** Abonne {@code handler} aux modifications de {@code topic} ; à appeler depuis l'EDT. */
+    public void subscribe(ChangeTopic topic, Runnable handler) {
+        handlers.get(topic).add(handler);
+        registerInBackground();
+    }
+
+    public void unsubscribe(ChangeTopic topic, Runnable handler) {
+        handlers.get(topic).remove(handler);
+    }
+
+    @Override
+    public void changesAvailable(ChangeNotice notice) {
+        // appelé par un thread RMI (ou du notificateur en local) : ne rien faire ici de bloquant
+        dispatch(notice.getTopics());
+    }
+
+    private void dispatch(Collection<ChangeTopic> topics) {
+        SwingUtilities.invokeLater(() -> {
+            for (ChangeTopic topic : topics) {
+                for (Runnable handler : handlers.get(topic)) {
+                    handler.run();
+                }
+            }
+        });
+    }
+
+    private synchronized void registerInBackground() {
+        if (heartbeat != null) {
+            return;
+        }
+        heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "change-events-heartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+        heartbeat.scheduleWithFixedDelay(this::register, 0, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    // (ré)inscription idempotente ; rattrape les avis perdus si le serveur nous avait désinscrits
+    private void register() {
+        try {
+            boolean added = hotelService.addChangeListener(callback());
+            if (added && registeredOnce) {
+                LOG.info("Réinscrit aux notifications du serveur ; rafraîchissement des panneaux");
+                dispatch(EnumSet.allOf(ChangeTopic.class));
+            }
+            registeredOnce = true;
+        } catch (RemoteException | RuntimeException e) {
+            // pas de notifications d'ici le prochain essai : les panneaux se rafraîchissent à la demande
+            LOG.warning("Inscription aux notifications impossible : " + e);
+        }
+    }
+
+    private synchronized HotelChangeListener callback() throws RemoteException {
+        if (callback == null) {
+            if (Proxy.isProxyClass(hotelService.getClass())) {
+                TimeoutSocketFactory sockets = TimeoutSocketFactory.fromSystemProperties();
+                callback = (HotelChangeListener) UnicastRemoteObject.exportObject(this, 0, sockets, sockets);
+            } else {
+                callback = this;
+            }
+        }
+        return callback;
+    }
+}
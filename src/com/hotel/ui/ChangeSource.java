@@ -0,0 +1,11 @@
+package com.hotel.ui;
+
+import com.hotel.model.ChangeSet;
+
+import java.io.Serializable;
+
+/** Journal de modifications d'une table côté service ; appelé hors EDT. */
+@FunctionalInterface
+public interface ChangeSource<T extends Serializable> {
+    ChangeSet<T> since(long sequence) throws Exception;
+}
@@ -1,21 +1,21 @@
 package com.hotel.ui;
 
+import com.hotel.model.ChangeTopic;
 import com.hotel.model.Client;
 import com.hotel.service.rmi.HotelService;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.rmi.RemoteException;
-import java.util.List;
 
 
 public class ClientManagementPanel extends JPanel {
     private final HotelService hotelService;
     private JTable table;
-    private DefaultTableModel tableModel;
+    private KeyedTableModel tableModel;
+    private final BackgroundLoader loader = new BackgroundLoader(this);
+    private final Runnable onServerChange = this::refreshTable;
 
     public ClientManagementPanel(HotelService hotelService) {
         this.hotelService = hotelService;
@@ -25,12 +25,7 @@ public class ClientManagementPanel extends JPanel {
 
     private void initialiseUI() {
         setLayout(new BorderLayout());
-        tableModel = new DefaultTableModel(new Object[]{"ID", "Name", "Contact", "Email"}, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        tableModel = new KeyedTableModel("ID", "Name", "Contact", "Email");
         table = new JTable(tableModel);
         JScrollPane scrollPane = new JScrollPane(table);
 
@@ -41,6 +36,7 @@ public class ClientManagementPanel extends JPanel {
         buttonsPanel.add(addButton);
         buttonsPanel.add(searchButton);
         buttonsPanel.add(refreshButton);
+        buttonsPanel.add(loader.getProgressBar());
 
         add(scrollPane, BorderLayout.CENTER);
         add(buttonsPanel, BorderLayout.SOUTH);
@@ -57,16 +53,13 @@ public class ClientManagementPanel extends JPanel {
             public void actionPerformed(ActionEvent e) {
                 String name = JOptionPane.showInputDialog(ClientManagementPanel.this, "Enter client name:", "Search Client", JOptionPane.QUESTION_MESSAGE);
                 if (name != null && !name.trim().isEmpty()) {
-                    try {
-                        Client client = hotelService.findClientByName(name.trim());
+                    loader.load("search", () -> hotelService.findClientByName(name.trim()), client -> {
                         if (client != null) {
                             JOptionPane.showMessageDialog(ClientManagementPanel.this, client.toString(), "Client Found", JOptionPane.INFORMATION_MESSAGE);
                         } else {
                             JOptionPane.showMessageDialog(ClientManagementPanel.this, "Client not found.", "Search", JOptionPane.INFORMATION_MESSAGE);
                         }
-                    } catch (RemoteException ex) {
-                        JOptionPane.showMessageDialog(ClientManagementPanel.this, "Error: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-                    }
+                    });
                 }
             }
         });
@@ -79,16 +72,23 @@ public class ClientManagementPanel extends JPanel {
         });
     }
 
+    // n'applique que les clients ajoutés / modifiés depuis le dernier appel
+    // rafraîchissement poussé par le serveur tant que le panneau est affichable
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        ChangeEvents.of(hotelService).subscribe(ChangeTopic.CLIENTS, onServerChange);
+    }
+
+    @Override
+    public void removeNotify() {
+        ChangeEvents.of(hotelService).unsubscribe(ChangeTopic.CLIENTS, onServerChange);
+        super.removeNotify();
+    }
+
     private void refreshTable() {
-        try {
-            List<Client> clients = hotelService.getAllClients();
-            tableModel.setRowCount(0);
-            for (Client c : clients) {
-                tableModel.addRow(new Object[]{c.getId(), c.getName(), c.getContact(), c.getEmail()});
-            }
-        } catch (RemoteException e) {
-            JOptionPane.showMessageDialog(this, "Error: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        tableModel.sync(loader, "clients", hotelService::getClientChanges, hotelService::getAllClients,
+                c -> new Object[]{c.getId(), c.getName(), c.getContact(), c.getEmail()});
     }
 
     private void showClientDialog() {
@@ -142,14 +142,14 @@ public class ClientManagementPanel extends JPanel {
                     JOptionPane.showMessageDialog(dialog, "Name and contact are required.", "Validation", JOptionPane.WARNING_MESSAGE);
                     return;
                 }
-                try {
-                    Client client = new Client(0, name, contact, email);
+                Client client = new Client(0, name, contact, email);
+                loader.run(dialog, () -> {
                     hotelService.addClient(client);
+                    return null;
+                }, done -> {
                     refreshTable();
                     dialog.dispose();
-                } catch (RemoteException ex) {
-                    JOptionPane.showMessageDialog(dialog, "Error: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-                }
+                });
             }
         });
 
@@ -13,6 +13,7 @@ import java.awt.event.ActionListener;
 import java.rmi.RemoteException;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
 
 public class ClientUI extends JFrame {
@@ -31,6 +32,13 @@ public class ClientUI extends JFrame {
     private JTable myResTable;
     private DefaultTableModel myResModel;
 
+    private final BackgroundLoader loader = new BackgroundLoader(this);
+    private final Runnable onRoomsChanged = this::refreshAvailableRooms;
+    private final Runnable onReservationsChanged = () -> {
+        refreshAvailableRooms();
+        refreshMyReservations();
+    };
+
     public ClientUI(HotelService hotelService, PaymentService paymentService, ReportService reportService, User user) {
         this.hotelService = hotelService;
         this.paymentService = paymentService;
@@ -50,6 +58,10 @@ public class ClientUI extends JFrame {
         tabbedPane.addTab("My Reservations", createMyReservationsPanel());
         tabbedPane.addTab("Reports", createClientReportPanel());
         getContentPane().add(tabbedPane, BorderLayout.CENTER);
+
+        JPanel statusBar = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        statusBar.add(loader.getProgressBar());
+        getContentPane().add(statusBar, BorderLayout.SOUTH);
     }
 
     private JPanel createSearchPanel() {
@@ -123,13 +135,13 @@ public class ClientUI extends JFrame {
                     int reservationId = (int) myResModel.getValueAt(selectedRow, 0);
                     int confirm = JOptionPane.showConfirmDialog(ClientUI.this, "Cancel this reservation?", "Confirm", JOptionPane.YES_NO_OPTION);
                     if (confirm == JOptionPane.YES_OPTION) {
-                        try {
+                        loader.run(() -> {
                             hotelService.cancelReservation(reservationId);
+                            return null;
+                        }, done -> {
                             refreshMyReservations();
                             refreshAvailableRooms();
-                        } catch (RemoteException ex) {
-                            JOptionPane.showMessageDialog(ClientUI.this, "Error: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-                        }
+                        });
                     }
                 } else {
                     JOptionPane.showMessageDialog(ClientUI.this, "Please select a reservation to cancel.", "Information", JOptionPane.INFORMATION_MESSAGE);
@@ -143,25 +155,21 @@ public class ClientUI extends JFrame {
                 int selectedRow = myResTable.getSelectedRow();
                 if (selectedRow >= 0) {
                     int reservationId = (int) myResModel.getValueAt(selectedRow, 0);
-                    try {
-                        List<Reservation> reservations = hotelService.getAllReservations();
-                        Reservation res = null;
-                        for (Reservation r : reservations) {
-                            if (r.getId() == reservationId) {
-                                res = r;
-                                break;
-                            }
+                    loader.run(() -> {
+                        Reservation res = findMyReservation(reservationId);
+                        if (res == null) {
+                            return null;
                         }
-                        if (res != null) {
-                            // calculer amount automatically based on invoice
-                            com.hotel.model.Invoice invoice = paymentService.generateInvoice(res);
-                            Payment payment = paymentService.processPayment(res, invoice.getTotalAmount());
+                        // calculer amount automatically based on invoice
+                        com.hotel.model.Invoice invoice = paymentService.generateInvoice(res);
+                        // une seule clé par réservation : un second clic ne débite pas deux fois
+                        return paymentService.processPayment(res, invoice.getTotalAmount(), "client-pay-" + res.getId());
+                    }, payment -> {
+                        if (payment != null) {
                             JOptionPane.showMessageDialog(ClientUI.this, "Payment successful. Payment ID: " + payment.getId(), "Success", JOptionPane.INFORMATION_MESSAGE);
                             refreshMyReservations();
                         }
-                    } catch (RemoteException ex) {
-                        JOptionPane.showMessageDialog(ClientUI.this, "Error: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-                    }
+                    });
                 } else {
                     JOptionPane.showMessageDialog(ClientUI.this, "Please select a reservation to pay.", "Information", JOptionPane.INFORMATION_MESSAGE);
                 }
@@ -174,22 +182,14 @@ public class ClientUI extends JFrame {
                 int selectedRow = myResTable.getSelectedRow();
                 if (selectedRow >= 0) {
                     int reservationId = (int) myResModel.getValueAt(selectedRow, 0);
-                    try {
-                        List<Reservation> reservations = hotelService.getAllReservations();
-                        Reservation res = null;
-                        for (Reservation r : reservations) {
-                            if (r.getId() == reservationId) {
-                                res = r;
-                                break;
-                            }
+                    loader.run(() -> {
+                        Reservation res = findMyReservation(reservationId);
+                        return res != null ? paymentService.generateInvoice(res) : null;
+                    }, invoice -> {
+                        if (invoice != null) {
+                            JOptionPane.showMessageDialog(ClientUI.this, String.format("Invoice:\nReservation ID: %d\nTotal: %.2f", reservationId, invoice.getTotalAmount()), "Invoice", JOptionPane.INFORMATION_MESSAGE);
                         }
-                        if (res != null) {
-                            com.hotel.model.Invoice invoice = paymentService.generateInvoice(res);
-                            JOptionPane.showMessageDialog(ClientUI.this, String.format("Invoice:\nReservation ID: %d\nTotal: %.2f", res.getId(), invoice.getTotalAmount()), "Invoice", JOptionPane.INFORMATION_MESSAGE);
-                        }
-                    } catch (RemoteException ex) {
-                        JOptionPane.showMessageDialog(ClientUI.this, "Error: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-                    }
+                    });
                 } else {
                     JOptionPane.showMessageDialog(ClientUI.this, "Please select a reservation to invoice.", "Information", JOptionPane.INFORMATION_MESSAGE);
                 }
@@ -214,92 +214,141 @@ public class ClientUI extends JFrame {
         myHistoryButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                area.setText(reportService.generateClientHistoryReport(user.getClient()));
+                loader.load("history", () -> reportService.generateClientHistoryReport(user.getClient()), area::setText);
             }
         });
         return panel;
     }
 
+    // disponibilités et réservations rafraîchies à chaque modification poussée par le serveur
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        ChangeEvents events = ChangeEvents.of(hotelService);
+        events.subscribe(ChangeTopic.ROOMS, onRoomsChanged);
+        events.subscribe(ChangeTopic.RESERVATIONS, onReservationsChanged);
+    }
+
+    @Override
+    public void removeNotify() {
+        ChangeEvents events = ChangeEvents.of(hotelService);
+        events.unsubscribe(ChangeTopic.ROOMS, onRoomsChanged);
+        events.unsubscribe(ChangeTopic.RESERVATIONS, onReservationsChanged);
+        super.removeNotify();
+    }
+
     private void refreshAvailableRooms() {
-        availableModel.setRowCount(0);
-        try {
-            List<Room> rooms = hotelService.getAvailableRooms();
+        // avec des dates valides, seules les chambres libres sur toute la période sont listées
+        LocalDate[] stay = parseStay();
+        loader.load("available", () -> {
+            List<Room> rooms = stay != null
+                    ? hotelService.getAvailableRooms(stay[0], stay[1], null)
+                    : hotelService.getAvailableRooms();
+            List<Object[]> rows = new ArrayList<>();
             for (Room r : rooms) {
-                availableModel.addRow(new Object[]{r.getId(), r.getType(), r.getPrice()});
+                rows.add(new Object[]{r.getId(), r.getType(), r.getPrice()});
             }
-        } catch (RemoteException e) {
-            JOptionPane.showMessageDialog(this, "Error: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            return rows;
+        }, rows -> BackgroundLoader.replaceRows(availableModel, rows));
+    }
+
+    // dates saisies [check-in, check-out] ou null si absentes / invalides
+    private LocalDate[] parseStay() {
+        try {
+            LocalDate checkIn = LocalDate.parse(checkInField.getText().trim());
+            LocalDate checkOut = LocalDate.parse(checkOutField.getText().trim());
+            return checkOut.isAfter(checkIn) ? new LocalDate[]{checkIn, checkOut} : null;
+        } catch (DateTimeParseException ex) {
+            return null;
         }
     }
 
     private void bookSelectedRoom() {
         int selectedRow = availableTable.getSelectedRow();
         if (selectedRow >= 0) {
+            int roomId = (int) availableModel.getValueAt(selectedRow, 0);
+
+            String checkInText = checkInField.getText().trim();
+            String checkOutText = checkOutField.getText().trim();
+            LocalDate checkIn;
+            LocalDate checkOut;
             try {
-                int roomId = (int) availableModel.getValueAt(selectedRow, 0);
+                checkIn = LocalDate.parse(checkInText);
+                checkOut = LocalDate.parse(checkOutText);
+                if (checkOut.isBefore(checkIn) || checkOut.equals(checkIn)) {
+                    JOptionPane.showMessageDialog(this, "Check-out date must be after check-in date.", "Validation", JOptionPane.WARNING_MESSAGE);
+                    return;
+                }
+            } catch (DateTimeParseException ex) {
+                JOptionPane.showMessageDialog(this, "Please enter valid dates in YYYY-MM-DD format.", "Validation", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
 
-                List<Room> rooms = hotelService.getAvailableRooms();
-                Room selectedRoom = null;
-                for (Room r : rooms) {
+            loader.run(() -> {
+                for (Room r : hotelService.getAvailableRooms(checkIn, checkOut, null)) {
                     if (r.getId() == roomId) {
-                        selectedRoom = r;
-                        break;
+                        return r;
                     }
                 }
+                return null;
+            }, selectedRoom -> {
                 if (selectedRoom == null) {
-                    JOptionPane.showMessageDialog(this, "Selected room is no longer available.", "Information", JOptionPane.INFORMATION_MESSAGE);
+                    JOptionPane.showMessageDialog(this, "Selected room is not available for these dates.", "Information", JOptionPane.INFORMATION_MESSAGE);
                     refreshAvailableRooms();
                     return;
                 }
-
-                String checkInText = checkInField.getText().trim();
-                String checkOutText = checkOutField.getText().trim();
-                LocalDate checkIn;
-                LocalDate checkOut;
-                try {
-                    checkIn = LocalDate.parse(checkInText);
-                    checkOut = LocalDate.parse(checkOutText);
-                    if (checkOut.isBefore(checkIn) || checkOut.equals(checkIn)) {
-                        JOptionPane.showMessageDialog(this, "Check-out date must be after check-in date.", "Validation", JOptionPane.WARNING_MESSAGE);
-                        return;
+                loader.run(() -> hotelService.makeReservation(user.getClient(), selectedRoom, checkIn, checkOut), res -> {
+                    if (res != null) {
+                        JOptionPane.showMessageDialog(this, "Reservation successful (ID: " + res.getId() + ")", "Success", JOptionPane.INFORMATION_MESSAGE);
+                        refreshAvailableRooms();
+                        refreshMyReservations();
+                    } else {
+                        JOptionPane.showMessageDialog(this, "Could not create reservation.", "Failure", JOptionPane.WARNING_MESSAGE);
                     }
-                } catch (DateTimeParseException ex) {
-                    JOptionPane.showMessageDialog(this, "Please enter valid dates in YYYY-MM-DD format.", "Validation", JOptionPane.WARNING_MESSAGE);
-                    return;
-                }
-                Reservation res = hotelService.makeReservation(user.getClient(), selectedRoom, checkIn, checkOut);
-                if (res != null) {
-                    JOptionPane.showMessageDialog(this, "Reservation successful (ID: " + res.getId() + ")", "Success", JOptionPane.INFORMATION_MESSAGE);
-                    refreshAvailableRooms();
-                    refreshMyReservations();
-                } else {
-                    JOptionPane.showMessageDialog(this, "Could not create reservation.", "Failure", JOptionPane.WARNING_MESSAGE);
-                }
-            } catch (RemoteException e) {
-                JOptionPane.showMessageDialog(this, "Error: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-            }
+                });
+            });
         } else {
             JOptionPane.showMessageDialog(this, "Please select a room to book.", "Information", JOptionPane.INFORMATION_MESSAGE);
         }
     }
 
     private void refreshMyReservations() {
-        myResModel.setRowCount(0);
-        try {
-            List<Reservation> reservations = hotelService.getAllReservations();
-            for (Reservation r : reservations) {
-                if (r.getClient() != null && r.getClient().getId() == user.getClient().getId()) {
-                    myResModel.addRow(new Object[]{
-                            r.getId(),
-                            r.getRoom() != null ? r.getRoom().getId() : "",
-                            r.getCheckInDate(),
-                            r.getCheckOutDate(),
-                            r.isConfirmed() ? "Yes" : "No"
-                    });
-                }
+        loader.load("myReservations", () -> {
+            List<Object[]> rows = new ArrayList<>();
+            for (Reservation r : loadMyReservations()) {
+                rows.add(new Object[]{
+                        r.getId(),
+                        r.getRoom() != null ? r.getRoom().getId() : "",
+                        r.getCheckInDate(),
+                        r.getCheckOutDate(),
+                        r.isConfirmed() ? "Yes" : "No"
+                });
+            }
+            return rows;
+        }, rows -> BackgroundLoader.replaceRows(myResModel, rows));
+    }
+
+    private Reservation findMyReservation(int reservationId) throws RemoteException {
+        for (Reservation r : loadMyReservations()) {
+            if (r.getId() == reservationId) {
+                return r;
+            }
+        }
+        return null;
+    }
+
+    // réservations du client connecté, filtrées côté serveur et lues page par page
+    private List<Reservation> loadMyReservations() throws RemoteException {
+        List<Reservation> result = new ArrayList<>();
+        ReservationFilter filter = ReservationFilter.forClient(user.getClient().getId());
+        int afterId = 0;
+        while (true) {
+            List<Reservation> page = hotelService.findReservations(filter, afterId, HotelService.MAX_PAGE_SIZE);
+            result.addAll(page);
+            if (page.size() < HotelService.MAX_PAGE_SIZE) {
+                return result;
             }
-        } catch (RemoteException e) {
-            JOptionPane.showMessageDialog(this, "Error: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            afterId = page.get(page.size() - 1).getId();
         }
     }
-}
\ No newline at end of file
+}
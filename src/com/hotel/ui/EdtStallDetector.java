@@ -0,0 +1,95 @@
+package com.hotel.ui;
+
+import java.awt.*;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Détecteur de blocages de l'EDT, pour le diagnostic.
+ * <p>
+ * Remplace la file d'événements AWT par une file qui horodate chaque événement ; un thread
+ * de surveillance signale en WARNING, avec la pile de l'EDT, tout événement
+ * traité depuis plus de {@code hotel.ui.stallThresholdMs} (50 ms par défaut).
+ * Activé par {@code -Dhotel.ui.stallDetector=true}.
+ */
+public final class EdtStallDetector extends EventQueue {
+
+    private static final Logger LOG = Logger.getLogger(EdtStallDetector.class.getName());
+
+    private static final long THRESHOLD_MS = Long.getLong("hotel.ui.stallThresholdMs", 50);
+
+    // début (nanoTime) de l'événement en cours, 0 hors traitement
+    private volatile long dispatchStart;
+    private volatile Thread edt;
+    private volatile AWTEvent current;
+    private volatile boolean reported;
+
+    private EdtStallDetector() {
+    }
+
+    /** Installe le détecteur si {@code hotel.ui.stallDetector} vaut {@code true}. */
+    public static void installIfEnabled() {
+        if (!Boolean.getBoolean("hotel.ui.stallDetector")) {
+            return;
+        }
+        EdtStallDetector detector = new EdtStallDetector();
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(detector);
+
+        Thread watchdog = new Thread(detector::watch, "edt-stall-detector");
+        watchdog.setDaemon(true);
+        watchdog.start();
+    }
+
+    @Override
+    protected void dispatchEvent(AWTEvent event) {
+        long outer = dispatchStart;
+        AWTEvent outerEvent = current;
+        edt = Thread.currentThread();
+        current = event;
+        reported = false;
+        long start = System.nanoTime();
+        dispatchStart = start;
+        try {
+            super.dispatchEvent(event);
+        } finally {
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            if (elapsed > THRESHOLD_MS) {
+                LOG.warning("Événement traité en " + elapsed + " ms : " + describe(event));
+            }
+            // boucle imbriquée (dialogue modal) : l'événement englobant reprend maintenant
+            current = outerEvent;
+            reported = false;
+            dispatchStart = outer == 0 ? 0 : System.nanoTime();
+        }
+    }
+
+    private void watch() {
+        long period = Math.max(5, THRESHOLD_MS / 2);
+        while (true) {
+            try {
+                Thread.sleep(period);
+            } catch (InterruptedException e) {
+                return;
+            }
+            long start = dispatchStart;
+            Thread thread = edt;
+            if (start == 0 || reported || thread == null) {
+                continue;
+            }
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            if (elapsed > THRESHOLD_MS) {
+                reported = true;
+                StringBuilder sb = new StringBuilder("EDT bloqué depuis " + elapsed + " ms sur "
+                        + describe(current) + System.lineSeparator());
+                for (StackTraceElement frame : thread.getStackTrace()) {
+                    sb.append("\tat ").append(frame).append(System.lineSeparator());
+                }
+                LOG.warning(sb.toString());
+            }
+        }
+    }
+
+    private static String describe(AWTEvent event) {
+        return event == null ? "?" : event.getClass().getSimpleName() + " " + event.paramString();
+    }
+}
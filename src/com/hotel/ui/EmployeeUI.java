@@ -1,6 +1,7 @@
 package com.hotel.ui;
 
 import com.hotel.model.User;
+import com.hotel.service.ExportService;
 import com.hotel.service.ReportService;
 import com.hotel.service.ejb.PaymentService;
 import com.hotel.service.rmi.HotelService;
@@ -13,15 +14,18 @@ public class EmployeeUI extends JFrame {
     private final HotelService hotelService;
     private final PaymentService paymentService;
     private final ReportService reportService;
+    private final ExportService exportService;
     private final User employee;
 
     public EmployeeUI(HotelService hotelService,
                       PaymentService paymentService,
                       ReportService reportService,
+                      ExportService exportService,
                       User employee) {
         this.hotelService = hotelService;
         this.paymentService = paymentService;
         this.reportService = reportService;
+        this.exportService = exportService;
         this.employee = employee;
 
         initUI();
@@ -54,7 +58,7 @@ public class EmployeeUI extends JFrame {
         tabs.addTab("Clients", new ClientManagementPanel(hotelService));
         tabs.addTab("Réservations", new ReservationManagementPanel(hotelService));
         tabs.addTab("Paiements", new PaymentPanel(hotelService, paymentService));
-        tabs.addTab("Rapports", new ReportPanel(hotelService, reportService));
+        tabs.addTab("Rapports", new ReportPanel(hotelService, reportService, exportService));
 
         // ----- Layout principal -----
         getContentPane().setLayout(new BorderLayout());
@@ -0,0 +1,133 @@
+package com.hotel.ui;
+
+import com.hotel.model.ChangeSet;
+
+import javax.swing.table.AbstractTableModel;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Modèle de tableau dont chaque ligne est identifiée par l'id en colonne 0, mis à jour
+ * par différences.
+ * <p>
+ * {@link #sync} demande au service les modifications depuis la dernière synchronisation
+ * et n'émet qu'un événement par ligne insérée, modifiée ou supprimée : la sélection et
+ * le défilement sont conservés, et le coût est proportionnel aux changements. Un
+ * rechargement complet n'a lieu qu'au premier appel ou si le journal du service ne
+ * remonte pas assez loin.
+ */
+public class KeyedTableModel extends AbstractTableModel {
+
+    @FunctionalInterface
+    public interface FullSource<T> {
+        List<T> all() throws Exception;
+    }
+
+    private final String[] columns;
+    private final List<Object[]> rows = new ArrayList<>();
+    private final Map<Integer, Integer> rowById = new HashMap<>();
+    private long sequence;
+
+    public KeyedTableModel(String... columns) {
+        this.columns = columns;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column];
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        return rows.get(rowIndex)[columnIndex];
+    }
+
+    /**
+     * Synchronise le modèle avec le service, hors EDT via {@code loader}.
+     *
+     * @param key clé de chargement : une synchronisation plus récente annule la précédente
+     */
+    public <T extends Serializable> void sync(BackgroundLoader loader, String key, ChangeSource<T> changes,
+                                              FullSource<T> all, Function<T, Object[]> toRow) {
+        long since = sequence;
+        loader.load(key, () -> {
+            ChangeSet<T> set = changes.since(since);
+            // la liste complète est lue après la séquence : rien ne peut être manqué,
+            // au pire une modification sera réappliquée au prochain appel
+            List<T> items = set.isFullReloadRequired() ? all.all() : set.getUpserted();
+            List<Object[]> mapped = new ArrayList<>(items.size());
+            for (T item : items) {
+                mapped.add(toRow.apply(item));
+            }
+            return new Update(set, mapped);
+        }, update -> {
+            if (update.changes.isFullReloadRequired()) {
+                replaceAll(update.rows);
+            } else {
+                update.rows.forEach(this::upsert);
+                update.changes.getDeletedIds().forEach(this::remove);
+            }
+            sequence = update.changes.getSequence();
+        });
+    }
+
+    public void replaceAll(List<Object[]> newRows) {
+        rows.clear();
+        rowById.clear();
+        for (Object[] row : newRows) {
+            rowById.put((Integer) row[0], rows.size());
+            rows.add(row);
+        }
+        fireTableDataChanged();
+    }
+
+    public void upsert(Object[] row) {
+        Integer id = (Integer) row[0];
+        Integer index = rowById.get(id);
+        if (index == null) {
+            rowById.put(id, rows.size());
+            rows.add(row);
+            fireTableRowsInserted(rows.size() - 1, rows.size() - 1);
+        } else if (!Arrays.equals(rows.get(index), row)) {
+            rows.set(index, row);
+            fireTableRowsUpdated(index, index);
+        }
+    }
+
+    public void remove(int id) {
+        Integer index = rowById.remove(id);
+        if (index == null) {
+            return;
+        }
+        rows.remove((int) index);
+        for (int i = index; i < rows.size(); i++) {
+            rowById.put((Integer) rows.get(i)[0], i);
+        }
+        fireTableRowsDeleted(index, index);
+    }
+
+    private static final class Update {
+        final ChangeSet<?> changes;
+        final List<Object[]> rows;
+
+        Update(ChangeSet<?> changes, List<Object[]> rows) {
+            this.changes = changes;
+            this.rows = rows;
+        }
+    }
+}
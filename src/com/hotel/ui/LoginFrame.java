@@ -3,6 +3,7 @@ package com.hotel.ui;
 import com.hotel.db.UserDao;
 import com.hotel.model.Client;
 import com.hotel.model.User;
+import com.hotel.service.ExportService;
 import com.hotel.service.ReportService;
 import com.hotel.service.ejb.PaymentService;
 import com.hotel.service.rmi.HotelService;
@@ -10,25 +11,30 @@ import com.hotel.service.rmi.HotelService;
 import javax.swing.*;
 import java.awt.*;
 import java.rmi.RemoteException;
+import java.util.concurrent.ExecutionException;
 
 public class LoginFrame extends JFrame {
 
     private final HotelService hotelService;
     private final PaymentService paymentService;
     private final ReportService reportService;
+    private final ExportService exportService;
     private final UserDao userDao;
 
     private JTextField usernameField;
     private JPasswordField passwordField;
     private JLabel messageLabel;
+    private JButton loginButton;
 
     public LoginFrame(HotelService hotelService,
                       PaymentService paymentService,
                       ReportService reportService,
+                      ExportService exportService,
                       UserDao userDao) {
         this.hotelService = hotelService;
         this.paymentService = paymentService;
         this.reportService = reportService;
+        this.exportService = exportService;
         this.userDao = userDao;
 
         setTitle("Gestion d'hôtel - Connexion");
@@ -78,7 +84,7 @@ public class LoginFrame extends JFrame {
         messageLabel.setBorder(BorderFactory.createEmptyBorder(10, 0, 10, 0));
 
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
-        JButton loginButton = new JButton("Se connecter");
+        loginButton = new JButton("Se connecter");
         JButton quitButton = new JButton("Quitter");
         JButton registerButton = new JButton("Créer un compte client");
 
@@ -107,9 +113,29 @@ public class LoginFrame extends JFrame {
             return;
         }
 
-        //  Auth via BD
-        User matched = userDao.findByUsernameAndPassword(username, password);
+        //  Auth via BD, hors EDT
+        loginButton.setEnabled(false);
+        new SwingWorker<User, Void>() {
+            @Override
+            protected User doInBackground() {
+                return userDao.findByUsernameAndPassword(username, password);
+            }
 
+            @Override
+            protected void done() {
+                loginButton.setEnabled(true);
+                try {
+                    openUserWindow(get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    messageLabel.setText("Erreur : " + e.getCause().getMessage());
+                }
+            }
+        }.execute();
+    }
+
+    private void openUserWindow(User matched) {
         if (matched == null) {
             messageLabel.setText("Nom d'utilisateur ou mot de passe incorrect.");
             return;
@@ -119,7 +145,7 @@ public class LoginFrame extends JFrame {
 
         if (matched.getRole() == User.Role.EMPLOYEE) {
             SwingUtilities.invokeLater(() -> {
-                EmployeeUI ui = new EmployeeUI(hotelService, paymentService, reportService, matched);
+                EmployeeUI ui = new EmployeeUI(hotelService, paymentService, reportService, exportService, matched);
                 ui.setVisible(true);
             });
         } else if (matched.getRole() == User.Role.CLIENT) {
@@ -214,41 +240,56 @@ public class LoginFrame extends JFrame {
                 return;
             }
 
-            // vérifier en BD
-            if (userDao.findByUsername(username) != null) {
-                JOptionPane.showMessageDialog(dialog,
-                        "Ce nom d'utilisateur est déjà utilisé.",
-                        "Validation",
-                        JOptionPane.WARNING_MESSAGE);
-                return;
-            }
-
-            try {
-                // 1) créer client (BD)
-                Client client = new Client();
-                client.setName(name);
-                client.setContact(contact);
-                client.setEmail(email);
-
-                hotelService.addClient(client); // doit remplir client.id
-
-                // 2) créer user (BD)
-                User newUser = new User(0, username, password, User.Role.CLIENT, client);
-                userDao.save(newUser);
-
-                JOptionPane.showMessageDialog(dialog,
-                        "Compte créé avec succès.\nVous pouvez maintenant vous connecter.",
-                        "Succès",
-                        JOptionPane.INFORMATION_MESSAGE);
-                dialog.dispose();
-
-            } catch (RemoteException ex) {
-                ex.printStackTrace();
-                JOptionPane.showMessageDialog(dialog,
-                        "Erreur lors de la création : " + ex.getMessage(),
-                        "Erreur",
-                        JOptionPane.ERROR_MESSAGE);
-            }
+            createButton.setEnabled(false);
+            new SwingWorker<Boolean, Void>() {
+                @Override
+                protected Boolean doInBackground() throws RemoteException {
+                    // vérifier en BD
+                    if (userDao.findByUsername(username) != null) {
+                        return false;
+                    }
+
+                    // 1) créer client (BD)
+                    Client client = new Client();
+                    client.setName(name);
+                    client.setContact(contact);
+                    client.setEmail(email);
+
+                    hotelService.addClient(client); // doit remplir client.id
+
+                    // 2) créer user (BD)
+                    User newUser = new User(0, username, password, User.Role.CLIENT, client);
+                    userDao.save(newUser);
+                    return true;
+                }
+
+                @Override
+                protected void done() {
+                    createButton.setEnabled(true);
+                    try {
+                        if (!get()) {
+                            JOptionPane.showMessageDialog(dialog,
+                                    "Ce nom d'utilisateur est déjà utilisé.",
+                                    "Validation",
+                                    JOptionPane.WARNING_MESSAGE);
+                            return;
+                        }
+                        JOptionPane.showMessageDialog(dialog,
+                                "Compte créé avec succès.\nVous pouvez maintenant vous connecter.",
+                                "Succès",
+                                JOptionPane.INFORMATION_MESSAGE);
+                        dialog.dispose();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    } catch (ExecutionException ex) {
+                        ex.getCause().printStackTrace();
+                        JOptionPane.showMessageDialog(dialog,
+                                "Erreur lors de la création : " + ex.getCause().getMessage(),
+                                "Erreur",
+                                JOptionPane.ERROR_MESSAGE);
+                    }
+                }
+            }.execute();
         });
 
         cancelButton.addActionListener(e -> dialog.dispose());
@@ -0,0 +1,305 @@
+package com.hotel.ui;
+
+import com.hotel.model.ChangeSet;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.JTableHeader;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Modèle de tableau paginé à la demande, pour les listes trop longues pour être chargées
+ * d'un bloc.
+ * <p>
+ * Seul le nombre de lignes est lu au {@link #refresh()}. Une page de {@code pageSize}
+ * lignes n'est demandée à la {@link PageSource} que lorsque le tableau affiche l'une de
+ * ses cellules ; en attendant, les cellules sont vides. Au plus {@code maxPages} pages
+ * restent en mémoire (les moins récemment affichées sont oubliées). Le tri est délégué à
+ * la source, donc fait par la base : un clic sur un en-tête recharge depuis le début.
+ * <p>
+ * Une page dont la précédente a déjà été lue est demandée après la dernière ligne de
+ * celle-ci ({@link PageSource#fetchAfter}, pagination par clé) : le défilement continu
+ * ne coûte pas plus en fin de table qu'au début. Un saut direct vers une page lointaine
+ * passe par sa position.
+ * <p>
+ * Avec une {@link ChangeSource}, {@link #sync()} applique les modifications survenues
+ * depuis la dernière lecture : les lignes modifiées déjà chargées sont remplacées sur
+ * place ; une insertion ou une suppression (qui décale les positions) relit le compte.
+ * <p>
+ * Les lectures tournent sur un petit pool de threads partagé ; le modèle ne se modifie
+ * que sur l'EDT. La colonne 0 contient l'id de la ligne.
+ */
+public class PagedTableModel<T extends Serializable> extends AbstractTableModel {
+
+    /** Accès paginé et trié aux données. Appelé hors EDT. */
+    public interface PageSource<T> {
+        int count() throws Exception;
+
+        List<T> fetch(int sortColumn, boolean ascending, int offset, int limit) throws Exception;
+
+        /**
+         * Page qui suit la ligne {@code after} (à la position {@code offset}) ; par défaut lue
+         * par position, une source qui sait chercher par clé de tri la redéfinit.
+         */
+        default List<T> fetchAfter(int sortColumn, boolean ascending, T after, int offset, int limit) throws Exception {
+            return fetch(sortColumn, ascending, offset, limit);
+        }
+    }
+
+    private static final ExecutorService FETCHER = Executors.newFixedThreadPool(2, r -> {
+        Thread t = new Thread(r, "table-page-fetcher");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final String[] columns;
+    private final PageSource<T> source;
+    private final Function<T, Object[]> toRow;
+    private final int pageSize;
+    private final Map<Integer, Object[][]> pages;
+    private final Set<Integer> pending = new HashSet<>();
+    // dernière ligne de chaque page lue depuis le dernier rechargement, point de départ de la suivante
+    private final Map<Integer, T> lastItems = new HashMap<>();
+
+    private int rowCount;
+    private int sortColumn;
+    private boolean ascending = true;
+    // incrémenté à chaque rechargement : les réponses d'une génération précédente sont ignorées
+    private int generation;
+    private ChangeSource<T> changeSource;
+    private long sequence;
+
+    // 200 lignes x 25 pages : au plus 5000 lignes en mémoire, quelle que soit la taille de la table
+    private static final int DEFAULT_PAGE_SIZE = 200;
+    private static final int DEFAULT_MAX_PAGES = 25;
+
+    public PagedTableModel(String[] columns, PageSource<T> source, Function<T, Object[]> toRow) {
+        this(columns, source, toRow, DEFAULT_PAGE_SIZE, DEFAULT_MAX_PAGES);
+    }
+
+    public PagedTableModel(String[] columns, PageSource<T> source, Function<T, Object[]> toRow,
+                           int pageSize, int maxPages) {
+        this.columns = columns;
+        this.source = source;
+        this.toRow = toRow;
+        this.pageSize = pageSize;
+        this.pages = new LinkedHashMap<Integer, Object[][]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Object[][]> eldest) {
+                return size() > maxPages;
+            }
+        };
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column];
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        int page = rowIndex / pageSize;
+        Object[][] rows = pages.get(page);
+        if (rows == null) {
+            requestPage(page);
+            return null;
+        }
+        int offset = rowIndex - page * pageSize;
+        return offset < rows.length ? rows[offset][columnIndex] : null;
+    }
+
+    public void setChangeSource(ChangeSource<T> changeSource) {
+        this.changeSource = changeSource;
+    }
+
+    public int getSortColumn() {
+        return sortColumn;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    /** Trie sur la colonne ; un second clic sur la même colonne inverse l'ordre. */
+    public void sortBy(int column) {
+        if (column == sortColumn) {
+            ascending = !ascending;
+        } else {
+            sortColumn = column;
+            ascending = true;
+        }
+        refresh();
+    }
+
+    /** Oublie les pages chargées et relit le nombre de lignes. */
+    public void refresh() {
+        int gen = ++generation;
+        pages.clear();
+        pending.clear();
+        lastItems.clear();
+        ChangeSource<T> changes = changeSource;
+        FETCHER.execute(() -> {
+            try {
+                // séquence lue avant les données : une modification concurrente sera réappliquée
+                long seq = changes != null ? changes.since(0).getSequence() : 0;
+                int count = source.count();
+                SwingUtilities.invokeLater(() -> {
+                    if (gen == generation) {
+                        sequence = seq;
+                        rowCount = count;
+                        fireTableDataChanged();
+                    }
+                });
+            } catch (Exception e) {
+                reportError(e);
+            }
+        });
+    }
+
+    /** Applique les modifications depuis la dernière lecture (sinon équivaut à {@link #refresh()}). */
+    public void sync() {
+        ChangeSource<T> changes = changeSource;
+        if (changes == null) {
+            refresh();
+            return;
+        }
+        int gen = generation;
+        long since = sequence;
+        FETCHER.execute(() -> {
+            try {
+                ChangeSet<T> set = changes.since(since);
+                List<Object[]> rows = new ArrayList<>();
+                for (T item : set.getUpserted()) {
+                    rows.add(toRow.apply(item));
+                }
+                SwingUtilities.invokeLater(() -> {
+                    if (gen == generation) {
+                        apply(set, rows);
+                    }
+                });
+            } catch (Exception e) {
+                reportError(e);
+            }
+        });
+    }
+
+    private void apply(ChangeSet<T> set, List<Object[]> upserted) {
+        if (set.isFullReloadRequired() || !set.getDeletedIds().isEmpty()) {
+            refresh();
+            return;
+        }
+        boolean shifted = false;
+        for (Object[] row : upserted) {
+            int index = replaceLoaded(row);
+            if (index < 0) {
+                // nouvelle ligne, ou ligne d'une page non chargée : position inconnue
+                shifted = true;
+            } else {
+                fireTableRowsUpdated(index, index);
+            }
+        }
+        if (shifted) {
+            refresh();
+        } else {
+            sequence = set.getSequence();
+        }
+    }
+
+    // remplace la ligne de même id si sa page est en mémoire ; renvoie son index ou -1
+    private int replaceLoaded(Object[] row) {
+        for (Map.Entry<Integer, Object[][]> entry : pages.entrySet()) {
+            Object[][] rows = entry.getValue();
+            for (int i = 0; i < rows.length; i++) {
+                if (rows[i][0].equals(row[0])) {
+                    rows[i] = row;
+                    if (i == rows.length - 1) {
+                        // sa clé de tri a pu changer : la page suivante sera lue par position
+                        lastItems.remove(entry.getKey());
+                    }
+                    return entry.getKey() * pageSize + i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private void requestPage(int page) {
+        if (!pending.add(page)) {
+            return;
+        }
+        int gen = generation;
+        int column = sortColumn;
+        boolean asc = ascending;
+        T after = page > 0 ? lastItems.get(page - 1) : null;
+        FETCHER.execute(() -> {
+            try {
+                List<T> items = after != null
+                        ? source.fetchAfter(column, asc, after, page * pageSize, pageSize)
+                        : source.fetch(column, asc, page * pageSize, pageSize);
+                Object[][] rows = new Object[items.size()][];
+                for (int i = 0; i < rows.length; i++) {
+                    rows[i] = toRow.apply(items.get(i));
+                }
+                SwingUtilities.invokeLater(() -> {
+                    if (gen != generation) {
+                        return;
+                    }
+                    pending.remove(page);
+                    pages.put(page, rows);
+                    if (!items.isEmpty()) {
+                        lastItems.put(page, items.get(items.size() - 1));
+                    }
+                    int first = page * pageSize;
+                    int last = Math.min(rowCount, first + pageSize) - 1;
+                    if (last >= first) {
+                        fireTableRowsUpdated(first, last);
+                    }
+                });
+            } catch (Exception e) {
+                // la page pourra être redemandée au prochain affichage
+                SwingUtilities.invokeLater(() -> pending.remove(page));
+                reportError(e);
+            }
+        });
+    }
+
+    private static void reportError(Exception e) {
+        System.err.println("[table] Échec du chargement : " + e.getMessage());
+    }
+
+    /** Branche le tri serveur sur les clics dans l'en-tête du tableau. */
+    public static void installSortOnHeader(JTable table, PagedTableModel<?> model) {
+        JTableHeader header = table.getTableHeader();
+        header.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int viewColumn = header.columnAtPoint(e.getPoint());
+                if (viewColumn >= 0) {
+                    model.sortBy(table.convertColumnIndexToModel(viewColumn));
+                }
+            }
+        });
+    }
+}
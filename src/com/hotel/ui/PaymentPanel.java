@@ -1,28 +1,30 @@
 package com.hotel.ui;
 
-import com.hotel.db.PaymentDao;
-import com.hotel.db.PaymentDaoImpl;
+import com.hotel.model.ChangeTopic;
 import com.hotel.model.Client;
 import com.hotel.model.Payment;
+import com.hotel.model.PaymentSort;
 import com.hotel.model.Reservation;
+import com.hotel.model.ReservationFilter;
 import com.hotel.service.ejb.PaymentService;
 import com.hotel.service.rmi.HotelService;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.awt.event.ActionListener;
 import java.time.format.DateTimeFormatter;
-import java.rmi.RemoteException;
 import java.util.List;
+import java.util.UUID;
 
 public class PaymentPanel extends JPanel {
 
     private final HotelService hotelService;
     private final PaymentService paymentService;
-    private final PaymentDao paymentDao = new PaymentDaoImpl();
 
     private JTable table;
-    private DefaultTableModel tableModel;
+    private PagedTableModel<Payment> tableModel;
+    private final BackgroundLoader loader = new BackgroundLoader(this);
+    private final Runnable onServerChange = this::refreshTable;
 
     private final DateTimeFormatter dateFormatter = DateTimeFormatter.ISO_LOCAL_DATE;
 
@@ -36,16 +38,31 @@ public class PaymentPanel extends JPanel {
     private void initialiseUI() {
         setLayout(new BorderLayout());
 
-        tableModel = new DefaultTableModel(
-                new Object[]{"ID", "Client", "Reservation", "Amount", "Date", "Paid"}, 0
-        ) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        // pages lues à la demande pendant le défilement, triées par la base (via le serveur en mode client)
+        tableModel = new PagedTableModel<>(
+                new String[]{"ID", "Client", "Reservation", "Amount", "Date", "Paid"},
+                new PagedTableModel.PageSource<Payment>() {
+                    @Override
+                    public int count() {
+                        return paymentService.countPayments();
+                    }
+
+                    @Override
+                    public List<Payment> fetch(int sortColumn, boolean ascending, int offset, int limit) {
+                        return paymentService.getPaymentsPage(PaymentSort.values()[sortColumn], ascending, offset, limit);
+                    }
+
+                    @Override
+                    public List<Payment> fetchAfter(int sortColumn, boolean ascending, Payment after, int offset, int limit) {
+                        return paymentService.getPaymentsPageAfter(PaymentSort.values()[sortColumn], ascending, after, limit);
+                    }
+                },
+                this::toRow
+        );
 
+        tableModel.setChangeSource(paymentService::getPaymentChanges);
         table = new JTable(tableModel);
+        PagedTableModel.installSortOnHeader(table, tableModel);
         JScrollPane scrollPane = new JScrollPane(table);
 
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
@@ -56,6 +73,7 @@ public class PaymentPanel extends JPanel {
         buttonPanel.add(processButton);
         buttonPanel.add(invoiceButton);
         buttonPanel.add(refreshButton);
+        buttonPanel.add(loader.getProgressBar());
 
         add(scrollPane, BorderLayout.CENTER);
         add(buttonPanel, BorderLayout.SOUTH);
@@ -69,36 +87,49 @@ public class PaymentPanel extends JPanel {
         refreshButton.addActionListener(e -> refreshTable());
     }
 
+    // rafraîchissement poussé par le serveur tant que le panneau est affichable
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        ChangeEvents.of(hotelService).subscribe(ChangeTopic.PAYMENTS, onServerChange);
+    }
+
+    @Override
+    public void removeNotify() {
+        ChangeEvents.of(hotelService).unsubscribe(ChangeTopic.PAYMENTS, onServerChange);
+        super.removeNotify();
+    }
+
     private void refreshTable() {
-        tableModel.setRowCount(0);
-        List<Payment> payments = paymentDao.findAll();
-
-        for (Payment p : payments) {
-            String clientLabel = "";
-            if (p.getClient() != null) {
-                clientLabel = p.getClient().getName();
-                if (p.getClient().getEmail() != null) {
-                    clientLabel += " (" + p.getClient().getEmail() + ")";
-                }
-            }
+        tableModel.sync();
+    }
 
-            String reservationLabel = (p.getReservation() != null)
-                    ? p.getReservation().toString()
-                    : "";
-
-            String dateLabel = (p.getDate() != null)
-                    ? p.getDate().format(dateFormatter)
-                    : "";
-
-            tableModel.addRow(new Object[]{
-                    p.getId(),
-                    clientLabel,
-                    reservationLabel,
-                    p.getAmount(),
-                    dateLabel,
-                    p.isPaid()
-            });
+    // ligne du tableau, construite hors EDT
+    private Object[] toRow(Payment p) {
+        String clientLabel = "";
+        if (p.getClient() != null) {
+            clientLabel = p.getClient().getName();
+            if (p.getClient().getEmail() != null) {
+                clientLabel += " (" + p.getClient().getEmail() + ")";
+            }
         }
+
+        String reservationLabel = (p.getReservation() != null)
+                ? p.getReservation().toString()
+                : "";
+
+        String dateLabel = (p.getDate() != null)
+                ? p.getDate().format(dateFormatter)
+                : "";
+
+        return new Object[]{
+                p.getId(),
+                clientLabel,
+                reservationLabel,
+                p.getAmount(),
+                dateLabel,
+                p.isPaid()
+        };
     }
 
 
@@ -114,27 +145,23 @@ public class PaymentPanel extends JPanel {
         gbc.insets = new Insets(5, 5, 5, 5);
         gbc.fill = GridBagConstraints.HORIZONTAL;
 
-        JLabel reservationLabel = new JLabel("Reservation:");
+        JLabel clientLabel = new JLabel("Client name:");
         JComboBox<Reservation> reservationCombo = new JComboBox<>();
-
-        try {
-            List<Reservation> reservations = hotelService.getAllReservations();
-            for (Reservation r : reservations) {
-                reservationCombo.addItem(r);
-            }
-        } catch (RemoteException e) {
-            JOptionPane.showMessageDialog(this,
-                    "Error loading reservations: " + e.getMessage(),
-                    "Error",
-                    JOptionPane.ERROR_MESSAGE);
-            return;
-        }
+        JPanel clientLookup = reservationLookup(dialog, reservationCombo);
+        JLabel reservationLabel = new JLabel("Reservation:");
 
         JLabel amountLabel = new JLabel("Amount:");
         JTextField amountField = new JTextField(10);
 
         int row = 0;
 
+        gbc.gridx = 0;
+        gbc.gridy = row;
+        panel.add(clientLabel, gbc);
+        gbc.gridx = 1;
+        panel.add(clientLookup, gbc);
+        row++;
+
         gbc.gridx = 0;
         gbc.gridy = row;
         panel.add(reservationLabel, gbc);
@@ -162,6 +189,9 @@ public class PaymentPanel extends JPanel {
         gbc.anchor = GridBagConstraints.EAST;
         panel.add(btnPanel, gbc);
 
+        // même clé pour tous les clics de ce dialogue sur une même réservation et un même montant
+        String dialogToken = UUID.randomUUID().toString().replace("-", "");
+
         processButton.addActionListener(e -> {
             Reservation reservation = (Reservation) reservationCombo.getSelectedItem();
             if (reservation == null) {
@@ -192,17 +222,11 @@ public class PaymentPanel extends JPanel {
                 return;
             }
 
-            try {
-                paymentService.processPayment(reservation, amount);  // 🔥 persiste via DAO
+            String idempotencyKey = dialogToken + ":" + reservation.getId() + ":" + Long.toHexString(Double.doubleToLongBits(amount));
+            loader.run(dialog, () -> paymentService.processPayment(reservation, amount, idempotencyKey), payment -> {  // 🔥 persiste via DAO
                 refreshTable();
                 dialog.dispose();
-            } catch (Exception ex) {
-                ex.printStackTrace();
-                JOptionPane.showMessageDialog(dialog,
-                        "Error processing payment: " + ex.getMessage(),
-                        "Error",
-                        JOptionPane.ERROR_MESSAGE);
-            }
+            });
         });
 
         cancelButton.addActionListener(e -> dialog.dispose());
@@ -226,24 +250,20 @@ public class PaymentPanel extends JPanel {
         gbc.insets = new Insets(5, 5, 5, 5);
         gbc.fill = GridBagConstraints.HORIZONTAL;
 
-        JLabel reservationLabel = new JLabel("Reservation:");
+        JLabel clientLabel = new JLabel("Client name:");
         JComboBox<Reservation> reservationCombo = new JComboBox<>();
-
-        try {
-            List<Reservation> reservations = hotelService.getAllReservations();
-            for (Reservation r : reservations) {
-                reservationCombo.addItem(r);
-            }
-        } catch (RemoteException e) {
-            JOptionPane.showMessageDialog(this,
-                    "Error loading reservations: " + e.getMessage(),
-                    "Error",
-                    JOptionPane.ERROR_MESSAGE);
-            return;
-        }
+        JPanel clientLookup = reservationLookup(dialog, reservationCombo);
+        JLabel reservationLabel = new JLabel("Reservation:");
 
         int row = 0;
 
+        gbc.gridx = 0;
+        gbc.gridy = row;
+        panel.add(clientLabel, gbc);
+        gbc.gridx = 1;
+        panel.add(clientLookup, gbc);
+        row++;
+
         gbc.gridx = 0;
         gbc.gridy = row;
         panel.add(reservationLabel, gbc);
@@ -274,20 +294,13 @@ public class PaymentPanel extends JPanel {
                 return;
             }
 
-            try {
-                var invoice = paymentService.generateInvoice(reservation);
+            loader.run(dialog, () -> paymentService.generateInvoice(reservation), invoice -> {
                 JOptionPane.showMessageDialog(dialog,
                         String.format("Invoice generated.\nTotal: %.2f", invoice.getTotalAmount()),
                         "Invoice",
                         JOptionPane.INFORMATION_MESSAGE);
                 dialog.dispose();
-            } catch (Exception ex) {
-                ex.printStackTrace();
-                JOptionPane.showMessageDialog(dialog,
-                        "Error generating invoice: " + ex.getMessage(),
-                        "Error",
-                        JOptionPane.ERROR_MESSAGE);
-            }
+            });
         });
 
         cancelButton.addActionListener(e -> dialog.dispose());
@@ -297,4 +310,45 @@ public class PaymentPanel extends JPanel {
         dialog.setLocationRelativeTo(this);
         dialog.setVisible(true);
     }
+
+    /*
+     * Champ "nom du client" + bouton de recherche : remplit la liste avec les réservations
+     * de ce client (une page lue côté serveur), au lieu de charger toutes les réservations.
+     */
+    private JPanel reservationLookup(JDialog dialog, JComboBox<Reservation> reservationCombo) {
+        JTextField clientField = new JTextField(15);
+        JButton findButton = new JButton("Find");
+        JPanel lookup = new JPanel(new BorderLayout(5, 0));
+        lookup.add(clientField, BorderLayout.CENTER);
+        lookup.add(findButton, BorderLayout.EAST);
+
+        ActionListener find = e -> {
+            String name = clientField.getText().trim();
+            if (name.isEmpty()) {
+                JOptionPane.showMessageDialog(dialog,
+                        "Please enter a client name.",
+                        "Validation",
+                        JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            loader.run(dialog, () -> {
+                Client client = hotelService.findClientByName(name);
+                return client == null ? null : hotelService.findReservations(
+                        ReservationFilter.forClient(client.getId()), 0, HotelService.MAX_PAGE_SIZE);
+            }, reservations -> {
+                if (reservations == null || reservations.isEmpty()) {
+                    reservationCombo.setModel(new DefaultComboBoxModel<>());
+                    JOptionPane.showMessageDialog(dialog,
+                            reservations == null ? "No client found with this name." : "This client has no reservation.",
+                            "Information",
+                            JOptionPane.INFORMATION_MESSAGE);
+                    return;
+                }
+                reservationCombo.setModel(new DefaultComboBoxModel<>(reservations.toArray(new Reservation[0])));
+            });
+        };
+        findButton.addActionListener(find);
+        clientField.addActionListener(find);
+        return lookup;
+    }
 }
@@ -1,6 +1,10 @@
 package com.hotel.ui;
 
+import com.hotel.db.ExportDataset;
 import com.hotel.model.Client;
+import com.hotel.service.ExportFormat;
+import com.hotel.service.ExportService;
+import com.hotel.service.Granularity;
 import com.hotel.service.ReportService;
 import com.hotel.service.rmi.HotelService;
 
@@ -8,18 +12,23 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.rmi.RemoteException;
+import java.io.File;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 
 public class ReportPanel extends JPanel {
     private final HotelService hotelService;
     private final ReportService reportService;
+    private final ExportService exportService;
     private JTextArea reportArea;
+    private final BackgroundLoader loader = new BackgroundLoader(this);
 
-    public ReportPanel(HotelService hotelService, ReportService reportService) {
+    public ReportPanel(HotelService hotelService, ReportService reportService, ExportService exportService) {
         this.hotelService = hotelService;
         this.reportService = reportService;
+        this.exportService = exportService;
         initialiseUI();
     }
 
@@ -34,9 +43,15 @@ public class ReportPanel extends JPanel {
         JButton occupancyButton = new JButton("Occupancy Report");
         JButton revenueButton = new JButton("Revenue Report");
         JButton clientHistoryButton = new JButton("Client History Report");
+        JButton timeSeriesButton = new JButton("Occupancy Time Series");
         buttonsPanel.add(occupancyButton);
+        buttonsPanel.add(timeSeriesButton);
         buttonsPanel.add(revenueButton);
         buttonsPanel.add(clientHistoryButton);
+        JButton exportButton = new JButton("Export...");
+        buttonsPanel.add(exportButton);
+        buttonsPanel.add(loader.getProgressBar());
+        exportButton.addActionListener(e -> showExportDialog());
 
         add(scrollPane, BorderLayout.CENTER);
         add(buttonsPanel, BorderLayout.NORTH);
@@ -44,22 +59,23 @@ public class ReportPanel extends JPanel {
         occupancyButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                reportArea.setText(reportService.generateOccupancyReport());
+                showReport(reportService::generateOccupancyReport);
             }
         });
 
+        timeSeriesButton.addActionListener(e -> showTimeSeriesDialog());
+
         revenueButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                reportArea.setText(reportService.generateRevenueReport());
+                showReport(reportService::generateRevenueReport);
             }
         });
 
         clientHistoryButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                try {
-                    List<Client> clients = hotelService.getAllClients();
+                loader.load("clients", hotelService::getAllClients, clients -> {
                     if (clients.isEmpty()) {
                         JOptionPane.showMessageDialog(ReportPanel.this, "No clients available.", "Information", JOptionPane.INFORMATION_MESSAGE);
                         return;
@@ -74,12 +90,80 @@ public class ReportPanel extends JPanel {
                             clients.get(0)
                     );
                     if (selected != null) {
-                        reportArea.setText(reportService.generateClientHistoryReport(selected));
+                        showReport(() -> reportService.generateClientHistoryReport(selected));
                     }
-                } catch (RemoteException ex) {
-                    JOptionPane.showMessageDialog(ReportPanel.this, "Error: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-                }
+                });
             }
         });
     }
+
+    // un nouveau rapport rend obsolète celui encore en cours de calcul
+    private void showReport(BackgroundLoader.Task<String> report) {
+        loader.load("report", report, text -> {
+            reportArea.setText(text);
+            reportArea.setCaretPosition(0);
+        });
+    }
+
+    private void showExportDialog() {
+        JComboBox<ExportDataset> datasetBox = new JComboBox<>(ExportDataset.values());
+        JComboBox<ExportFormat> formatBox = new JComboBox<>(ExportFormat.values());
+        JPanel form = new JPanel(new GridLayout(2, 2, 5, 5));
+        form.add(new JLabel("Data:"));
+        form.add(datasetBox);
+        form.add(new JLabel("Format:"));
+        form.add(formatBox);
+
+        int choice = JOptionPane.showConfirmDialog(this, form, "Export",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (choice != JOptionPane.OK_OPTION) {
+            return;
+        }
+        ExportDataset dataset = (ExportDataset) datasetBox.getSelectedItem();
+        ExportFormat format = (ExportFormat) formatBox.getSelectedItem();
+
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File(dataset.name().toLowerCase() + "." + format.getExtension()));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File target = chooser.getSelectedFile();
+
+        reportArea.setText("Exporting " + dataset + " to " + target + "...");
+        loader.run(() -> exportService.export(dataset, format, target.toPath()),
+                result -> reportArea.setText("Export " + dataset + " (" + format + "):\n" + result));
+    }
+
+    private void showTimeSeriesDialog() {
+        LocalDate today = LocalDate.now();
+        JTextField fromField = new JTextField(today.withDayOfMonth(1).toString(), 10);
+        JTextField toField = new JTextField(today.withDayOfMonth(1).plusMonths(1).toString(), 10);
+        JComboBox<Granularity> granularityBox = new JComboBox<>(Granularity.values());
+        JTextField typeField = new JTextField(10);
+
+        JPanel form = new JPanel(new GridLayout(4, 2, 5, 5));
+        form.add(new JLabel("From (yyyy-mm-dd):"));
+        form.add(fromField);
+        form.add(new JLabel("To, exclusive (yyyy-mm-dd):"));
+        form.add(toField);
+        form.add(new JLabel("Granularity:"));
+        form.add(granularityBox);
+        form.add(new JLabel("Room type (empty = all):"));
+        form.add(typeField);
+
+        int choice = JOptionPane.showConfirmDialog(this, form, "Occupancy Time Series",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (choice != JOptionPane.OK_OPTION) {
+            return;
+        }
+        try {
+            LocalDate from = LocalDate.parse(fromField.getText().trim());
+            LocalDate to = LocalDate.parse(toField.getText().trim());
+            Granularity granularity = (Granularity) granularityBox.getSelectedItem();
+            String roomType = typeField.getText().trim();
+            showReport(() -> reportService.generateOccupancyTimeSeries(from, to, granularity, roomType));
+        } catch (DateTimeParseException ex) {
+            JOptionPane.showMessageDialog(this, "Invalid input: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
 }
\ No newline at end of file
@@ -1,12 +1,13 @@
 package com.hotel.ui;
 
+import com.hotel.model.ChangeTopic;
 import com.hotel.model.Client;
 import com.hotel.model.Reservation;
+import com.hotel.model.ReservationSort;
 import com.hotel.model.Room;
 import com.hotel.service.rmi.HotelService;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
@@ -18,7 +19,9 @@ import java.util.List;
 public class ReservationManagementPanel extends JPanel {
     private final HotelService hotelService;
     private JTable table;
-    private DefaultTableModel tableModel;
+    private PagedTableModel<Reservation> tableModel;
+    private final BackgroundLoader loader = new BackgroundLoader(this);
+    private final Runnable onServerChange = this::refreshTable;
 
     public ReservationManagementPanel(HotelService hotelService) {
         this.hotelService = hotelService;
@@ -28,13 +31,33 @@ public class ReservationManagementPanel extends JPanel {
 
     private void initialiseUI() {
         setLayout(new BorderLayout());
-        tableModel = new DefaultTableModel(new Object[]{"ID", "Client", "Room", "Check-In", "Check-Out", "Confirmed"}, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        // pages lues à la demande pendant le défilement, triées côté serveur
+        tableModel = new PagedTableModel<>(
+                new String[]{"ID", "Client", "Room", "Check-In", "Check-Out", "Confirmed"},
+                new PagedTableModel.PageSource<Reservation>() {
+                    @Override
+                    public int count() throws RemoteException {
+                        return hotelService.countReservations();
+                    }
+
+                    @Override
+                    public List<Reservation> fetch(int sortColumn, boolean ascending, int offset, int limit)
+                            throws RemoteException {
+                        return hotelService.getReservationsPage(ReservationSort.values()[sortColumn], ascending, offset, limit);
+                    }
+                },
+                r -> new Object[]{
+                        r.getId(),
+                        r.getClient() != null ? r.getClient().getName() : "",
+                        r.getRoom() != null ? r.getRoom().getId() : "",
+                        r.getCheckInDate(),
+                        r.getCheckOutDate(),
+                        r.isConfirmed() ? "Yes" : "No"
+                }
+        );
+        tableModel.setChangeSource(hotelService::getReservationChanges);
         table = new JTable(tableModel);
+        PagedTableModel.installSortOnHeader(table, tableModel);
         JScrollPane scrollPane = new JScrollPane(table);
 
         JPanel buttonsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
@@ -46,6 +69,7 @@ public class ReservationManagementPanel extends JPanel {
         buttonsPanel.add(confirmButton);
         buttonsPanel.add(cancelButton);
         buttonsPanel.add(refreshButton);
+        buttonsPanel.add(loader.getProgressBar());
 
         add(scrollPane, BorderLayout.CENTER);
         add(buttonsPanel, BorderLayout.SOUTH);
@@ -61,14 +85,13 @@ public class ReservationManagementPanel extends JPanel {
             @Override
             public void actionPerformed(ActionEvent e) {
                 int selectedRow = table.getSelectedRow();
-                if (selectedRow >= 0) {
+                // ligne dont la page n'est pas (encore) chargée : traitée comme une absence de sélection
+                if (selectedRow >= 0 && tableModel.getValueAt(selectedRow, 0) != null) {
                     int reservationId = (int) tableModel.getValueAt(selectedRow, 0);
-                    try {
+                    loader.run(() -> {
                         hotelService.confirmReservation(reservationId);
-                        refreshTable();
-                    } catch (RemoteException ex) {
-                        JOptionPane.showMessageDialog(ReservationManagementPanel.this, "Error: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-                    }
+                        return null;
+                    }, done -> refreshTable());
                 } else {
                     JOptionPane.showMessageDialog(ReservationManagementPanel.this, "Please select a reservation to confirm.", "Information", JOptionPane.INFORMATION_MESSAGE);
                 }
@@ -79,16 +102,14 @@ public class ReservationManagementPanel extends JPanel {
             @Override
             public void actionPerformed(ActionEvent e) {
                 int selectedRow = table.getSelectedRow();
-                if (selectedRow >= 0) {
+                if (selectedRow >= 0 && tableModel.getValueAt(selectedRow, 0) != null) {
                     int reservationId = (int) tableModel.getValueAt(selectedRow, 0);
                     int confirm = JOptionPane.showConfirmDialog(ReservationManagementPanel.this, "Are you sure you want to cancel this reservation?", "Confirm", JOptionPane.YES_NO_OPTION);
                     if (confirm == JOptionPane.YES_OPTION) {
-                        try {
+                        loader.run(() -> {
                             hotelService.cancelReservation(reservationId);
-                            refreshTable();
-                        } catch (RemoteException ex) {
-                            JOptionPane.showMessageDialog(ReservationManagementPanel.this, "Error: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-                        }
+                            return null;
+                        }, done -> refreshTable());
                     }
                 } else {
                     JOptionPane.showMessageDialog(ReservationManagementPanel.this, "Please select a reservation to cancel.", "Information", JOptionPane.INFORMATION_MESSAGE);
@@ -99,125 +120,160 @@ public class ReservationManagementPanel extends JPanel {
         refreshButton.addActionListener(e -> refreshTable());
     }
 
+    // rafraîchissement poussé par le serveur tant que le panneau est affichable
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        ChangeEvents.of(hotelService).subscribe(ChangeTopic.RESERVATIONS, onServerChange);
+    }
+
+    @Override
+    public void removeNotify() {
+        ChangeEvents.of(hotelService).unsubscribe(ChangeTopic.RESERVATIONS, onServerChange);
+        super.removeNotify();
+    }
+
     private void refreshTable() {
-        try {
-            List<Reservation> reservations = hotelService.getAllReservations();
-            tableModel.setRowCount(0);
-            for (Reservation r : reservations) {
-                tableModel.addRow(new Object[]{
-                        r.getId(),
-                        r.getClient() != null ? r.getClient().getName() : "",
-                        r.getRoom() != null ? r.getRoom().getId() : "",
-                        r.getCheckInDate(),
-                        r.getCheckOutDate(),
-                        r.isConfirmed() ? "Yes" : "No"
-                });
-            }
-        } catch (RemoteException e) {
-            JOptionPane.showMessageDialog(this, "Error: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        tableModel.sync();
     }
 
     private void showReservationDialog() {
+        // liste des clients chargée hors EDT ; les chambres sont cherchées une fois les dates saisies
+        loader.load("dialog", hotelService::getAllClients, this::showReservationDialog);
+    }
+
+    private void showReservationDialog(List<Client> clients) {
+        if (clients.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "No clients available. Please add a client first.", "Information", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
         JDialog dialog = new JDialog(SwingUtilities.getWindowAncestor(this), "Make Reservation", Dialog.ModalityType.APPLICATION_MODAL);
         JPanel panel = new JPanel(new GridBagLayout());
         GridBagConstraints gbc = new GridBagConstraints();
         gbc.insets = new Insets(5, 5, 5, 5);
         gbc.fill = GridBagConstraints.HORIZONTAL;
 
-        try {
-            // Fetch lists for selection
-            List<Client> clients = hotelService.getAllClients();
-            List<Room> availableRooms = hotelService.getAvailableRooms();
-            if (clients.isEmpty()) {
-                JOptionPane.showMessageDialog(this, "No clients available. Please add a client first.", "Information", JOptionPane.INFORMATION_MESSAGE);
-                return;
-            }
-            if (availableRooms.isEmpty()) {
-                JOptionPane.showMessageDialog(this, "No available rooms. Please add rooms or wait until a room becomes available.", "Information", JOptionPane.INFORMATION_MESSAGE);
-                return;
-            }
-            JLabel clientLabel = new JLabel("Client:");
-            JComboBox<Client> clientCombo = new JComboBox<>(clients.toArray(new Client[0]));
-            JLabel roomLabel = new JLabel("Room:");
-            JComboBox<Room> roomCombo = new JComboBox<>(availableRooms.toArray(new Room[0]));
-            JLabel checkInLabel = new JLabel("Check-in (YYYY-MM-DD):");
-            JTextField checkInField = new JTextField(20);
-            JLabel checkOutLabel = new JLabel("Check-out (YYYY-MM-DD):");
-            JTextField checkOutField = new JTextField(20);
-
-            gbc.gridx = 0;
-            gbc.gridy = 0;
-            panel.add(clientLabel, gbc);
-            gbc.gridx = 1;
-            panel.add(clientCombo, gbc);
-            gbc.gridx = 0;
-            gbc.gridy = 1;
-            panel.add(roomLabel, gbc);
-            gbc.gridx = 1;
-            panel.add(roomCombo, gbc);
-            gbc.gridx = 0;
-            gbc.gridy = 2;
-            panel.add(checkInLabel, gbc);
-            gbc.gridx = 1;
-            panel.add(checkInField, gbc);
-            gbc.gridx = 0;
-            gbc.gridy = 3;
-            panel.add(checkOutLabel, gbc);
-            gbc.gridx = 1;
-            panel.add(checkOutField, gbc);
-
-            JButton okButton = new JButton("Reserve");
-            JButton cancelButton = new JButton("Cancel");
-            JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
-            buttonPanel.add(okButton);
-            buttonPanel.add(cancelButton);
-            gbc.gridx = 0;
-            gbc.gridy = 4;
-            gbc.gridwidth = 2;
-            panel.add(buttonPanel, gbc);
-
-            okButton.addActionListener(new ActionListener() {
-                @Override
-                public void actionPerformed(ActionEvent e) {
-                    String checkInText = checkInField.getText().trim();
-                    String checkOutText = checkOutField.getText().trim();
-                    LocalDate checkIn;
-                    LocalDate checkOut;
-                    try {
-                        checkIn = LocalDate.parse(checkInText);
-                        checkOut = LocalDate.parse(checkOutText);
-                        if (checkOut.isBefore(checkIn) || checkOut.equals(checkIn)) {
-                            JOptionPane.showMessageDialog(dialog, "Check-out date must be after check-in date.", "Validation", JOptionPane.WARNING_MESSAGE);
-                            return;
-                        }
-                    } catch (DateTimeParseException ex) {
-                        JOptionPane.showMessageDialog(dialog, "Please enter valid dates in YYYY-MM-DD format.", "Validation", JOptionPane.WARNING_MESSAGE);
-                        return;
-                    }
-                    Client client = (Client) clientCombo.getSelectedItem();
-                    Room room = (Room) roomCombo.getSelectedItem();
-                    try {
-                        Reservation res = hotelService.makeReservation(client, room, checkIn, checkOut);
-                        if (res != null) {
-                            JOptionPane.showMessageDialog(dialog, "Reservation created successfully (ID: " + res.getId() + ")", "Success", JOptionPane.INFORMATION_MESSAGE);
-                            refreshTable();
-                            dialog.dispose();
-                        } else {
-                            JOptionPane.showMessageDialog(dialog, "Reservation could not be created. Room may be unavailable.", "Failure", JOptionPane.WARNING_MESSAGE);
-                        }
-                    } catch (RemoteException ex) {
-                        JOptionPane.showMessageDialog(dialog, "Error: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        JLabel clientLabel = new JLabel("Client:");
+        JComboBox<Client> clientCombo = new JComboBox<>(clients.toArray(new Client[0]));
+        JLabel checkInLabel = new JLabel("Check-in (YYYY-MM-DD):");
+        JTextField checkInField = new JTextField(20);
+        JLabel checkOutLabel = new JLabel("Check-out (YYYY-MM-DD):");
+        JTextField checkOutField = new JTextField(20);
+        JLabel typeLabel = new JLabel("Room type (optional):");
+        JTextField typeField = new JTextField(20);
+        JButton searchButton = new JButton("Find Rooms");
+        JLabel roomLabel = new JLabel("Room:");
+        JComboBox<Room> roomCombo = new JComboBox<>();
+        roomCombo.setEnabled(false);
+
+        gbc.gridx = 0;
+        gbc.gridy = 0;
+        panel.add(clientLabel, gbc);
+        gbc.gridx = 1;
+        panel.add(clientCombo, gbc);
+        gbc.gridx = 0;
+        gbc.gridy = 1;
+        panel.add(checkInLabel, gbc);
+        gbc.gridx = 1;
+        panel.add(checkInField, gbc);
+        gbc.gridx = 0;
+        gbc.gridy = 2;
+        panel.add(checkOutLabel, gbc);
+        gbc.gridx = 1;
+        panel.add(checkOutField, gbc);
+        gbc.gridx = 0;
+        gbc.gridy = 3;
+        panel.add(typeLabel, gbc);
+        gbc.gridx = 1;
+        panel.add(typeField, gbc);
+        gbc.gridx = 1;
+        gbc.gridy = 4;
+        panel.add(searchButton, gbc);
+        gbc.gridx = 0;
+        gbc.gridy = 5;
+        panel.add(roomLabel, gbc);
+        gbc.gridx = 1;
+        panel.add(roomCombo, gbc);
+
+        JButton okButton = new JButton("Reserve");
+        okButton.setEnabled(false);
+        JButton cancelButton = new JButton("Cancel");
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.add(okButton);
+        buttonPanel.add(cancelButton);
+        gbc.gridx = 0;
+        gbc.gridy = 6;
+        gbc.gridwidth = 2;
+        panel.add(buttonPanel, gbc);
+
+        // dates de la dernière recherche : la chambre choisie n'est libre que pour celles-ci
+        LocalDate[] searched = new LocalDate[2];
+
+        searchButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                LocalDate[] dates = parseDates(dialog, checkInField, checkOutField);
+                if (dates == null) {
+                    return;
+                }
+                String type = typeField.getText().trim();
+                loader.run(dialog, () -> hotelService.getAvailableRooms(dates[0], dates[1], type.isEmpty() ? null : type), rooms -> {
+                    roomCombo.setModel(new DefaultComboBoxModel<>(rooms.toArray(new Room[0])));
+                    roomCombo.setEnabled(!rooms.isEmpty());
+                    okButton.setEnabled(!rooms.isEmpty());
+                    searched[0] = dates[0];
+                    searched[1] = dates[1];
+                    if (rooms.isEmpty()) {
+                        JOptionPane.showMessageDialog(dialog, "No room is available for these dates.", "Information", JOptionPane.INFORMATION_MESSAGE);
                     }
+                });
+            }
+        });
+
+        okButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                LocalDate[] dates = parseDates(dialog, checkInField, checkOutField);
+                if (dates == null) {
+                    return;
                 }
-            });
-            cancelButton.addActionListener(e -> dialog.dispose());
-            dialog.getContentPane().add(panel);
-            dialog.pack();
-            dialog.setLocationRelativeTo(this);
-            dialog.setVisible(true);
-        } catch (RemoteException e) {
-            JOptionPane.showMessageDialog(this, "Error: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                if (!dates[0].equals(searched[0]) || !dates[1].equals(searched[1])) {
+                    JOptionPane.showMessageDialog(dialog, "Dates changed since the last search. Please find rooms again.", "Validation", JOptionPane.WARNING_MESSAGE);
+                    return;
+                }
+                Client client = (Client) clientCombo.getSelectedItem();
+                Room room = (Room) roomCombo.getSelectedItem();
+                loader.run(dialog, () -> hotelService.makeReservation(client, room, dates[0], dates[1]), res -> {
+                    if (res != null) {
+                        JOptionPane.showMessageDialog(dialog, "Reservation created successfully (ID: " + res.getId() + ")", "Success", JOptionPane.INFORMATION_MESSAGE);
+                        refreshTable();
+                        dialog.dispose();
+                    } else {
+                        JOptionPane.showMessageDialog(dialog, "Reservation could not be created. Room may be unavailable.", "Failure", JOptionPane.WARNING_MESSAGE);
+                    }
+                });
+            }
+        });
+        cancelButton.addActionListener(e -> dialog.dispose());
+        dialog.getContentPane().add(panel);
+        dialog.pack();
+        dialog.setLocationRelativeTo(this);
+        dialog.setVisible(true);
+    }
+
+    // {arrivée, départ} ou null (message déjà affiché) si les dates sont invalides
+    private static LocalDate[] parseDates(JDialog dialog, JTextField checkInField, JTextField checkOutField) {
+        try {
+            LocalDate checkIn = LocalDate.parse(checkInField.getText().trim());
+            LocalDate checkOut = LocalDate.parse(checkOutField.getText().trim());
+            if (!checkOut.isAfter(checkIn)) {
+                JOptionPane.showMessageDialog(dialog, "Check-out date must be after check-in date.", "Validation", JOptionPane.WARNING_MESSAGE);
+                return null;
+            }
+            return new LocalDate[]{checkIn, checkOut};
+        } catch (DateTimeParseException ex) {
+            JOptionPane.showMessageDialog(dialog, "Please enter valid dates in YYYY-MM-DD format.", "Validation", JOptionPane.WARNING_MESSAGE);
+            return null;
         }
     }
-}
\ No newline at end of file
+}
@@ -1,19 +1,19 @@
 package com.hotel.ui;
 
+import com.hotel.model.ChangeTopic;
 import com.hotel.model.Room;
 import com.hotel.service.rmi.HotelService;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
-import java.rmi.RemoteException;
-import java.util.List;
 
 public class RoomManagementPanel extends JPanel {
     private final HotelService hotelService;
     private JTable table;
-    private DefaultTableModel tableModel;
+    private KeyedTableModel tableModel;
+    private final BackgroundLoader loader = new BackgroundLoader(this);
+    private final Runnable onServerChange = this::refreshTable;
 
     public RoomManagementPanel(HotelService hotelService) {
         this.hotelService = hotelService;
@@ -24,12 +24,7 @@ public class RoomManagementPanel extends JPanel {
     private void initialiseUI() {
         setLayout(new BorderLayout());
 
-        tableModel = new DefaultTableModel(new Object[]{"ID", "Number", "Type", "Price", "Available"}, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        tableModel = new KeyedTableModel("ID", "Number", "Type", "Price", "Available");
         table = new JTable(tableModel);
         JScrollPane scrollPane = new JScrollPane(table);
 
@@ -43,6 +38,7 @@ public class RoomManagementPanel extends JPanel {
         buttonsPanel.add(editButton);
         buttonsPanel.add(deleteButton);
         buttonsPanel.add(refreshButton);
+        buttonsPanel.add(loader.getProgressBar());
 
         add(scrollPane, BorderLayout.CENTER);
         add(buttonsPanel, BorderLayout.SOUTH);
@@ -53,21 +49,18 @@ public class RoomManagementPanel extends JPanel {
         editButton.addActionListener(e -> {
             int selectedRow = table.getSelectedRow();
             if (selectedRow >= 0) {
-                try {
-                    int roomId = (int) tableModel.getValueAt(selectedRow, 0);
-                    List<Room> rooms = hotelService.getAllRooms();
-                    for (Room r : rooms) {
-                        if (r.getId() == roomId) {
-                            showRoomDialog(r);
-                            break;
-                        }
+                int roomId = (int) tableModel.getValueAt(selectedRow, 0);
+                loader.run(() -> hotelService.getRoom(roomId), r -> {
+                    if (r != null) {
+                        showRoomDialog(r);
+                    } else {
+                        JOptionPane.showMessageDialog(RoomManagementPanel.this,
+                                "This room no longer exists.",
+                                "Information",
+                                JOptionPane.INFORMATION_MESSAGE);
+                        refreshTable();
                     }
-                } catch (RemoteException ex) {
-                    JOptionPane.showMessageDialog(RoomManagementPanel.this,
-                            "Error: " + ex.getMessage(),
-                            "Error",
-                            JOptionPane.ERROR_MESSAGE);
-                }
+                });
             } else {
                 JOptionPane.showMessageDialog(RoomManagementPanel.this,
                         "Please select a room to edit.",
@@ -84,16 +77,11 @@ public class RoomManagementPanel extends JPanel {
                         "Confirm",
                         JOptionPane.YES_NO_OPTION);
                 if (confirm == JOptionPane.YES_OPTION) {
-                    try {
-                        int roomId = (int) tableModel.getValueAt(selectedRow, 0);
+                    int roomId = (int) tableModel.getValueAt(selectedRow, 0);
+                    loader.run(() -> {
                         hotelService.deleteRoom(roomId);
-                        refreshTable();
-                    } catch (RemoteException ex) {
-                        JOptionPane.showMessageDialog(RoomManagementPanel.this,
-                                "Error: " + ex.getMessage(),
-                                "Error",
-                                JOptionPane.ERROR_MESSAGE);
-                    }
+                        return null;
+                    }, done -> refreshTable());
                 }
             } else {
                 JOptionPane.showMessageDialog(RoomManagementPanel.this,
@@ -106,25 +94,28 @@ public class RoomManagementPanel extends JPanel {
         refreshButton.addActionListener(e -> refreshTable());
     }
 
+    // n'applique que les chambres ajoutées / modifiées / supprimées depuis le dernier appel
+    // rafraîchissement poussé par le serveur tant que le panneau est affichable
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        ChangeEvents.of(hotelService).subscribe(ChangeTopic.ROOMS, onServerChange);
+    }
+
+    @Override
+    public void removeNotify() {
+        ChangeEvents.of(hotelService).unsubscribe(ChangeTopic.ROOMS, onServerChange);
+        super.removeNotify();
+    }
+
     private void refreshTable() {
-        try {
-            List<Room> rooms = hotelService.getAllRooms();
-            tableModel.setRowCount(0);
-            for (Room r : rooms) {
-                tableModel.addRow(new Object[]{
-                        r.getId(),
-                        r.getNumber(),
-                        r.getType(),
-                        r.getPrice(),
-                        r.isAvailable()
-                });
-            }
-        } catch (RemoteException e) {
-            JOptionPane.showMessageDialog(this,
-                    "Error: " + e.getMessage(),
-                    "Error",
-                    JOptionPane.ERROR_MESSAGE);
-        }
+        tableModel.sync(loader, "rooms", hotelService::getRoomChanges, hotelService::getAllRooms, r -> new Object[]{
+                r.getId(),
+                r.getNumber(),
+                r.getType(),
+                r.getPrice(),
+                r.isAvailable()
+        });
     }
 
     private void showRoomDialog(Room room) {
@@ -234,29 +225,23 @@ public class RoomManagementPanel extends JPanel {
                 return;
             }
 
-            try {
+            Room target = editing ? room : new Room();
+            target.setNumber(number);
+            target.setType(type);
+            target.setPrice(price);
+            target.setAvailable(available);
+
+            loader.run(dialog, () -> {
                 if (editing) {
-                    room.setNumber(number);
-                    room.setType(type);
-                    room.setPrice(price);
-                    room.setAvailable(available);
-                    hotelService.updateRoom(room);
+                    hotelService.updateRoom(target);
                 } else {
-                    Room newRoom = new Room();
-                    newRoom.setNumber(number);
-                    newRoom.setType(type);
-                    newRoom.setPrice(price);
-                    newRoom.setAvailable(available);
-                    hotelService.addRoom(newRoom);
+                    hotelService.addRoom(target);
                 }
+                return null;
+            }, done -> {
                 refreshTable();
                 dialog.dispose();
-            } catch (RemoteException ex) {
-                JOptionPane.showMessageDialog(dialog,
-                        "Error: " + ex.getMessage(),
-                        "Error",
-                        JOptionPane.ERROR_MESSAGE);
-            }
+            });
         });
 
         cancelButton.addActionListener(e -> dialog.dispose());
@@ -0,0 +1,119 @@
+package com.hotel.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Driver JDBC de test qui compte les requêtes envoyées à la base.
+ * <p>
+ * Les URL {@code jdbc:counting:<url>} sont déléguées au driver de {@code jdbc:<url>} ; les
+ * connexions physiques rendues au pool sont enveloppées pour compter les
+ * {@code prepareStatement} / {@code createStatement} et chaque {@code execute*}.
+ */
+public class CountingDriver implements Driver {
+
+    private static final String PREFIX = "jdbc:counting:";
+
+    private static final AtomicLong PREPARED = new AtomicLong();
+    private static final AtomicLong EXECUTED = new AtomicLong();
+
+    static {
+        try {
+            DriverManager.registerDriver(new CountingDriver());
+        } catch (SQLException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /** Nombre de requêtes préparées ou créées depuis le dernier {@link #reset()}. */
+    public static long preparedCount() {
+        return PREPARED.get();
+    }
+
+    /** Nombre d'exécutions ({@code executeQuery}, {@code executeUpdate}, lots...) depuis le dernier {@link #reset()}. */
+    public static long executedCount() {
+        return EXECUTED.get();
+    }
+
+    public static void reset() {
+        PREPARED.set(0);
+        EXECUTED.set(0);
+    }
+
+    @Override
+    public Connection connect(String url, Properties info) throws SQLException {
+        if (!acceptsURL(url)) {
+            return null;
+        }
+        Connection physical = DriverManager.getConnection("jdbc:" + url.substring(PREFIX.length()), info);
+        return wrap(physical, Connection.class);
+    }
+
+    @Override
+    public boolean acceptsURL(String url) {
+        return url != null && url.startsWith(PREFIX);
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+        return new DriverPropertyInfo[0];
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+        return false;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    private static <T> T wrap(T target, Class<T> type) {
+        InvocationHandler handler = (proxy, method, args) -> invoke(target, method, args);
+        return type.cast(Proxy.newProxyInstance(CountingDriver.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        Object result;
+        try {
+            result = method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+        if (name.equals("prepareStatement") || name.equals("createStatement")) {
+            PREPARED.incrementAndGet();
+            // l'interface exacte (PreparedStatement ou Statement) est celle déclarée par la méthode
+            @SuppressWarnings("unchecked")
+            Class<Statement> type = (Class<Statement>) method.getReturnType();
+            return wrap(type.cast(result), type);
+        }
+        if (name.startsWith("execute")) {
+            EXECUTED.incrementAndGet();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,77 @@
+package com.hotel.db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Schéma de la base embarquée des tests (H2 en mode MySQL).
+ * <p>
+ * {@link #reset()} recrée les tables dans leur forme d'origine, passe les migrations de
+ * {@link SchemaUpdater} comme au démarrage de l'application, puis vide les caches partagés.
+ */
+public final class EmbeddedDatabase {
+
+    private static final String[] SCHEMA = {
+            "DROP ALL OBJECTS",
+            "CREATE TABLE room (" +
+                    " id INT AUTO_INCREMENT PRIMARY KEY," +
+                    " room_number VARCHAR(10) NOT NULL," +
+                    " type VARCHAR(50) NOT NULL," +
+                    " price DECIMAL(10,2) NOT NULL," +
+                    " available BOOLEAN NOT NULL DEFAULT TRUE)",
+            "CREATE TABLE client (" +
+                    " id INT AUTO_INCREMENT PRIMARY KEY," +
+                    " name VARCHAR(100) NOT NULL," +
+                    " contact VARCHAR(100)," +
+                    " email VARCHAR(100))",
+            "CREATE TABLE reservation (" +
+                    " id INT AUTO_INCREMENT PRIMARY KEY," +
+                    " client_id INT NOT NULL," +
+                    " room_id INT NOT NULL," +
+                    " check_in DATE NOT NULL," +
+                    " check_out DATE NOT NULL," +
+                    " confirmed BOOLEAN NOT NULL DEFAULT FALSE," +
+                    " FOREIGN KEY (client_id) REFERENCES client(id)," +
+                    " FOREIGN KEY (room_id) REFERENCES room(id))",
+            "CREATE TABLE payment (" +
+                    " id INT AUTO_INCREMENT PRIMARY KEY," +
+                    " reservation_id INT NOT NULL," +
+                    " amount DECIMAL(10,2) NOT NULL," +
+                    " payment_date DATE NOT NULL," +
+                    " paid BOOLEAN NOT NULL DEFAULT FALSE," +
+                    " FOREIGN KEY (reservation_id) REFERENCES reservation(id) ON DELETE CASCADE)",
+            "CREATE TABLE invoice (" +
+                    " id INT AUTO_INCREMENT PRIMARY KEY," +
+                    " reservation_id INT NOT NULL," +
+                    " invoice_date DATE NOT NULL," +
+                    " total_amount DECIMAL(10,2) NOT NULL," +
+                    " FOREIGN KEY (reservation_id) REFERENCES reservation(id) ON DELETE CASCADE)",
+            "CREATE TABLE user (" +
+                    " id INT AUTO_INCREMENT PRIMARY KEY," +
+                    " username VARCHAR(50) NOT NULL UNIQUE," +
+                    " password VARCHAR(100) NOT NULL," +
+                    " role VARCHAR(20) NOT NULL," +
+                    " client_id INT NULL," +
+                    " FOREIGN KEY (client_id) REFERENCES client(id))"
+    };
+
+    private EmbeddedDatabase() {
+    }
+
+    public static void reset() {
+        try (Connection conn = DatabaseUtil.getConnection();
+             Statement st = conn.createStatement()) {
+            for (String ddl : SCHEMA) {
+                st.execute(ddl);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Erreur lors de la création du schéma de test", e);
+        }
+        SchemaUpdater.update();
+        CachingRoomDao.invalidateAll();
+        CachingClientDao.invalidateAll();
+        CachingInvoiceDao.invalidateAll();
+        CountingDriver.reset();
+    }
+}
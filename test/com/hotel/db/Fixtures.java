@@ -0,0 +1,80 @@
+package com.hotel.db;
+
+import com.hotel.model.Client;
+import com.hotel.model.Payment;
+import com.hotel.model.Reservation;
+import com.hotel.model.Room;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Jeux de données des tests et des benchmarks, insérés par lots via les {@code saveAll} des DAO.
+ * <p>
+ * Les réservations sont réparties en tourniquet sur les chambres : la k-ième occupe la chambre
+ * {@code k % rooms} pour deux nuits, à la suite des précédentes, sans jamais se chevaucher.
+ */
+public final class Fixtures {
+
+    private static final String[] TYPES = {"Single", "Double", "Suite"};
+    private static final double[] PRICES = {50.0, 80.0, 120.0};
+
+    public static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    private Fixtures() {
+    }
+
+    public static List<Room> rooms(int count) {
+        List<Room> rooms = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rooms.add(new Room(0, String.valueOf(100 + i), TYPES[i % TYPES.length], PRICES[i % PRICES.length], true));
+        }
+        return new RoomDaoImpl().saveAll(rooms);
+    }
+
+    public static List<Client> clients(int count) {
+        List<Client> clients = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            clients.add(new Client(0, "Client " + i, "Adresse " + i, "client" + i + "@example.com"));
+        }
+        return new ClientDaoImpl().saveAll(clients);
+    }
+
+    public static List<Reservation> reservations(List<Client> clients, List<Room> rooms, int count) {
+        List<Reservation> reservations = new ArrayList<>(count);
+        for (int k = 0; k < count; k++) {
+            Room room = rooms.get(k % rooms.size());
+            LocalDate checkIn = START.plusDays(3L * (k / rooms.size()));
+            Reservation r = new Reservation(0, clients.get(k % clients.size()), room, checkIn, checkIn.plusDays(2));
+            r.setConfirmed(k % 2 == 0);
+            reservations.add(r);
+        }
+        return new ReservationDaoImpl().saveAll(reservations);
+    }
+
+    /** Un paiement par réservation, du montant du séjour. */
+    public static List<Payment> payments(List<Reservation> reservations) {
+        List<Payment> payments = new ArrayList<>(reservations.size());
+        for (Reservation r : reservations) {
+            Payment p = new Payment();
+            p.setReservation(r);
+            p.setClient(r.getClient());
+            p.setAmount(2 * r.getRoom().getPrice());
+            p.setDate(r.getCheckOutDate());
+            p.setPaid(true);
+            payments.add(p);
+        }
+        return BatchInserter.insertAll(
+                "INSERT INTO payment (reservation_id, amount, payment_date, paid) VALUES (?, ?, ?, ?)",
+                payments,
+                (ps, p) -> {
+                    ps.setInt(1, p.getReservation().getId());
+                    ps.setDouble(2, p.getAmount());
+                    ps.setDate(3, Date.valueOf(p.getDate()));
+                    ps.setBoolean(4, p.isPaid());
+                },
+                Payment::setId);
+    }
+}
@@ -0,0 +1,78 @@
+package com.hotel.db;
+
+import com.hotel.model.Invoice;
+import com.hotel.model.Reservation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Une facture par réservation : la facturation groupée ne reprend pas les réservations
+ * déjà facturées, l'index unique refuse les doublons, et la migration refuse de le créer
+ * (sans rien supprimer) tant qu'il reste des factures en double.
+ */
+class InvoiceDaoImplTest {
+
+    private final InvoiceDao invoiceDao = new InvoiceDaoImpl();
+    private List<Reservation> reservations;
+
+    @BeforeEach
+    void seed() {
+        EmbeddedDatabase.reset();
+        // 3 chambres, départs les 3, 6 et 9 janvier, 2 nuits chacune
+        reservations = Fixtures.reservations(Fixtures.clients(2), Fixtures.rooms(3), 9);
+    }
+
+    @Test
+    void insertMissingSkipsInvoicedReservations() {
+        LocalDate today = LocalDate.now();
+
+        assertEquals(6, invoiceDao.insertMissing(Fixtures.START, Fixtures.START.plusDays(5), today));
+        assertEquals(0, invoiceDao.insertMissing(Fixtures.START, Fixtures.START.plusDays(5), today));
+        assertEquals(3, invoiceDao.insertMissing(Fixtures.START, Fixtures.START.plusDays(10), today));
+
+        Reservation single = reservations.get(0);
+        assertEquals(2 * single.getRoom().getPrice(), invoiceDao.findByReservationId(single.getId()).getTotalAmount(), 1e-9);
+    }
+
+    @Test
+    void secondInvoiceForAReservationIsRejected() {
+        invoiceDao.insertMissing(Fixtures.START, Fixtures.START.plusDays(10), LocalDate.now());
+
+        Invoice again = new Invoice(0, reservations.get(0), LocalDate.now(), 1.0);
+        assertThrows(DuplicateKeyException.class, () -> invoiceDao.save(again));
+    }
+
+    @Test
+    void schemaUpdateRefusesDuplicateInvoicesWithoutDeletingThem() throws SQLException {
+        int reservationId = reservations.get(0).getId();
+        try (Connection conn = DatabaseUtil.getConnection();
+             Statement st = conn.createStatement()) {
+            st.executeUpdate("DROP INDEX uq_invoice_reservation");
+            for (int i = 0; i < 3; i++) {
+                st.executeUpdate("INSERT INTO invoice (reservation_id, invoice_date, total_amount) VALUES ("
+                        + reservationId + ", CURRENT_DATE, " + (i + 1) + ")");
+            }
+        }
+
+        RuntimeException e = assertThrows(RuntimeException.class, SchemaUpdater::update);
+        assertTrue(e.getCause().getMessage().contains("[" + reservationId + "]"), e.getCause().getMessage());
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM invoice")) {
+            rs.next();
+            assertEquals(3, rs.getInt(1), "aucune facture supprimée");
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.hotel.db;
+
+import com.hotel.model.Client;
+import com.hotel.model.Payment;
+import com.hotel.model.PaymentSort;
+import com.hotel.model.Reservation;
+import com.hotel.model.Room;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Garde-fou contre le N+1 : le nombre de requêtes des lectures de paiements ne dépend
+ * pas du nombre de lignes. La lecture page après page (par clé de tri) suit le même ordre
+ * que la lecture par position. Seul un doublon de clé d'idempotence devient
+ * {@link DuplicateKeyException}.
+ */
+class PaymentDaoImplTest {
+
+    private final PaymentDao paymentDao = new PaymentDaoImpl();
+    private List<Client> clients;
+    private List<Reservation> reservations;
+
+    @BeforeEach
+    void seed() {
+        EmbeddedDatabase.reset();
+        List<Room> rooms = Fixtures.rooms(5);
+        clients = Fixtures.clients(3);
+        reservations = Fixtures.reservations(clients, rooms, 40);
+        Fixtures.payments(reservations);
+        CountingDriver.reset();
+    }
+
+    @Test
+    void findAllRunsOneQuery() {
+        List<Payment> payments = paymentDao.findAll();
+
+        assertEquals(40, payments.size());
+        assertEquals(1, CountingDriver.executedCount());
+        assertEquals(1, CountingDriver.preparedCount());
+        for (Payment p : payments) {
+            assertNotNull(p.getReservation().getRoom().getType());
+            assertNotNull(p.getClient().getName());
+        }
+    }
+
+    @Test
+    void findByClientIdRunsOneQuery() {
+        List<Payment> payments = paymentDao.findByClientId(clients.get(0).getId());
+
+        assertEquals(14, payments.size());
+        assertEquals(1, CountingDriver.executedCount());
+    }
+
+    @Test
+    void findSortedPageRunsOneQuery() {
+        List<Payment> page = paymentDao.findSortedPage(null, true, 10, 20);
+
+        assertEquals(20, page.size());
+        assertEquals(1, CountingDriver.executedCount());
+    }
+
+    @Test
+    void pagesReadAfterTheLastRowMatchTheFullOrder() {
+        for (PaymentSort sort : PaymentSort.values()) {
+            for (boolean ascending : new boolean[]{true, false}) {
+                List<Integer> expected = ids(paymentDao.findSortedPage(sort, ascending, 0, 100));
+
+                List<Integer> seen = new ArrayList<>();
+                List<Payment> page = paymentDao.findSortedPage(sort, ascending, 0, 7);
+                while (!page.isEmpty()) {
+                    seen.addAll(ids(page));
+                    page = paymentDao.findSortedPageAfter(sort, ascending, page.get(page.size() - 1), 7);
+                }
+                assertEquals(expected, seen, sort + (ascending ? " ASC" : " DESC"));
+            }
+        }
+    }
+
+    private static List<Integer> ids(List<Payment> payments) {
+        List<Integer> ids = new ArrayList<>();
+        for (Payment p : payments) {
+            ids.add(p.getId());
+        }
+        return ids;
+    }
+
+    @Test
+    void onlyDuplicateKeysBecomeDuplicateKeyException() {
+        paymentDao.save(payment(reservations.get(0), "cle-1"));
+        assertThrows(DuplicateKeyException.class, () -> paymentDao.save(payment(reservations.get(1), "cle-1")));
+
+        Reservation missing = new Reservation();
+        missing.setId(-1);
+        RuntimeException e = assertThrows(RuntimeException.class, () -> paymentDao.save(payment(missing, "cle-2")));
+        assertFalse(e instanceof DuplicateKeyException, "clé étrangère violée, pas un doublon");
+    }
+
+    private static Payment payment(Reservation reservation, String key) {
+        Payment p = new Payment();
+        p.setReservation(reservation);
+        p.setAmount(100.0);
+        p.setDate(LocalDate.now());
+        p.setPaid(true);
+        p.setIdempotencyKey(key);
+        return p;
+    }
+}
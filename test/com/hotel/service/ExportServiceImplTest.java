@@ -0,0 +1,61 @@
+package com.hotel.service;
+
+import com.hotel.db.DatabaseUtil;
+import com.hotel.db.EmbeddedDatabase;
+import com.hotel.db.ExportDataset;
+import com.hotel.db.Fixtures;
+import com.hotel.model.Payment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExportServiceImplTest {
+
+    @TempDir
+    Path dir;
+
+    private Payment large;
+
+    @BeforeEach
+    void seed() throws Exception {
+        EmbeddedDatabase.reset();
+        List<Payment> payments = Fixtures.payments(
+                Fixtures.reservations(Fixtures.clients(2), Fixtures.rooms(3), 3));
+        large = payments.get(0);
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement("UPDATE payment SET amount = 12345678.90 WHERE id = ?")) {
+            ps.setInt(1, large.getId());
+            ps.executeUpdate();
+        }
+    }
+
+    @Test
+    void csvWritesDecimalsExactly() throws Exception {
+        Path target = dir.resolve("payments.csv");
+        ExportResult result = new ExportServiceImpl().export(ExportDataset.PAYMENTS, ExportFormat.CSV, target);
+
+        List<String> lines = Files.readAllLines(target);
+        assertEquals(3, result.getRows());
+        assertTrue(lines.get(1).startsWith(large.getId() + "," + large.getReservation().getId() + ",12345678.90,"),
+                lines.get(1));
+        assertTrue(lines.get(2).contains(",160.00,"), lines.get(2));
+    }
+
+    @Test
+    void jsonWritesDecimalsExactly() throws Exception {
+        Path target = dir.resolve("payments.jsonl");
+        new ExportServiceImpl().export(ExportDataset.PAYMENTS, ExportFormat.JSON_LINES, target);
+
+        String first = Files.readAllLines(target).get(0);
+        assertTrue(first.contains("\"amount\":12345678.90,"), first);
+    }
+}
@@ -0,0 +1,97 @@
+package com.hotel.service;
+
+import com.hotel.db.CountingDriver;
+import com.hotel.db.EmbeddedDatabase;
+import com.hotel.db.Fixtures;
+import com.hotel.db.ReservationDaoImpl;
+import com.hotel.model.Client;
+import com.hotel.model.Reservation;
+import com.hotel.model.Room;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReportServiceImplTest {
+
+    private List<Room> rooms;
+    private List<Client> clients;
+    private ReportService reportService;
+
+    @BeforeEach
+    void seed() {
+        EmbeddedDatabase.reset();
+        rooms = Fixtures.rooms(4);
+        clients = Fixtures.clients(2);
+        List<Reservation> reservations = Fixtures.reservations(clients, rooms, 30);
+        Fixtures.payments(reservations);
+        ReportReconciler.reload();
+        reportService = new ReportServiceImpl();
+    }
+
+    @Test
+    void clientHistoryRunsOneQuery() {
+        CountingDriver.reset();
+        String report = reportService.generateClientHistoryReport(clients.get(0));
+
+        assertEquals(1, CountingDriver.executedCount());
+        assertEquals(15, countLines(report, "Reservation "));
+        assertEquals(15, countLines(report, "    Payment"));
+    }
+
+    @Test
+    void occupancyAndRevenueReportsDoNotQuery() {
+        CountingDriver.reset();
+        String occupancy = reportService.generateOccupancyReport();
+        String revenue = reportService.generateRevenueReport();
+
+        assertEquals(0, CountingDriver.executedCount());
+        assertTrue(occupancy.contains("Total rooms: 4"), occupancy);
+        assertTrue(revenue.contains("Total revenue:"), revenue);
+    }
+
+    @Test
+    void timeSeriesScansTheWholeRangeOnce() {
+        CountingDriver.reset();
+        String series = reportService.generateOccupancyTimeSeries(
+                Fixtures.START, Fixtures.START.plusYears(1), Granularity.MONTH, null);
+
+        // nombre de chambres + un seul parcours des séjours, quel que soit le nombre de mois
+        assertEquals(2, CountingDriver.executedCount());
+        String[] lines = series.split("\n");
+        assertEquals("60", lines[lines.length - 1].trim().split("\\s+")[2], series);
+    }
+
+    @Test
+    void aggregatesReloadOccupancyFromSqlAndDropPastNights() {
+        LocalDate today = LocalDate.now();
+        new ReservationDaoImpl().saveAll(List.of(
+                new Reservation(0, clients.get(0), rooms.get(0), today.minusDays(1), today.plusDays(1)),
+                new Reservation(0, clients.get(1), rooms.get(1), today, today.plusDays(3)),
+                new Reservation(0, clients.get(0), rooms.get(2), today.plusDays(1), today.plusDays(2))));
+        ReportReconciler.reload();
+
+        ReportAggregates aggregates = ReportAggregates.getInstance();
+        assertTrue(reportService.generateOccupancyReport().contains("Rooms occupied: 2"));
+        assertEquals(2, aggregates.getOccupiedRooms(today.plusDays(1)));
+        assertEquals(1, aggregates.getOccupiedRooms(today.plusDays(2)));
+        assertEquals(0, aggregates.getOccupiedRooms(today.plusDays(3)));
+        // séjours des fixtures (2024) : hors de la fenêtre conservée
+        assertEquals(0, aggregates.getOccupiedRooms(Fixtures.START));
+        assertEquals(15 * 2 + 2, aggregates.getNightsByRoomType("Single"));
+    }
+
+    private static int countLines(String text, String prefix) {
+        int n = 0;
+        for (String line : text.split("\n")) {
+            if (line.startsWith(prefix)) {
+                n++;
+            }
+        }
+        return n;
+    }
+}
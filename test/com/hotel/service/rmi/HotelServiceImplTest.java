@@ -0,0 +1,201 @@
+package com.hotel.service.rmi;
+
+import com.hotel.db.EmbeddedDatabase;
+import com.hotel.model.ChangeSet;
+import com.hotel.model.Client;
+import com.hotel.model.Payment;
+import com.hotel.model.Reservation;
+import com.hotel.model.Room;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.rmi.NoSuchObjectException;
+import java.rmi.server.UnicastRemoteObject;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Réservations concurrentes : des threads réservent en même temps des séjours qui se
+ * chevauchent sur les mêmes chambres ; aucune nuit ne doit être vendue deux fois.
+ */
+class HotelServiceImplTest {
+
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 40;
+    private static final int WINDOW_DAYS = 60;
+
+    private HotelServiceImpl service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        EmbeddedDatabase.reset();
+        service = new HotelServiceImpl();
+    }
+
+    @AfterEach
+    void tearDown() throws NoSuchObjectException {
+        UnicastRemoteObject.unexportObject(service, true);
+    }
+
+    @Test
+    void concurrentBookingsNeverShareANight() throws Exception {
+        List<Room> rooms = service.getAllRooms().subList(0, 2);
+        Client client = service.getAllClients().get(0);
+        LocalDate start = LocalDate.now().plusDays(7);
+
+        List<Reservation> accepted = runConcurrently(THREADS, () -> {
+            List<Reservation> mine = new ArrayList<>();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                Room room = rooms.get(random.nextInt(rooms.size()));
+                LocalDate checkIn = start.plusDays(random.nextInt(WINDOW_DAYS));
+                Reservation r = service.makeReservation(client, room, checkIn, checkIn.plusDays(1 + random.nextInt(4)));
+                if (r != null) {
+                    mine.add(r);
+                }
+            }
+            return mine;
+        });
+
+        assertFalse(accepted.isEmpty());
+        assertNoSharedNight(accepted, start);
+        assertNoSharedNight(service.getAllReservations(), start);
+        assertEquals(accepted.size(), service.countReservations());
+    }
+
+    @Test
+    void cancelledNightsCanBeBookedAgain() throws Exception {
+        Room room = service.getAllRooms().get(0);
+        Client client = service.getAllClients().get(0);
+        LocalDate checkIn = LocalDate.now().plusDays(3);
+
+        Reservation first = service.makeReservation(client, room, checkIn, checkIn.plusDays(2));
+        assertNotNull(first);
+        assertNull(service.makeReservation(client, room, checkIn.plusDays(1), checkIn.plusDays(3)));
+
+        service.cancelReservation(first.getId());
+        assertNotNull(service.makeReservation(client, room, checkIn.plusDays(1), checkIn.plusDays(3)));
+    }
+
+    @Test
+    void availabilitySearchSeesBookingsOfOtherServers() throws Exception {
+        HotelServiceImpl other = new HotelServiceImpl();
+        try {
+            Room room = service.getAllRooms().get(0);
+            Client client = service.getAllClients().get(0);
+            LocalDate checkIn = LocalDate.now().plusDays(10);
+
+            assertTrue(containsRoom(service.getAvailableRooms(checkIn, checkIn.plusDays(2), null), room));
+            Reservation booked = other.makeReservation(client, room, checkIn, checkIn.plusDays(2));
+            assertNotNull(booked);
+            assertFalse(containsRoom(service.getAvailableRooms(checkIn.plusDays(1), checkIn.plusDays(3), null), room));
+            assertTrue(containsRoom(service.getAvailableRooms(checkIn.plusDays(2), checkIn.plusDays(4), null), room));
+
+            // confirmée entre-temps (version incrémentée) : l'annulation relit puis supprime
+            other.confirmReservation(booked.getId());
+            service.cancelReservation(booked.getId());
+            assertTrue(containsRoom(service.getAvailableRooms(checkIn, checkIn.plusDays(2), null), room));
+        } finally {
+            UnicastRemoteObject.unexportObject(other, true);
+        }
+    }
+
+    private static boolean containsRoom(List<Room> rooms, Room room) {
+        return rooms.stream().anyMatch(r -> r.getId() == room.getId());
+    }
+
+    @Test
+    void changesMadeByAnotherServerAreVisible() throws Exception {
+        Room first = new Room(0, "998", "Single", 60.0, true);
+        service.addRoom(first);
+        long since = service.getRoomChanges(0).getSequence();
+
+        HotelServiceImpl other = new HotelServiceImpl();
+        try {
+            Room added = new Room(0, "999", "Suite", 200.0, true);
+            other.addRoom(added);
+            other.addClient(new Client(0, "Carol", "1 Rue", "carol@example.com"));
+            other.deleteRoom(first.getId());
+
+            ChangeSet<Room> changes = service.getRoomChanges(since);
+            assertFalse(changes.isFullReloadRequired());
+            assertEquals(1, changes.getUpserted().size());
+            assertEquals(added.getId(), changes.getUpserted().get(0).getId());
+            assertEquals(200.0, changes.getUpserted().get(0).getPrice());
+            assertEquals(List.of(first.getId()), changes.getDeletedIds());
+            assertEquals(other.getRoomChanges(0).getSequence(), changes.getSequence());
+        } finally {
+            UnicastRemoteObject.unexportObject(other, true);
+        }
+    }
+
+    @Test
+    void paymentsMadeThroughTheServerAreLogged() {
+        Room room = service.getAllRooms().get(0);
+        Client client = service.getAllClients().get(0);
+        LocalDate checkIn = LocalDate.now().plusDays(3);
+        Reservation booked = service.makeReservation(client, room, checkIn, checkIn.plusDays(2));
+        long since = service.getPaymentChanges(0).getSequence();
+
+        Payment paid = new RemotePaymentService(service).processPayment(booked, 100.0, "desk-1");
+
+        ChangeSet<Payment> changes = service.getPaymentChanges(since);
+        assertEquals(1, changes.getUpserted().size());
+        assertEquals(paid.getId(), changes.getUpserted().get(0).getId());
+        assertEquals(1, service.countPayments());
+    }
+
+    // lance les tâches en même temps et concatène leurs résultats
+    static List<Reservation> runConcurrently(int threads, Callable<List<Reservation>> task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch go = new CountDownLatch(1);
+            List<Future<List<Reservation>>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    go.await();
+                    return task.call();
+                }));
+            }
+            go.countDown();
+            List<Reservation> all = new ArrayList<>();
+            for (Future<List<Reservation>> f : futures) {
+                all.addAll(f.get(60, TimeUnit.SECONDS));
+            }
+            return all;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    static void assertNoSharedNight(List<Reservation> reservations, LocalDate origin) {
+        Map<Integer, BitSet> nightsByRoom = new HashMap<>();
+        for (Reservation r : reservations) {
+            BitSet nights = nightsByRoom.computeIfAbsent(r.getRoom().getId(), id -> new BitSet());
+            int from = (int) (r.getCheckInDate().toEpochDay() - origin.toEpochDay());
+            int to = (int) (r.getCheckOutDate().toEpochDay() - origin.toEpochDay());
+            int taken = nights.nextSetBit(from);
+            assertTrue(taken < 0 || taken >= to,
+                    "Nuit vendue deux fois : chambre " + r.getRoom().getId() + ", réservation " + r.getId());
+            nights.set(from, to);
+        }
+    }
+}